@@ -0,0 +1,317 @@
+package com.studentmanagement;
+
+import com.studentmanagement.service.StudentManager;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves console sessions of the app over a local socket, so several
+ * operators share one loaded StudentManager instead of each starting a
+ * JVM that loads its own copy and overwrites the others' changes on exit.
+ *
+ * Each connection gets the full login and menu of the console app and
+ * its own SessionLogger; connect with e.g. "nc localhost 7171" or
+ * "nc -U data/sms.sock". Sessions run on virtual threads when the JVM has
+ * them (Java 21+) and on platform threads otherwise. They block on their
+ * socket outside the manager's lock and hold it only for in-memory work.
+ *
+ * Enabled in the console app with -Dsms.server.port=PORT (bound to the
+ * loopback address only) or -Dsms.server.socket=PATH for a Unix-domain
+ * socket. At most sms.server.maxSessions (default 64) are served at once.
+ * Sessions are plain text unless -Dsms.color=always.
+ *
+ * Unix-domain sockets need Java 16 or later. Their classes are looked up
+ * reflectively, so the app still builds and serves TCP on Java 11.
+ */
+public class ConsoleServer implements AutoCloseable {
+    public static final int DEFAULT_MAX_SESSIONS = 64;
+
+    private static final String UNIX_ADDRESS_CLASS = "java.net.UnixDomainSocketAddress";
+
+    private final StudentManager manager;
+    private final ServerSocketChannel serverChannel;
+    private final SocketAddress address;
+    private final Path socketFile; // null for TCP
+    private final ExecutorService sessions;
+    private final String threadKind;
+    private final int maxSessions;
+    private final boolean color;
+    private final Set<SocketChannel> connected = ConcurrentHashMap.newKeySet();
+    private final AtomicLong served = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean running;
+
+    public ConsoleServer(StudentManager manager, SocketAddress address) throws IOException {
+        if (manager == null) {
+            throw new IllegalArgumentException("Manager cannot be null");
+        }
+        this.manager = manager;
+        this.maxSessions = Math.max(1, Integer.getInteger("sms.server.maxSessions", DEFAULT_MAX_SESSIONS));
+        this.color = System.getProperty("sms.color", "auto").equalsIgnoreCase("always");
+        this.socketFile = unixSocketPath(address);
+        if (socketFile != null) {
+            removeStaleSocket(socketFile);
+            this.serverChannel = (ServerSocketChannel) invoke(ServerSocketChannel.class, "open",
+                    new Class<?>[] { ProtocolFamily.class }, null, StandardProtocolFamily.valueOf("UNIX"));
+        } else {
+            this.serverChannel = ServerSocketChannel.open();
+        }
+        try {
+            serverChannel.bind(address);
+            this.address = serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.threadKind = virtual != null ? "virtual" : "platform";
+        this.sessions = virtual != null ? virtual : Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "sms-console-session");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Address from -Dsms.server.port or -Dsms.server.socket, or null if
+     * neither is set
+     */
+    public static SocketAddress addressFromSystemProperties() {
+        String socket = System.getProperty("sms.server.socket");
+        Integer port = Integer.getInteger("sms.server.port");
+        if (socket != null && port != null) {
+            throw new IllegalArgumentException("Set sms.server.port or sms.server.socket, not both");
+        }
+        if (socket != null) {
+            try {
+                return unixAddress(Path.of(socket));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("sms.server.socket needs Java 16 or later; use sms.server.port instead");
+            }
+        }
+        if (port != null) {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Invalid sms.server.port: " + port);
+            }
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        }
+        return null;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() where the running JVM has
+     * it, looked up reflectively so the app still builds and runs on Java 11
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // older JVM, or virtual threads still a preview feature
+        }
+    }
+
+    /**
+     * UnixDomainSocketAddress.of(file), or an IOException on a JVM without
+     * Unix-domain socket support (before Java 16)
+     */
+    private static SocketAddress unixAddress(Path file) throws IOException {
+        Class<?> type;
+        try {
+            type = Class.forName(UNIX_ADDRESS_CLASS);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unix-domain sockets need Java 16 or later");
+        }
+        return (SocketAddress) invoke(type, "of", new Class<?>[] { Path.class }, null, file);
+    }
+
+    /** Socket file of a UnixDomainSocketAddress, or null for any other address */
+    private static Path unixSocketPath(SocketAddress address) throws IOException {
+        if (address == null || !address.getClass().getName().equals(UNIX_ADDRESS_CLASS)) {
+            return null;
+        }
+        return (Path) invoke(address.getClass(), "getPath", new Class<?>[0], address);
+    }
+
+    /** Reflective call that rethrows the method's own exceptions unwrapped */
+    private static Object invoke(Class<?> type, String name, Class<?>[] parameterTypes, Object target, Object... args)
+            throws IOException {
+        try {
+            Method method = type.getMethod(name, parameterTypes);
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IOException("Unix-domain sockets need Java 16 or later", e);
+        }
+    }
+
+    /**
+     * A socket file left by a server that did not shut down cleanly blocks
+     * the bind; remove it, unless a live server is still answering on it
+     */
+    private static void removeStaleSocket(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        boolean live;
+        try {
+            SocketChannel.open(unixAddress(file)).close();
+            live = true;
+        } catch (IOException e) {
+            live = false;
+        }
+        if (live) {
+            throw new IOException("Another server is already listening on " + file);
+        }
+        Files.deleteIfExists(file);
+    }
+
+    /** Address actually bound (useful when constructed with port 0) */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /** "virtual" or "platform", the kind of thread each session runs on */
+    public String getThreadKind() {
+        return threadKind;
+    }
+
+    public int getSessionCount() {
+        return connected.size();
+    }
+
+    /** Sessions accepted since start, including those still connected */
+    public long getSessionsServed() {
+        return served.get();
+    }
+
+    public boolean isClosed() {
+        return stopped.getCount() == 0;
+    }
+
+    /** Start accepting sessions in the background */
+    public void start() {
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "sms-console-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                if (connected.size() >= maxSessions) {
+                    reject(channel);
+                    continue;
+                }
+                connected.add(channel);
+                served.incrementAndGet();
+                sessions.execute(() -> serve(channel));
+            } catch (IOException e) {
+                if (running) {
+                    System.out.println("✗ Warning: Console server accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void reject(SocketChannel channel) {
+        try (PrintStream output = new PrintStream(Channels.newOutputStream(channel), true, StandardCharsets.UTF_8)) {
+            output.println("✗ Server busy: " + maxSessions + " session(s) already connected. Try again later.");
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try {
+            InputStream in = Channels.newInputStream(channel);
+            PrintStream output = new PrintStream(new BufferedOutputStream(Channels.newOutputStream(channel)),
+                                                 false, StandardCharsets.UTF_8);
+            new StudentManagementSystemApp(manager, in, output, color).run();
+        } catch (RuntimeException e) {
+            if (running) {
+                System.out.println("✗ Warning: Console session ended with an error: " + e.getMessage());
+            }
+        } finally {
+            connected.remove(channel);
+            closeQuietly(channel);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    /** Block until the server is closed */
+    public void awaitTermination() {
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop accepting and disconnect every session. Each session then
+     * closes its own log; call before the final save so it sees all changes.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        for (SocketChannel channel : connected) {
+            closeQuietly(channel);
+        }
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (socketFile != null) {
+            try {
+                Files.deleteIfExists(socketFile);
+            } catch (IOException e) {
+                // left behind; removed as stale on the next start
+            }
+        }
+        stopped.countDown();
+    }
+}
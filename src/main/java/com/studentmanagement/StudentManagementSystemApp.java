@@ -1,13 +1,40 @@
 package com.studentmanagement;
 
+import com.studentmanagement.model.GradingScale;
 import com.studentmanagement.model.Student;
+import com.studentmanagement.replication.ReplicationServer;
+import com.studentmanagement.service.BatchResult;
+import com.studentmanagement.service.CompletionField;
+import com.studentmanagement.service.CourseStatistics;
+import com.studentmanagement.service.GpaRecomputeJob;
+import com.studentmanagement.service.QueryCursor;
+import com.studentmanagement.service.ReportEngine;
+import com.studentmanagement.service.RosterStatistics;
+import com.studentmanagement.service.SearchResult;
+import com.studentmanagement.service.StudentBatch;
 import com.studentmanagement.service.StudentManager;
+import com.studentmanagement.service.StudentQuery;
+import com.studentmanagement.service.TieredStudentStore;
+import com.studentmanagement.util.AutoSaveScheduler;
 import com.studentmanagement.util.InputValidator;
 import com.studentmanagement.util.DataStore;
 import com.studentmanagement.util.SessionLogger;
 import com.studentmanagement.util.ConsoleColors;
+import com.studentmanagement.util.ConsoleRenderer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * Main class for Student Management System CLI
@@ -19,86 +46,280 @@ public class StudentManagementSystemApp {
     private static final String ADMIN_USERNAME = "admin";
     private static final String ADMIN_PASSWORD = "admin123";
     private static final int MAX_LOGIN_ATTEMPTS = 3;
+    private static final int FUZZY_RESULT_LIMIT = 10;
+    private static final int COMPLETION_LIMIT = 10;
     
     private StudentManager studentManager;
     private Scanner scanner;
     private SessionLogger sessionLogger;
+    private AutoSaveScheduler autoSave;
+    private String lastStudentIdInput;
+    private final ConsoleRenderer out;
+    private ReplicationServer replication;
+    private final FutureTask<StudentManager> loading;
+    private final long loadStartNanos;
+    private long loginScreenShownAt; // wall-clock millis when the login prompt first appeared
 
     public StudentManagementSystemApp() {
-        this.studentManager = DataStore.load();
+        this.out = ConsoleRenderer.forStdout();
+        // Load while the login screen is shown; the data is first needed after login
+        this.loadStartNanos = System.nanoTime();
+        this.loading = new FutureTask<>(DataStore::load);
+        Thread loader = new Thread(loading, "sms-loader");
+        loader.setDaemon(true);
+        loader.start();
         this.scanner = new Scanner(System.in);
         this.sessionLogger = null;
     }
 
     /**
-     * Main entry point
+     * Console session over the given streams against a manager that is
+     * already loaded and shared, as served by ConsoleServer. The session
+     * does not start auto-save or replication; whoever owns the manager does.
+     */
+    StudentManagementSystemApp(StudentManager sharedManager, InputStream in, PrintStream output, boolean color) {
+        this.out = new ConsoleRenderer(output, color, StandardCharsets.UTF_8);
+        this.studentManager = sharedManager;
+        this.loadStartNanos = System.nanoTime();
+        this.loading = null;
+        this.scanner = new Scanner(in, StandardCharsets.UTF_8);
+        this.sessionLogger = null;
+    }
+
+    /**
+     * Wait for the background load, then start auto-save and replication.
+     * Reports how long after launch the login screen appeared and how
+     * long loading took.
+     */
+    private void awaitData() {
+        if (loading == null) {
+            out.line("✓ Connected: " + studentManager.getTotalStudents() + " student(s) in the shared roster",
+                     ConsoleColors.GREEN_BOLD);
+            return;
+        }
+        try {
+            studentManager = loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading data");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load data: " + e.getCause().getMessage());
+        }
+        long loadMillis = (System.nanoTime() - loadStartNanos) / 1_000_000;
+        long loginScreenMillis = loginScreenShownAt - ManagementFactory.getRuntimeMXBean().getStartTime();
+        String startup = String.format("login screen %d ms after JVM start, %d student(s) loaded in %d ms (%s)",
+                                       loginScreenMillis, studentManager.getTotalStudents(), loadMillis,
+                                       studentManager.isWarmStart() ? "indexes from warm image" : "indexes rebuilt");
+        out.line("✓ Startup: " + startup, ConsoleColors.GREEN_BOLD);
+        if (sessionLogger != null) {
+            sessionLogger.logAction("STARTUP", SessionLogger.details("loginScreenMs", loginScreenMillis,
+                    "students", studentManager.getTotalStudents(), "loadMs", loadMillis,
+                    "indexes", studentManager.isWarmStart() ? "warm image" : "rebuilt"));
+        }
+        enableTieredStorage();
+        autoSave = AutoSaveScheduler.fromSystemProperties(studentManager);
+        autoSave.start();
+        startReplication();
+    }
+
+    /**
+     * Page inactive students out to disk when -Dsms.tieredStorage.hotMB is set
+     */
+    private void enableTieredStorage() {
+        Integer hotMB = Integer.getInteger("sms.tieredStorage.hotMB");
+        if (hotMB == null) {
+            return;
+        }
+        try {
+            Path directory = DataStore.defaultFile().toAbsolutePath().getParent();
+            TieredStudentStore store = studentManager.enableTieredStorage(directory, (long) hotMB << 20);
+            out.line("✓ Tiered storage: " + store.getStats(), ConsoleColors.GREEN_BOLD);
+        } catch (IOException | IllegalArgumentException e) {
+            out.line("✗ Warning: Tiered storage disabled: " + e.getMessage(), ConsoleColors.YELLOW_BOLD);
+        }
+    }
+
+    /**
+     * Stream changes to followers when -Dsms.replication.port is set
+     */
+    private void startReplication() {
+        try {
+            InetSocketAddress address = ReplicationServer.addressFromSystemProperties();
+            if (address == null) {
+                return;
+            }
+            replication = new ReplicationServer(studentManager, address);
+            replication.start();
+            out.line("✓ Replication: serving followers on " + address.getHostString() + ":" + replication.getPort(),
+                     ConsoleColors.GREEN_BOLD);
+        } catch (IOException | IllegalArgumentException e) {
+            out.line("✗ Warning: Replication disabled: " + e.getMessage(), ConsoleColors.YELLOW_BOLD);
+        }
+    }
+
+    /**
+     * Main entry point. With -Dsms.server.port or -Dsms.server.socket the
+     * roster is loaded once and served to many console sessions instead.
      */
     public static void main(String[] args) {
         StudentManagementSystemApp app = new StudentManagementSystemApp();
-        app.run();
+        SocketAddress serverAddress;
+        try {
+            serverAddress = ConsoleServer.addressFromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.out.println("✗ " + e.getMessage());
+            return;
+        }
+        if (serverAddress != null) {
+            app.serve(serverAddress);
+        } else {
+            app.run();
+        }
     }
 
     /**
      * Run the application
      */
     public void run() {
-        printWelcomeBanner();
-        
-        if (performLogin()) {
-            System.out.println(ConsoleColors.colorize("\n✓ Login successful! Welcome to Student Management System.\n", ConsoleColors.GREEN_BOLD));
-            showMainMenu();
-        } else {
-            System.out.println(ConsoleColors.colorize("\n✗ Login failed. Maximum attempts reached. Exiting...", ConsoleColors.RED_BOLD));
+        try {
+            printWelcomeBanner();
+
+            if (performLogin()) {
+                out.line("\n✓ Login successful! Welcome to Student Management System.\n", ConsoleColors.GREEN_BOLD);
+                awaitData();
+                showMainMenu();
+            } else {
+                out.line("\n✗ Login failed. Maximum attempts reached. Exiting...", ConsoleColors.RED_BOLD);
+            }
+        } catch (NoSuchElementException e) {
+            // Input ended: end of a piped script, or a session client disconnected
+        } finally {
+            shutDown();
         }
+    }
+
+    /**
+     * Stop shared services (standalone only) and close this session's log and input
+     */
+    private void shutDown() {
         try {
-            DataStore.save(studentManager);
+            if (replication != null) {
+                replication.close();
+            }
+            if (autoSave != null) {
+                autoSave.close();
+            }
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error saving data: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error saving data: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
         if (sessionLogger != null) {
             sessionLogger.close();
         }
+        out.flush();
         scanner.close();
     }
 
+    /**
+     * Server mode: load the roster and start auto-save and replication once,
+     * then serve console sessions until "quit" is typed here or the JVM is
+     * stopped. Changes from every session are saved together.
+     */
+    private void serve(SocketAddress address) {
+        loginScreenShownAt = System.currentTimeMillis();
+        awaitData();
+        ConsoleServer server;
+        try {
+            server = new ConsoleServer(studentManager, address);
+        } catch (IOException | UnsupportedOperationException e) {
+            out.line("✗ Cannot serve sessions on " + address + ": " + e.getMessage(), ConsoleColors.RED_BOLD);
+            shutDown();
+            return;
+        }
+        // Ctrl+C or a kill: still end the sessions and write the final snapshot
+        Thread shutdownHook = new Thread(() -> stopServing(server), "sms-server-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        server.start();
+        out.line("✓ Serving console sessions on " + server.getAddress() + " (" + server.getThreadKind()
+                 + " threads); type 'status' or 'quit'", ConsoleColors.GREEN_BOLD);
+        try {
+            while (true) {
+                String command = readLine().trim();
+                if (command.equalsIgnoreCase("quit") || command.equalsIgnoreCase("exit")) {
+                    break;
+                }
+                if (command.equalsIgnoreCase("status")) {
+                    out.line(server.getSessionCount() + " session(s) connected, " + server.getSessionsServed()
+                             + " served, " + studentManager.getTotalStudents() + " student(s)");
+                } else if (!command.isEmpty()) {
+                    out.line("✗ Unknown command. Type 'status' or 'quit'.", ConsoleColors.RED_BOLD);
+                }
+            }
+        } catch (NoSuchElementException e) {
+            // No console (started in the background): serve until the JVM is stopped
+            server.awaitTermination();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            return; // already shutting down; the hook stops the server
+        }
+        stopServing(server);
+    }
+
+    private void stopServing(ConsoleServer server) {
+        synchronized (server) {
+            if (server.isClosed()) {
+                return;
+            }
+            server.close();
+            out.line("✓ Server stopped after " + server.getSessionsServed() + " session(s)", ConsoleColors.GREEN_BOLD);
+            shutDown();
+        }
+    }
+
     /**
      * Print welcome banner
      */
     private void printWelcomeBanner() {
-        System.out.println(ConsoleColors.colorize("╔═══════════════════════════════════════════════════════════╗", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD));
-        System.out.println(ConsoleColors.colorize("║        STUDENT MANAGEMENT SYSTEM - OOP PROJECT           ║", ConsoleColors.BRIGHT_WHITE_BOLD));
-        System.out.println(ConsoleColors.colorize("║              Console-Based Application                    ║", ConsoleColors.BRIGHT_WHITE_BOLD));
-        System.out.println(ConsoleColors.colorize("╚═══════════════════════════════════════════════════════════╝", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD));
+        out.line("╔═══════════════════════════════════════════════════════════╗", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD);
+        out.line("║        STUDENT MANAGEMENT SYSTEM - OOP PROJECT           ║", ConsoleColors.BRIGHT_WHITE_BOLD);
+        out.line("║              Console-Based Application                    ║", ConsoleColors.BRIGHT_WHITE_BOLD);
+        out.line("╚═══════════════════════════════════════════════════════════╝", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD);
     }
 
     /**
      * Perform admin login with validation
      */
     private boolean performLogin() {
-        System.out.println(ConsoleColors.colorize("\n--- ADMIN LOGIN ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- ADMIN LOGIN ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         for (int attempt = 1; attempt <= MAX_LOGIN_ATTEMPTS; attempt++) {
             try {
                 printPrompt("Username: ");
-                String username = scanner.nextLine().trim();
+                if (loginScreenShownAt == 0) {
+                    loginScreenShownAt = System.currentTimeMillis();
+                }
+                String username = readLine().trim();
                 
                 printPrompt("Password: ");
-                String password = scanner.nextLine().trim();
+                String password = readLine().trim();
                 
                 if (username.equals(ADMIN_USERNAME) && password.equals(ADMIN_PASSWORD)) {
                     try {
                         this.sessionLogger = new SessionLogger(username);
-                        sessionLogger.logAction("LOGIN_SUCCESS", "username=" + username);
+                        sessionLogger.logAction("LOGIN_SUCCESS", SessionLogger.details("username", username));
                     } catch (Exception e) {
-                        System.out.println(ConsoleColors.colorize("✗ Warning: Session logging disabled: " + e.getMessage(), ConsoleColors.YELLOW_BOLD));
+                        out.line("✗ Warning: Session logging disabled: " + e.getMessage(), ConsoleColors.YELLOW_BOLD);
                     }
                     return true;
                 }
                 
-                System.out.println(ConsoleColors.colorize("✗ Invalid credentials. Attempt " + attempt + " of " + MAX_LOGIN_ATTEMPTS, ConsoleColors.RED_BOLD));
+                out.line("✗ Invalid credentials. Attempt " + attempt + " of " + MAX_LOGIN_ATTEMPTS, ConsoleColors.RED_BOLD);
                 
+            } catch (NoSuchElementException e) {
+                throw e;
             } catch (Exception e) {
-                System.out.println(ConsoleColors.colorize("✗ Error during login: " + e.getMessage(), ConsoleColors.RED_BOLD));
+                out.line("✗ Error during login: " + e.getMessage(), ConsoleColors.RED_BOLD);
             }
         }
         
@@ -144,16 +365,39 @@ public class StudentManagementSystemApp {
                     case 9:
                         viewStatistics();
                         break;
+                    case 10:
+                        advancedQuery();
+                        break;
+                    case 11:
+                        bulkEnroll();
+                        break;
+                    case 12:
+                        updateGrade();
+                        break;
+                    case 13:
+                        regradeCourse();
+                        break;
+                    case 14:
+                        changeGradingScale();
+                        break;
+                    case 15:
+                        generateReport();
+                        break;
+                    case 16:
+                        viewCourseStatistics();
+                        break;
                     case 0:
-                        System.out.println(ConsoleColors.colorize("\nThank you for using Student Management System. Goodbye!", ConsoleColors.GREEN_BOLD));
+                        out.line("\nThank you for using Student Management System. Goodbye!", ConsoleColors.GREEN_BOLD);
                         running = false;
                         break;
                     default:
-                        System.out.println(ConsoleColors.colorize("✗ Invalid choice. Please try again.", ConsoleColors.RED_BOLD));
+                        out.line("✗ Invalid choice. Please try again.", ConsoleColors.RED_BOLD);
                 }
                 
+            } catch (NoSuchElementException e) {
+                throw e; // input ended; run() closes the session
             } catch (Exception e) {
-                System.out.println(ConsoleColors.colorize("✗ Error: " + e.getMessage(), ConsoleColors.RED_BOLD));
+                out.line("✗ Error: " + e.getMessage(), ConsoleColors.RED_BOLD);
             }
             
             if (running) {
@@ -166,36 +410,43 @@ public class StudentManagementSystemApp {
      * Print main menu
      */
     private void printMainMenu() {
-        System.out.println(ConsoleColors.colorize("\n╔═══════════════════════════════════════════════════════════╗", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD));
-        System.out.println(ConsoleColors.colorize("║                     MAIN MENU                            ║", ConsoleColors.BRIGHT_WHITE_BOLD));
-        System.out.println(ConsoleColors.colorize("╠═══════════════════════════════════════════════════════════╣", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD));
-        System.out.println(ConsoleColors.colorize("║  1. Create New Student                                   ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  2. View All Students                                    ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  3. View Student Details                                 ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  4. Update Student Information                           ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  5. Delete Student                                       ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  6. Search Students                                      ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  7. Assign Course to Student                             ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  8. Remove Course from Student                           ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  9. View Statistics                                      ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("║  0. Exit                                                 ║", ConsoleColors.BRIGHT_GREEN));
-        System.out.println(ConsoleColors.colorize("╚═══════════════════════════════════════════════════════════╝", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD));
+        out.line("\n╔═══════════════════════════════════════════════════════════╗", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD);
+        out.line("║                     MAIN MENU                            ║", ConsoleColors.BRIGHT_WHITE_BOLD);
+        out.line("╠═══════════════════════════════════════════════════════════╣", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD);
+        out.line("║  1. Create New Student                                   ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  2. View All Students                                    ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  3. View Student Details                                 ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  4. Update Student Information                           ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  5. Delete Student                                       ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  6. Search Students                                      ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  7. Assign Course to Student                             ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  8. Remove Course from Student                           ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  9. View Statistics                                      ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 10. Advanced Query                                       ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 11. Bulk Enroll Students in Course                       ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 12. Update Course Grade                                  ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 13. Regrade Course Section                               ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 14. Grading Scale                                        ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 15. Reports                                              ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║ 16. Course Statistics                                    ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("║  0. Exit                                                 ║", ConsoleColors.BRIGHT_GREEN);
+        out.line("╚═══════════════════════════════════════════════════════════╝", ConsoleColors.BRIGHT_BLUE, ConsoleColors.BOLD);
     }
 
     /**
      * Create a new student with input validation
      */
     private void createStudent() {
-        System.out.println(ConsoleColors.colorize("\n--- CREATE NEW STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- CREATE NEW STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
             // Get first name
             String firstName;
             do {
                 printPrompt("First Name: ");
-                firstName = scanner.nextLine().trim();
+                firstName = readLine().trim();
                 if (!InputValidator.isValidName(firstName)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidName(firstName));
             
@@ -203,9 +454,9 @@ public class StudentManagementSystemApp {
             String lastName;
             do {
                 printPrompt("Last Name: ");
-                lastName = scanner.nextLine().trim();
+                lastName = readLine().trim();
                 if (!InputValidator.isValidName(lastName)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidName(lastName));
             
@@ -213,9 +464,9 @@ public class StudentManagementSystemApp {
             String email;
             do {
                 printPrompt("Email: ");
-                email = scanner.nextLine().trim();
+                email = readLine().trim();
                 if (!InputValidator.isValidEmail(email)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid email format. Example: user@example.com", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid email format. Example: user@example.com", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidEmail(email));
             
@@ -224,21 +475,22 @@ public class StudentManagementSystemApp {
             do {
                 age = getIntInput("Age: ");
                 if (!InputValidator.isValidAge(age)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid age. Must be between 1 and 149.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid age. Must be between 1 and 149.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidAge(age));
             
             // Create student
             String studentId = studentManager.createStudent(firstName, lastName, email, age);
-            System.out.println(ConsoleColors.colorize("\n✓ Student created successfully!", ConsoleColors.GREEN_BOLD));
-            System.out.println(ConsoleColors.colorize("  Student ID: " + studentId, ConsoleColors.BRIGHT_WHITE_BOLD));
+            out.line("\n✓ Student created successfully!", ConsoleColors.GREEN_BOLD);
+            out.line("  Student ID: " + studentId, ConsoleColors.BRIGHT_WHITE_BOLD);
             if (sessionLogger != null) {
-                sessionLogger.logAction("CREATE_STUDENT", "id=" + studentId + ", email=" + email);
+                sessionLogger.logChange("CREATE_STUDENT", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("id", studentId, "email", email,
+                        "firstName", firstName, "lastName", lastName, "age", age));
             }
-            try { DataStore.save(studentManager); } catch (Exception ignored) {}
             
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error creating student: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error creating student: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -246,32 +498,32 @@ public class StudentManagementSystemApp {
      * View all students
      */
     private void viewAllStudents() {
-        System.out.println(ConsoleColors.colorize("\n--- ALL STUDENTS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- ALL STUDENTS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
             List<Student> students = studentManager.getAllStudents();
             
             if (students.isEmpty()) {
-                System.out.println(ConsoleColors.colorize("No students found in the system.", ConsoleColors.YELLOW_BOLD));
+                out.line("No students found in the system.", ConsoleColors.YELLOW_BOLD);
             } else {
-                System.out.println(ConsoleColors.colorize("Total Students: " + students.size(), ConsoleColors.BRIGHT_WHITE_BOLD));
-                System.out.println(ConsoleColors.colorize("\n" + "=".repeat(100), ConsoleColors.BRIGHT_BLUE));
-                System.out.printf(ConsoleColors.colorize("%-12s %-20s %-30s %-5s %-8s%n", ConsoleColors.BRIGHT_WHITE_BOLD), 
+                out.line("Total Students: " + students.size(), ConsoleColors.BRIGHT_WHITE_BOLD);
+                out.line("\n" + "=".repeat(100), ConsoleColors.BRIGHT_BLUE);
+                out.styledPrintf(ConsoleColors.BRIGHT_WHITE_BOLD, "%-12s %-20s %-30s %-5s %-8s%n",
                                 "ID", "Name", "Email", "Age", "GPA");
-                System.out.println(ConsoleColors.colorize("=".repeat(100), ConsoleColors.BRIGHT_BLUE));
+                out.line("=".repeat(100), ConsoleColors.BRIGHT_BLUE);
                 
                 for (Student student : students) {
-                    System.out.printf("%-12s %-20s %-30s %-5d %.2f%n",
+                    out.printf("%-12s %-20s %-30s %-5d %.2f%n",
                                     student.getStudentId(),
                                     student.getFirstName() + " " + student.getLastName(),
                                     student.getEmail(),
                                     student.getAge(),
                                     student.getGpa());
                 }
-                System.out.println(ConsoleColors.colorize("=".repeat(100), ConsoleColors.BRIGHT_BLUE));
+                out.line("=".repeat(100), ConsoleColors.BRIGHT_BLUE);
             }
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error retrieving students: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error retrieving students: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -279,21 +531,23 @@ public class StudentManagementSystemApp {
      * View detailed information about a specific student
      */
     private void viewStudent() {
-        System.out.println(ConsoleColors.colorize("\n--- VIEW STUDENT DETAILS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- VIEW STUDENT DETAILS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            printPrompt("Enter Student ID: ");
-            String studentId = scanner.nextLine().trim().toUpperCase();
+            String studentId = readStudentId();
             
-            Student student = studentManager.getStudent(studentId);
-            System.out.println(ConsoleColors.colorize("\n" + "=".repeat(60), ConsoleColors.BRIGHT_BLUE));
-            System.out.println(student);
-            System.out.println(ConsoleColors.colorize("=".repeat(60), ConsoleColors.BRIGHT_BLUE));
+            Student student = studentManager.getStudentCopy(studentId);
+            out.line("\n" + "=".repeat(60), ConsoleColors.BRIGHT_BLUE);
+            out.line(student.toString());
+            out.line("=".repeat(60), ConsoleColors.BRIGHT_BLUE);
             
         } catch (IllegalArgumentException e) {
-            System.out.println(ConsoleColors.colorize("✗ " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
+            if (lastStudentIdInput != null) {
+                printCompletions("Similar IDs", studentManager.complete(CompletionField.STUDENT_ID, lastStudentIdInput, COMPLETION_LIMIT));
+            }
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error retrieving student: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error retrieving student: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -301,22 +555,21 @@ public class StudentManagementSystemApp {
      * Update student information (selective fields)
      */
     private void updateStudent() {
-        System.out.println(ConsoleColors.colorize("\n--- UPDATE STUDENT INFORMATION ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- UPDATE STUDENT INFORMATION ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            printPrompt("Enter Student ID: ");
-            String studentId = scanner.nextLine().trim().toUpperCase();
+            String studentId = readStudentId();
             
             // Verify student exists
-            Student student = studentManager.getStudent(studentId);
-            System.out.println("\nCurrent Information:");
-            System.out.println(student);
+            Student student = studentManager.getStudentCopy(studentId);
+            out.line("\nCurrent Information:");
+            out.line(student.toString());
             
-            System.out.println(ConsoleColors.colorize("\nSelect field to update:", ConsoleColors.BRIGHT_WHITE_BOLD));
-            System.out.println(ConsoleColors.colorize("1. First Name", ConsoleColors.BRIGHT_GREEN));
-            System.out.println(ConsoleColors.colorize("2. Last Name", ConsoleColors.BRIGHT_GREEN));
-            System.out.println(ConsoleColors.colorize("3. Email", ConsoleColors.BRIGHT_GREEN));
-            System.out.println(ConsoleColors.colorize("4. Age", ConsoleColors.BRIGHT_GREEN));
+            out.line("\nSelect field to update:", ConsoleColors.BRIGHT_WHITE_BOLD);
+            out.line("1. First Name", ConsoleColors.BRIGHT_GREEN);
+            out.line("2. Last Name", ConsoleColors.BRIGHT_GREEN);
+            out.line("3. Email", ConsoleColors.BRIGHT_GREEN);
+            out.line("4. Age", ConsoleColors.BRIGHT_GREEN);
             
             int choice = getIntInput("Enter choice: ");
             String field = "";
@@ -327,9 +580,9 @@ public class StudentManagementSystemApp {
                     field = "firstname";
                     do {
                         printPrompt("New First Name: ");
-                        value = scanner.nextLine().trim();
+                        value = readLine().trim();
                         if (!InputValidator.isValidName(value)) {
-                            System.out.println(ConsoleColors.colorize("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD));
+                            out.line("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD);
                         }
                     } while (!InputValidator.isValidName(value));
                     break;
@@ -337,9 +590,9 @@ public class StudentManagementSystemApp {
                     field = "lastname";
                     do {
                         printPrompt("New Last Name: ");
-                        value = scanner.nextLine().trim();
+                        value = readLine().trim();
                         if (!InputValidator.isValidName(value)) {
-                            System.out.println(ConsoleColors.colorize("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD));
+                            out.line("✗ Invalid name. Use only letters and spaces.", ConsoleColors.RED_BOLD);
                         }
                     } while (!InputValidator.isValidName(value));
                     break;
@@ -347,9 +600,9 @@ public class StudentManagementSystemApp {
                     field = "email";
                     do {
                         printPrompt("New Email: ");
-                        value = scanner.nextLine().trim();
+                        value = readLine().trim();
                         if (!InputValidator.isValidEmail(value)) {
-                            System.out.println(ConsoleColors.colorize("✗ Invalid email format.", ConsoleColors.RED_BOLD));
+                            out.line("✗ Invalid email format.", ConsoleColors.RED_BOLD);
                         }
                     } while (!InputValidator.isValidEmail(value));
                     break;
@@ -359,27 +612,27 @@ public class StudentManagementSystemApp {
                     do {
                         age = getIntInput("New Age: ");
                         if (!InputValidator.isValidAge(age)) {
-                            System.out.println(ConsoleColors.colorize("✗ Invalid age. Must be between 1 and 149.", ConsoleColors.RED_BOLD));
+                            out.line("✗ Invalid age. Must be between 1 and 149.", ConsoleColors.RED_BOLD);
                         }
                     } while (!InputValidator.isValidAge(age));
                     value = String.valueOf(age);
                     break;
                 default:
-                    System.out.println(ConsoleColors.colorize("✗ Invalid choice.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid choice.", ConsoleColors.RED_BOLD);
                     return;
             }
             
             studentManager.updateStudent(studentId, field, value);
-            System.out.println(ConsoleColors.colorize("\n✓ Student information updated successfully!", ConsoleColors.GREEN_BOLD));
+            out.line("\n✓ Student information updated successfully!", ConsoleColors.GREEN_BOLD);
             if (sessionLogger != null) {
-                sessionLogger.logAction("UPDATE_STUDENT", "id=" + studentId + ", field=" + field);
+                sessionLogger.logChange("UPDATE_STUDENT", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("id", studentId, "field", field, "value", value));
             }
-            try { DataStore.save(studentManager); } catch (Exception ignored) {}
             
         } catch (IllegalArgumentException e) {
-            System.out.println(ConsoleColors.colorize("✗ " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error updating student: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error updating student: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -387,38 +640,37 @@ public class StudentManagementSystemApp {
      * Delete a student
      */
     private void deleteStudent() {
-        System.out.println(ConsoleColors.colorize("\n--- DELETE STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- DELETE STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            printPrompt("Enter Student ID: ");
-            String studentId = scanner.nextLine().trim().toUpperCase();
+            String studentId = readStudentId();
             
             // Show student details before deletion
-            Student student = studentManager.getStudent(studentId);
-            System.out.println("\nStudent to be deleted:");
-            System.out.println(student);
+            Student student = studentManager.getStudentCopy(studentId);
+            out.line("\nStudent to be deleted:");
+            out.line(student.toString());
             
             printPrompt("\nAre you sure you want to delete this student? (yes/no): ");
-            String confirmation = scanner.nextLine().trim().toLowerCase();
+            String confirmation = readLine().trim().toLowerCase();
             
             if (confirmation.equals("yes") || confirmation.equals("y")) {
                 if (studentManager.deleteStudent(studentId)) {
-                    System.out.println(ConsoleColors.colorize("✓ Student deleted successfully!", ConsoleColors.GREEN_BOLD));
+                    out.line("✓ Student deleted successfully!", ConsoleColors.GREEN_BOLD);
                     if (sessionLogger != null) {
-                        sessionLogger.logAction("DELETE_STUDENT", "id=" + studentId);
+                        sessionLogger.logChange("DELETE_STUDENT", studentManager.getLastMutationOfCurrentThread(),
+                                SessionLogger.details("id", studentId));
                     }
-                    try { DataStore.save(studentManager); } catch (Exception ignored) {}
                 } else {
-                    System.out.println(ConsoleColors.colorize("✗ Failed to delete student.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Failed to delete student.", ConsoleColors.RED_BOLD);
                 }
             } else {
-                System.out.println(ConsoleColors.colorize("Deletion cancelled.", ConsoleColors.YELLOW_BOLD));
+                out.line("Deletion cancelled.", ConsoleColors.YELLOW_BOLD);
             }
             
         } catch (IllegalArgumentException e) {
-            System.out.println(ConsoleColors.colorize("✗ " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error deleting student: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error deleting student: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -426,41 +678,58 @@ public class StudentManagementSystemApp {
      * Search for students
      */
     private void searchStudents() {
-        System.out.println(ConsoleColors.colorize("\n--- SEARCH STUDENTS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- SEARCH STUDENTS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            printPrompt("Enter search term (ID, name, or email): ");
-            String searchTerm = scanner.nextLine().trim();
+            String searchTerm;
+            while (true) {
+                printPrompt("Enter search term (ID, name, or email; end with * for suggestions): ");
+                searchTerm = readLine().trim();
+                if (!searchTerm.endsWith("*")) {
+                    break;
+                }
+                String prefix = searchTerm.substring(0, searchTerm.length() - 1).trim();
+                printCompletions("Student IDs", studentManager.complete(CompletionField.STUDENT_ID, prefix, COMPLETION_LIMIT));
+                printCompletions("Last names", studentManager.complete(CompletionField.LAST_NAME, prefix, COMPLETION_LIMIT));
+                printCompletions("Emails", studentManager.complete(CompletionField.EMAIL, prefix, COMPLETION_LIMIT));
+            }
             
             if (!InputValidator.isNotEmpty(searchTerm)) {
-                System.out.println(ConsoleColors.colorize("✗ Search term cannot be empty.", ConsoleColors.RED_BOLD));
+                out.line("✗ Search term cannot be empty.", ConsoleColors.RED_BOLD);
                 return;
             }
             
             List<Student> results = studentManager.searchStudents(searchTerm);
             
             if (results.isEmpty()) {
-                System.out.println(ConsoleColors.colorize("No students found matching: " + searchTerm, ConsoleColors.YELLOW_BOLD));
+                out.line("No students found matching: " + searchTerm, ConsoleColors.YELLOW_BOLD);
+                List<SearchResult> suggestions = studentManager.fuzzySearch(searchTerm, FUZZY_RESULT_LIMIT);
+                if (!suggestions.isEmpty()) {
+                    out.line("\nDid you mean:", ConsoleColors.BRIGHT_WHITE_BOLD);
+                    for (SearchResult suggestion : suggestions) {
+                        out.line("  - " + suggestion);
+                    }
+                }
             } else {
-                System.out.println(ConsoleColors.colorize("\nFound " + results.size() + " student(s):", ConsoleColors.BRIGHT_WHITE_BOLD));
-                System.out.println(ConsoleColors.colorize("\n" + "=".repeat(100), ConsoleColors.BRIGHT_BLUE));
-                System.out.printf(ConsoleColors.colorize("%-12s %-20s %-30s %-5s %-8s%n", ConsoleColors.BRIGHT_WHITE_BOLD), 
+                out.line("\nFound " + results.size() + " student(s):", ConsoleColors.BRIGHT_WHITE_BOLD);
+                out.line("\n" + "=".repeat(100), ConsoleColors.BRIGHT_BLUE);
+                out.styledPrintf(ConsoleColors.BRIGHT_WHITE_BOLD, "%-12s %-20s %-30s %-5s %-8s%n",
                                 "ID", "Name", "Email", "Age", "GPA");
-                System.out.println(ConsoleColors.colorize("=".repeat(100), ConsoleColors.BRIGHT_BLUE));
+                out.line("=".repeat(100), ConsoleColors.BRIGHT_BLUE);
                 
                 for (Student student : results) {
-                    System.out.printf("%-12s %-20s %-30s %-5d %.2f%n",
+                    out.printf("%-12s %-20s %-30s %-5d %.2f%n",
                                     student.getStudentId(),
                                     student.getFirstName() + " " + student.getLastName(),
                                     student.getEmail(),
                                     student.getAge(),
                                     student.getGpa());
                 }
-                System.out.println(ConsoleColors.colorize("=".repeat(100), ConsoleColors.BRIGHT_BLUE));
+                out.line("=".repeat(100), ConsoleColors.BRIGHT_BLUE);
             }
             
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error searching students: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error searching students: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -468,23 +737,22 @@ public class StudentManagementSystemApp {
      * Assign a course to a student
      */
     private void assignCourse() {
-        System.out.println(ConsoleColors.colorize("\n--- ASSIGN COURSE TO STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- ASSIGN COURSE TO STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            printPrompt("Enter Student ID: ");
-            String studentId = scanner.nextLine().trim().toUpperCase();
+            String studentId = readStudentId();
             
             // Verify student exists
-            Student student = studentManager.getStudent(studentId);
-            System.out.println("\nStudent: " + student.getFirstName() + " " + student.getLastName());
+            Student student = studentManager.getStudentCopy(studentId);
+            out.line("\nStudent: " + student.getFirstName() + " " + student.getLastName());
             
             // Get course code
             String courseCode;
             do {
                 printPrompt("Course Code (e.g., CS101, MATH201): ");
-                courseCode = scanner.nextLine().trim().toUpperCase();
+                courseCode = readLine().trim().toUpperCase();
                 if (!InputValidator.isValidCourseCode(courseCode)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid course code format. Use format like CS101 or MATH201.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid course code format. Use format like CS101 or MATH201.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidCourseCode(courseCode));
             
@@ -492,9 +760,9 @@ public class StudentManagementSystemApp {
             String courseName;
             do {
                 printPrompt("Course Name: ");
-                courseName = scanner.nextLine().trim();
+                courseName = readLine().trim();
                 if (!InputValidator.isNotEmpty(courseName)) {
-                    System.out.println(ConsoleColors.colorize("✗ Course name cannot be empty.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Course name cannot be empty.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isNotEmpty(courseName));
             
@@ -503,7 +771,7 @@ public class StudentManagementSystemApp {
             do {
                 credits = getIntInput("Credits (1-10): ");
                 if (!InputValidator.isValidCredits(credits)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid credits. Must be between 1 and 10.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid credits. Must be between 1 and 10.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidCredits(credits));
             
@@ -512,22 +780,23 @@ public class StudentManagementSystemApp {
             do {
                 grade = getDoubleInput("Grade (0-100): ");
                 if (!InputValidator.isValidGrade(grade)) {
-                    System.out.println(ConsoleColors.colorize("✗ Invalid grade. Must be between 0 and 100.", ConsoleColors.RED_BOLD));
+                    out.line("✗ Invalid grade. Must be between 0 and 100.", ConsoleColors.RED_BOLD);
                 }
             } while (!InputValidator.isValidGrade(grade));
             
             studentManager.assignCourse(studentId, courseCode, courseName, credits, grade);
-            System.out.println(ConsoleColors.colorize("\n✓ Course assigned successfully!", ConsoleColors.GREEN_BOLD));
-            System.out.println(ConsoleColors.colorize("  Updated GPA: " + String.format("%.2f", student.getGpa()), ConsoleColors.BRIGHT_WHITE_BOLD));
+            out.line("\n✓ Course assigned successfully!", ConsoleColors.GREEN_BOLD);
+            out.line("  Updated GPA: " + String.format("%.2f", student.getGpa()), ConsoleColors.BRIGHT_WHITE_BOLD);
             if (sessionLogger != null) {
-                sessionLogger.logAction("ASSIGN_COURSE", "id=" + studentId + ", course=" + courseCode);
+                sessionLogger.logChange("ASSIGN_COURSE", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("id", studentId, "course", courseCode,
+                        "name", courseName, "credits", credits, "grade", grade));
             }
-            try { DataStore.save(studentManager); } catch (Exception ignored) {}
             
         } catch (IllegalArgumentException e) {
-            System.out.println(ConsoleColors.colorize("✗ " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error assigning course: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error assigning course: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
@@ -535,95 +804,512 @@ public class StudentManagementSystemApp {
      * Remove a course from a student
      */
     private void removeCourse() {
-        System.out.println(ConsoleColors.colorize("\n--- REMOVE COURSE FROM STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+        out.line("\n--- REMOVE COURSE FROM STUDENT ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            printPrompt("Enter Student ID: ");
-            String studentId = scanner.nextLine().trim().toUpperCase();
+            String studentId = readStudentId();
             
             // Verify student exists and show courses
-            Student student = studentManager.getStudent(studentId);
-            System.out.println("\nStudent: " + student.getFirstName() + " " + student.getLastName());
-            System.out.println("Enrolled Courses:");
+            Student student = studentManager.getStudentCopy(studentId);
+            out.line("\nStudent: " + student.getFirstName() + " " + student.getLastName());
+            out.line("Enrolled Courses:");
             
-            if (student.getCourses().isEmpty()) {
-                System.out.println("  No courses enrolled.");
+            if (student.getCourseList().isEmpty()) {
+                out.line("  No courses enrolled.");
                 return;
             }
             
-            for (var course : student.getCourses()) {
-                System.out.println("  - " + course.getCourseCode() + ": " + course.getCourseName());
+            for (var course : student.getCourseList()) {
+                out.line("  - " + course.getCourseCode() + ": " + course.getCourseName());
             }
             
             printPrompt("\nEnter Course Code to remove: ");
-            String courseCode = scanner.nextLine().trim().toUpperCase();
+            String courseCode = readLine().trim().toUpperCase();
             
             studentManager.removeCourse(studentId, courseCode);
             // Retrieve updated student to ensure GPA is recalculated
             Student updatedStudent = studentManager.getStudent(studentId);
-            System.out.println(ConsoleColors.colorize("\n✓ Course removed successfully!", ConsoleColors.GREEN_BOLD));
-            System.out.println(ConsoleColors.colorize("  Updated GPA: " + String.format("%.2f", updatedStudent.getGpa()), ConsoleColors.BRIGHT_WHITE_BOLD));
+            out.line("\n✓ Course removed successfully!", ConsoleColors.GREEN_BOLD);
+            out.line("  Updated GPA: " + String.format("%.2f", updatedStudent.getGpa()), ConsoleColors.BRIGHT_WHITE_BOLD);
             if (sessionLogger != null) {
-                sessionLogger.logAction("REMOVE_COURSE", "id=" + studentId + ", course=" + courseCode);
+                sessionLogger.logChange("REMOVE_COURSE", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("id", studentId, "course", courseCode));
             }
-            try { DataStore.save(studentManager); } catch (Exception ignored) {}
             
         } catch (IllegalArgumentException e) {
-            System.out.println(ConsoleColors.colorize("✗ " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error removing course: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error removing course: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
     /**
-     * View system statistics
+     * Change the grade of one enrolled course
      */
-    private void viewStatistics() {
-        System.out.println(ConsoleColors.colorize("\n--- SYSTEM STATISTICS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD));
+    private void updateGrade() {
+        out.line("\n--- UPDATE COURSE GRADE ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        
+        try {
+            String studentId = readStudentId();
+            Student student = studentManager.getStudentCopy(studentId);
+            out.line("\nStudent: " + student.getFirstName() + " " + student.getLastName());
+            out.line("Enrolled Courses:");
+            
+            if (student.getCourseList().isEmpty()) {
+                out.line("  No courses enrolled.");
+                return;
+            }
+            
+            for (var course : student.getCourseList()) {
+                out.line("  - " + course);
+            }
+            
+            printPrompt("\nEnter Course Code: ");
+            String courseCode = readLine().trim().toUpperCase();
+            
+            double grade;
+            do {
+                grade = getDoubleInput("New Grade (0-100): ");
+                if (!InputValidator.isValidGrade(grade)) {
+                    out.line("✗ Invalid grade. Must be between 0 and 100.", ConsoleColors.RED_BOLD);
+                }
+            } while (!InputValidator.isValidGrade(grade));
+            
+            studentManager.updateGrade(studentId, courseCode, grade);
+            out.line("\n✓ Grade updated successfully!", ConsoleColors.GREEN_BOLD);
+            out.line("  Updated GPA: " + String.format("%.2f", student.getGpa()), ConsoleColors.BRIGHT_WHITE_BOLD);
+            if (sessionLogger != null) {
+                sessionLogger.logChange("UPDATE_GRADE", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("id", studentId, "course", courseCode, "grade", grade));
+            }
+            
+        } catch (IllegalArgumentException e) {
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
+        } catch (Exception e) {
+            out.line("✗ Error updating grade: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * Curve every grade in a course section by a number of points
+     */
+    private void regradeCourse() {
+        out.line("\n--- REGRADE COURSE SECTION ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
         
         try {
-            List<Student> allStudents = studentManager.getAllStudents();
+            printPrompt("Course Code: ");
+            String courseCode = readLine().trim().toUpperCase();
+            double points = getDoubleInput("Points to add (negative to subtract; results are kept within 0-100): ");
+            
+            int count = studentManager.regradeCourse(courseCode, grade -> Math.max(0, Math.min(100, grade + points)));
+            if (count == 0) {
+                out.line("No students are enrolled in " + courseCode, ConsoleColors.YELLOW_BOLD);
+                return;
+            }
+            out.line("\n✓ Regraded " + count + " student(s) in " + courseCode, ConsoleColors.GREEN_BOLD);
+            if (sessionLogger != null) {
+                sessionLogger.logChange("REGRADE_COURSE", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("course", courseCode, "points", points, "students", count));
+            }
             
-            if (allStudents.isEmpty()) {
-                System.out.println(ConsoleColors.colorize("No students in the system.", ConsoleColors.YELLOW_BOLD));
+        } catch (IllegalArgumentException e) {
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
+        } catch (Exception e) {
+            out.line("✗ Error regrading course: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * Show the active grading scale and switch to another built-in scale
+     */
+    private void changeGradingScale() {
+        out.line("\n--- GRADING SCALE ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        
+        try {
+            GradingScale current = studentManager.getGradingScale();
+            out.line("Current scale: " + current, ConsoleColors.BRIGHT_WHITE_BOLD);
+            List<GradingScale> scales = GradingScale.values();
+            for (int i = 0; i < scales.size(); i++) {
+                out.printf("  %d. %s%n", i + 1, scales.get(i));
+            }
+            int choice = getIntInput("Select scale (0 to keep current): ");
+            if (choice == 0) {
                 return;
             }
+            if (choice < 0 || choice > scales.size()) {
+                out.line("✗ Invalid choice.", ConsoleColors.RED_BOLD);
+                return;
+            }
+            GradingScale selected = scales.get(choice - 1);
+            if (selected == current) {
+                out.line(selected.getName() + " is already the active scale.", ConsoleColors.YELLOW_BOLD);
+                return;
+            }
+            
+            GpaRecomputeJob.Result result = studentManager.setGradingScale(selected, (done, total, rate) -> {
+                synchronized (out) {
+                    out.printf("\r  Recalculating GPAs: %d/%d (%.0f students/s)", done, total, rate).flush();
+                }
+            });
+            out.line("\n✓ Switched to " + selected.getName() + ": " + result, ConsoleColors.GREEN_BOLD);
+            if (sessionLogger != null) {
+                sessionLogger.logChange("CHANGE_GRADING_SCALE", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("from", current.getName(), "to", selected.getName()));
+            }
+            
+        } catch (Exception e) {
+            out.line("✗ Error changing grading scale: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * Write transcripts, a course grade sheet or the dean's list to data/reports
+     */
+    private void generateReport() {
+        out.line("\n--- REPORTS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        out.line("1. Transcripts (all students)", ConsoleColors.BRIGHT_GREEN);
+        out.line("2. Transcript for One Student", ConsoleColors.BRIGHT_GREEN);
+        out.line("3. Course Grade Sheet", ConsoleColors.BRIGHT_GREEN);
+        out.line("4. Dean's List", ConsoleColors.BRIGHT_GREEN);
+        
+        try {
+            int choice = getIntInput("Select report (0 to cancel): ");
+            ReportEngine engine = new ReportEngine(studentManager);
+            ReportEngine.Result result;
+            switch (choice) {
+                case 0:
+                    return;
+                case 1:
+                    result = engine.writeTranscripts(ReportEngine.defaultFile("transcripts"));
+                    break;
+                case 2: {
+                    String studentId = readStudentId();
+                    result = engine.writeTranscript(studentId, ReportEngine.defaultFile("transcript-" + studentId));
+                    break;
+                }
+                case 3: {
+                    printPrompt("Course Code: ");
+                    String courseCode = readLine().trim().toUpperCase();
+                    result = engine.writeGradeSheet(courseCode, ReportEngine.defaultFile("grades-" + courseCode));
+                    break;
+                }
+                case 4: {
+                    double minGpa = getDoubleInput("Minimum GPA: ");
+                    result = engine.writeDeansList(minGpa, ReportEngine.defaultFile("deans-list"));
+                    break;
+                }
+                default:
+                    out.line("✗ Invalid choice.", ConsoleColors.RED_BOLD);
+                    return;
+            }
+            out.line("\n✓ " + result, ConsoleColors.GREEN_BOLD);
+            if (sessionLogger != null) {
+                sessionLogger.logAction("GENERATE_REPORT",
+                        SessionLogger.details("file", result.getFile(), "students", result.getRows()));
+            }
             
-            int totalStudents = allStudents.size();
-            double averageGPA = allStudents.stream()
-                                          .mapToDouble(Student::getGpa)
-                                          .average()
-                                          .orElse(0.0);
+        } catch (IllegalArgumentException e) {
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
+        } catch (Exception e) {
+            out.line("✗ Error generating report: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * View system statistics
+     */
+    private void viewStatistics() {
+        out.line("\n--- SYSTEM STATISTICS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        
+        try {
+            RosterStatistics statistics = studentManager.getStatistics();
             
-            long studentsWithCourses = allStudents.stream()
-                                                  .filter(s -> !s.getCourses().isEmpty())
-                                                  .count();
+            if (statistics.getTotalStudents() == 0) {
+                out.line("No students in the system.", ConsoleColors.YELLOW_BOLD);
+                return;
+            }
             
-            System.out.println(ConsoleColors.colorize("\n" + "=".repeat(60), ConsoleColors.BRIGHT_BLUE));
-            System.out.println(ConsoleColors.colorize("Total Students: " + totalStudents, ConsoleColors.BRIGHT_WHITE_BOLD));
-            System.out.println(ConsoleColors.colorize("Students with Courses: " + studentsWithCourses, ConsoleColors.BRIGHT_WHITE_BOLD));
-            System.out.println(ConsoleColors.colorize("Average GPA: " + String.format("%.2f", averageGPA), ConsoleColors.BRIGHT_WHITE_BOLD));
+            out.line("\n" + "=".repeat(60), ConsoleColors.BRIGHT_BLUE);
+            out.line("Total Students: " + statistics.getTotalStudents(), ConsoleColors.BRIGHT_WHITE_BOLD);
+            out.line("Students with Courses: " + statistics.getStudentsWithCourses(), ConsoleColors.BRIGHT_WHITE_BOLD);
+            out.line("Courses Offered: " + studentManager.getCourseCount(), ConsoleColors.BRIGHT_WHITE_BOLD);
+            out.line("Average GPA: " + String.format("%.2f", statistics.getAverageGpa()), ConsoleColors.BRIGHT_WHITE_BOLD);
             
-            System.out.println(ConsoleColors.colorize("\nTop Students (GPA >= 3.0):", ConsoleColors.BRIGHT_WHITE_BOLD));
-            List<Student> topStudents = studentManager.getStudentsByMinGPA(3.0);
+            out.line("\nTop Students (GPA >= 3.0):", ConsoleColors.BRIGHT_WHITE_BOLD);
+            List<Student> topStudents = studentManager.getTopStudents(3.0);
             if (topStudents.isEmpty()) {
-                System.out.println(ConsoleColors.colorize("  No students with GPA >= 3.0", ConsoleColors.YELLOW_BOLD));
+                out.line("  No students with GPA >= 3.0", ConsoleColors.YELLOW_BOLD);
             } else {
                 for (Student student : topStudents) {
-                    System.out.printf("  - %s %s (ID: %s, GPA: %.2f)%n",
+                    out.printf("  - %s %s (ID: %s, GPA: %.2f)%n",
                                     student.getFirstName(),
                                     student.getLastName(),
                                     student.getStudentId(),
                                     student.getGpa());
                 }
             }
-            System.out.println(ConsoleColors.colorize("=".repeat(60), ConsoleColors.BRIGHT_BLUE));
+            out.line("\nQuery cache: " + studentManager.getQueryCacheStats(), ConsoleColors.BRIGHT_WHITE_BOLD);
+            if (replication != null) {
+                out.line("\nReplication: port " + replication.getPort() + ", " + replication.getFollowerCount()
+                        + " follower(s), log at #" + replication.getLastSequence(), ConsoleColors.BRIGHT_WHITE_BOLD);
+            }
+            out.line("=".repeat(60), ConsoleColors.BRIGHT_BLUE);
+            
+        } catch (Exception e) {
+            out.line("✗ Error retrieving statistics: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * Per-course enrollments, grades and credits, read from the totals the
+     * manager keeps up to date, with an option to rebuild them
+     */
+    private void viewCourseStatistics() {
+        out.line("\n--- COURSE STATISTICS ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        out.line("1. All Courses", ConsoleColors.BRIGHT_GREEN);
+        out.line("2. One Course (letter distribution)", ConsoleColors.BRIGHT_GREEN);
+        out.line("3. Rebuild Course Statistics", ConsoleColors.BRIGHT_GREEN);
+
+        try {
+            int choice = getIntInput("Select option (0 to cancel): ");
+            switch (choice) {
+                case 0:
+                    return;
+                case 1: {
+                    List<CourseStatistics> courses = studentManager.getCourseStatistics();
+                    if (courses.isEmpty()) {
+                        out.line("No students are enrolled in any course.", ConsoleColors.YELLOW_BOLD);
+                        return;
+                    }
+                    out.line("\n" + "=".repeat(78), ConsoleColors.BRIGHT_BLUE);
+                    out.styledPrintf(ConsoleColors.BRIGHT_WHITE_BOLD, "%-10s %-28s %8s %7s %7s %9s%n",
+                                     "Code", "Name", "Enrolled", "Mean", "Pass %", "Credits");
+                    out.line("-".repeat(78), ConsoleColors.BRIGHT_BLUE);
+                    for (CourseStatistics course : courses) {
+                        out.printf("%-10s %-28s %8d %7.1f %6.1f%% %9d%n",
+                                   course.getCourseCode(), course.getCourseName(),
+                                   course.getEnrollments(), course.getMeanGrade(),
+                                   course.getPassRate() * 100, course.getTotalCredits());
+                    }
+                    out.line("=".repeat(78), ConsoleColors.BRIGHT_BLUE);
+                    out.line(courses.size() + " course(s), grading scale " + studentManager.getGradingScale().getName(),
+                             ConsoleColors.BRIGHT_WHITE_BOLD);
+                    break;
+                }
+                case 2: {
+                    printPrompt("Course Code: ");
+                    String courseCode = readLine().trim().toUpperCase();
+                    CourseStatistics course = studentManager.getCourseStatistics(courseCode);
+                    if (course == null) {
+                        out.line("No students are enrolled in " + courseCode, ConsoleColors.YELLOW_BOLD);
+                        return;
+                    }
+                    out.line("\n" + course.getCourseCode() + " - " + course.getCourseName(), ConsoleColors.BRIGHT_WHITE_BOLD);
+                    out.printf("  Enrolled: %d   Mean grade: %.1f   Pass rate: %.1f%%   Credits: %d%n",
+                               course.getEnrollments(), course.getMeanGrade(),
+                               course.getPassRate() * 100, course.getTotalCredits());
+                    for (Map.Entry<String, Integer> letter : course.getLetterCounts().entrySet()) {
+                        int count = letter.getValue();
+                        int bar = (int) Math.round(40.0 * count / course.getEnrollments());
+                        out.printf("  %-3s %6d  %s%n", letter.getKey(), count, "#".repeat(bar));
+                    }
+                    break;
+                }
+                case 3: {
+                    long start = System.nanoTime();
+                    int courses = studentManager.rebuildCourseStatistics();
+                    out.line(String.format("✓ Rebuilt statistics for %d course(s) in %.1f ms", courses,
+                                           (System.nanoTime() - start) / 1e6), ConsoleColors.GREEN_BOLD);
+                    break;
+                }
+                default:
+                    out.line("✗ Invalid choice.", ConsoleColors.RED_BOLD);
+            }
+        } catch (Exception e) {
+            out.line("✗ Error retrieving course statistics: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * Read a student ID; input ending with * lists matching IDs and asks again
+     */
+    private String readStudentId() {
+        while (true) {
+            printPrompt("Enter Student ID (end with * for suggestions): ");
+            String input = readLine().trim().toUpperCase();
+            if (!input.endsWith("*")) {
+                lastStudentIdInput = input;
+                return input;
+            }
+            String prefix = input.substring(0, input.length() - 1).trim();
+            List<String> completions = studentManager.complete(CompletionField.STUDENT_ID, prefix, COMPLETION_LIMIT);
+            if (completions.isEmpty()) {
+                out.line("No student IDs start with: " + prefix, ConsoleColors.YELLOW_BOLD);
+            } else {
+                printCompletions("Matching IDs", completions);
+            }
+        }
+    }
+
+    /**
+     * Print a labelled list of completions (nothing if empty)
+     */
+    private void printCompletions(String label, List<String> completions) {
+        if (completions.isEmpty()) {
+            return;
+        }
+        out.text(label + ": ", ConsoleColors.BRIGHT_WHITE_BOLD).line(String.join(", ", completions));
+    }
+
+    /**
+     * Run a composite query; every filter is optional
+     */
+    private void advancedQuery() {
+        out.line("\n--- ADVANCED QUERY ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        out.line("Leave a field blank to skip it.", ConsoleColors.DIM);
+        
+        try {
+            StudentQuery query = StudentQuery.create();
+            String value = readOptional("Course code: ");
+            if (!value.isEmpty()) query.enrolledIn(value);
+            value = readOptional("Min GPA: ");
+            String max = readOptional("Max GPA: ");
+            if (!value.isEmpty() || !max.isEmpty()) {
+                query.gpaBetween(value.isEmpty() ? 0.0 : Double.parseDouble(value), max.isEmpty() ? 4.0 : Double.parseDouble(max));
+            }
+            value = readOptional("Min age: ");
+            max = readOptional("Max age: ");
+            if (!value.isEmpty() || !max.isEmpty()) {
+                query.ageBetween(value.isEmpty() ? 1 : Integer.parseInt(value), max.isEmpty() ? 149 : Integer.parseInt(max));
+            }
+            value = readOptional("Min total credits: ");
+            if (!value.isEmpty()) query.creditsBetween(Integer.parseInt(value), Integer.MAX_VALUE);
+            value = readOptional("Min grade (in the course above, or any course): ");
+            if (!value.isEmpty()) query.gradeBetween(Double.parseDouble(value), 100.0);
+            value = readOptional("Last name starts with: ");
+            if (!value.isEmpty()) query.lastNameStartsWith(value);
+            value = readOptional("Email starts with: ");
+            if (!value.isEmpty()) query.emailStartsWith(value);
+            value = readOptional("Sort by (id/lastname/age/gpa, add ' desc' to reverse): ");
+            if (!value.isEmpty()) {
+                String[] parts = value.toLowerCase().split("\\s+");
+                StudentQuery.SortField field;
+                switch (parts[0]) {
+                    case "lastname": field = StudentQuery.SortField.LAST_NAME; break;
+                    case "age": field = StudentQuery.SortField.AGE; break;
+                    case "gpa": field = StudentQuery.SortField.GPA; break;
+                    case "id": field = StudentQuery.SortField.STUDENT_ID; break;
+                    default: throw new IllegalArgumentException("Unknown sort field: " + parts[0]);
+                }
+                query.sortBy(field, parts.length > 1 && parts[1].equals("desc"));
+            }
+            value = readOptional("Limit: ");
+            if (!value.isEmpty()) query.limit(Integer.parseInt(value));
+            
+            try (QueryCursor cursor = studentManager.query(query)) {
+                out.line("\nPlan: " + cursor.getPlan(), ConsoleColors.DIM);
+                out.line("\n" + "=".repeat(100), ConsoleColors.BRIGHT_BLUE);
+                out.styledPrintf(ConsoleColors.BRIGHT_WHITE_BOLD, "%-12s %-20s %-30s %-5s %-8s%n",
+                                "ID", "Name", "Email", "Age", "GPA");
+                out.line("=".repeat(100), ConsoleColors.BRIGHT_BLUE);
+                int count = 0;
+                while (cursor.hasNext()) {
+                    Student student = cursor.next();
+                    out.printf("%-12s %-20s %-30s %-5d %.2f%n",
+                                    student.getStudentId(),
+                                    student.getFirstName() + " " + student.getLastName(),
+                                    student.getEmail(),
+                                    student.getAge(),
+                                    student.getGpa());
+                    count++;
+                }
+                out.line("=".repeat(100), ConsoleColors.BRIGHT_BLUE);
+                out.line(count + " student(s), " + cursor.getRowsExamined() + " index entries examined", ConsoleColors.BRIGHT_WHITE_BOLD);
+            }
+            
+        } catch (NumberFormatException e) {
+            out.line("✗ Invalid number: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        } catch (IllegalArgumentException e) {
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
+        } catch (Exception e) {
+            out.line("✗ Error running query: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        }
+    }
+
+    /**
+     * Enroll many students in one course as a single batch
+     */
+    private void bulkEnroll() {
+        out.line("\n--- BULK ENROLL STUDENTS IN COURSE ---", ConsoleColors.BRIGHT_CYAN, ConsoleColors.BOLD);
+        
+        try {
+            String courseCode;
+            do {
+                printPrompt("Course Code (e.g., CS101, MATH201): ");
+                courseCode = readLine().trim().toUpperCase();
+                if (!InputValidator.isValidCourseCode(courseCode)) {
+                    out.line("✗ Invalid course code format. Use format like CS101 or MATH201.", ConsoleColors.RED_BOLD);
+                }
+            } while (!InputValidator.isValidCourseCode(courseCode));
+            
+            String courseName;
+            do {
+                printPrompt("Course Name: ");
+                courseName = readLine().trim();
+                if (!InputValidator.isNotEmpty(courseName)) {
+                    out.line("✗ Course name cannot be empty.", ConsoleColors.RED_BOLD);
+                }
+            } while (!InputValidator.isNotEmpty(courseName));
+            
+            int credits;
+            do {
+                credits = getIntInput("Credits (1-10): ");
+                if (!InputValidator.isValidCredits(credits)) {
+                    out.line("✗ Invalid credits. Must be between 1 and 10.", ConsoleColors.RED_BOLD);
+                }
+            } while (!InputValidator.isValidCredits(credits));
+            
+            printPrompt("Students and grades (e.g., STU1001:85, STU1002:92): ");
+            String line = readLine().trim();
+            StudentBatch batch = StudentBatch.create();
+            for (String entry : line.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected ID:grade but got '" + entry.trim() + "'");
+                }
+                double grade = Double.parseDouble(parts[1].trim());
+                if (!InputValidator.isValidGrade(grade)) {
+                    throw new IllegalArgumentException("Invalid grade for " + parts[0].trim() + ". Must be between 0 and 100.");
+                }
+                batch.assignCourse(parts[0].trim().toUpperCase(), courseCode, courseName, credits, grade);
+            }
             
+            BatchResult result = studentManager.applyBatch(batch);
+            out.line("\n✓ Bulk enrollment complete: " + result, ConsoleColors.GREEN_BOLD);
+            if (sessionLogger != null) {
+                sessionLogger.logChange("BULK_ASSIGN_COURSE", studentManager.getLastMutationOfCurrentThread(),
+                        SessionLogger.details("course", courseCode,
+                        "students", result.getStudentsTouched(), "name", courseName, "credits", credits,
+                        "grades", line.replace(" ", "")));
+            }
+            
+        } catch (NumberFormatException e) {
+            out.line("✗ Invalid grade: " + e.getMessage(), ConsoleColors.RED_BOLD);
+        } catch (IllegalArgumentException e) {
+            out.line("✗ " + e.getMessage(), ConsoleColors.RED_BOLD);
         } catch (Exception e) {
-            System.out.println(ConsoleColors.colorize("✗ Error retrieving statistics: " + e.getMessage(), ConsoleColors.RED_BOLD));
+            out.line("✗ Error enrolling students: " + e.getMessage(), ConsoleColors.RED_BOLD);
         }
     }
 
+    /**
+     * Read a possibly blank line
+     */
+    private String readOptional(String prompt) {
+        printPrompt(prompt);
+        return readLine().trim();
+    }
+
     /**
      * Get integer input with error handling
      */
@@ -631,10 +1317,10 @@ public class StudentManagementSystemApp {
         while (true) {
             try {
                 printPrompt(prompt);
-                String input = scanner.nextLine().trim();
+                String input = readLine().trim();
                 return Integer.parseInt(input);
             } catch (NumberFormatException e) {
-                System.out.println(ConsoleColors.colorize("✗ Invalid input. Please enter a valid number.", ConsoleColors.RED_BOLD));
+                out.line("✗ Invalid input. Please enter a valid number.", ConsoleColors.RED_BOLD);
             }
         }
     }
@@ -646,10 +1332,10 @@ public class StudentManagementSystemApp {
         while (true) {
             try {
                 printPrompt(prompt);
-                String input = scanner.nextLine().trim();
+                String input = readLine().trim();
                 return Double.parseDouble(input);
             } catch (NumberFormatException e) {
-                System.out.println(ConsoleColors.colorize("✗ Invalid input. Please enter a valid number.", ConsoleColors.RED_BOLD));
+                out.line("✗ Invalid input. Please enter a valid number.", ConsoleColors.RED_BOLD);
             }
         }
     }
@@ -658,11 +1344,19 @@ public class StudentManagementSystemApp {
      * Wait for user to press Enter
      */
     private void pressEnterToContinue() {
-        System.out.println(ConsoleColors.colorize("\nPress Enter to continue...", ConsoleColors.YELLOW_BOLD));
-        scanner.nextLine();
+        out.line("\nPress Enter to continue...", ConsoleColors.YELLOW_BOLD);
+        readLine();
+    }
+
+    /**
+     * Send the buffered screen to the terminal in one write, then read a line
+     */
+    private String readLine() {
+        out.flush();
+        return scanner.nextLine();
     }
 
     private void printPrompt(String prompt) {
-        System.out.print(ConsoleColors.colorize(prompt, ConsoleColors.CYAN_BOLD));
+        out.text(prompt, ConsoleColors.CYAN_BOLD);
     }
 }
@@ -12,6 +12,13 @@ public class Course implements Serializable {
     private int credits;
     private double grade; // Grade in percentage (0-100)
 
+    // Scale of the student holding this course (STANDARD when null), and
+    // the grade point and letter cached for cachedScale
+    private transient GradingScale gradingScale;
+    private transient GradingScale cachedScale;
+    private transient double cachedGradePoint;
+    private transient String cachedLetter;
+
     /**
      * Constructor for creating a course
      */
@@ -55,31 +62,45 @@ public class Course implements Serializable {
     public void setGrade(double grade) {
         if (grade >= 0 && grade <= 100) {
             this.grade = grade;
+            this.cachedScale = null;
         } else {
             throw new IllegalArgumentException("Grade must be between 0 and 100");
         }
     }
 
+    /** Grading scale of the student holding this course */
+    public GradingScale getGradingScale() {
+        return gradingScale == null ? GradingScale.STANDARD : gradingScale;
+    }
+
+    /** Set by the student that holds this course */
+    void setGradingScale(GradingScale scale) {
+        this.gradingScale = scale;
+    }
+
     /**
-     * Convert percentage grade to grade point (4.0 scale)
+     * Convert percentage grade to grade point on the student's grading scale
      */
     public double getGradePoint() {
-        if (grade >= 90) return 4.0;
-        else if (grade >= 80) return 3.0;
-        else if (grade >= 70) return 2.0;
-        else if (grade >= 60) return 1.0;
-        else return 0.0;
+        refreshGradeCache();
+        return cachedGradePoint;
     }
 
     /**
-     * Get letter grade
+     * Get letter grade on the student's grading scale
      */
     public String getLetterGrade() {
-        if (grade >= 90) return "A";
-        else if (grade >= 80) return "B";
-        else if (grade >= 70) return "C";
-        else if (grade >= 60) return "D";
-        else return "F";
+        refreshGradeCache();
+        return cachedLetter;
+    }
+
+    private void refreshGradeCache() {
+        GradingScale scale = getGradingScale();
+        if (cachedScale != scale) {
+            cachedGradePoint = scale.gradePoint(grade);
+            cachedLetter = scale.letter(grade);
+            cachedScale = scale;
+        }
     }
 
     @Override
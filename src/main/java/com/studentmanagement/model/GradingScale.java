@@ -0,0 +1,116 @@
+package com.studentmanagement.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grading scale mapping percentage grades to letters and grade points.
+ * Every scale is precomputed into lookup tables with one slot per whole
+ * percentage point, so a conversion is a single array read. All cutoffs
+ * are whole numbers, so flooring the grade gives the same answer as
+ * comparing against each cutoff.
+ *
+ * Each StudentManager has its own scale and sets it on the students it
+ * holds; courses cache their grade point for their student's scale.
+ */
+public final class GradingScale {
+    private static final int BUCKETS = 101;
+
+    /** Classic 4.0 scale: A 90+, B 80+, C 70+, D 60+, F */
+    public static final GradingScale STANDARD = new GradingScale("STANDARD", "4.0 scale (A-F)",
+            new int[] {90, 80, 70, 60, 0},
+            new String[] {"A", "B", "C", "D", "F"},
+            new double[] {4.0, 3.0, 2.0, 1.0, 0.0});
+
+    /** 4.0 scale with plus/minus letters */
+    public static final GradingScale PLUS_MINUS = new GradingScale("PLUS_MINUS", "4.0 scale with +/- grades",
+            new int[] {97, 93, 90, 87, 83, 80, 77, 73, 70, 67, 63, 60, 0},
+            new String[] {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"},
+            new double[] {4.0, 4.0, 3.7, 3.3, 3.0, 2.7, 2.3, 2.0, 1.7, 1.3, 1.0, 0.7, 0.0});
+
+    /** 5.0 scale: A 70+, B 60+, C 50+, D 45+, E 40+, F */
+    public static final GradingScale FIVE_POINT = new GradingScale("FIVE_POINT", "5.0 scale (A-F with E)",
+            new int[] {70, 60, 50, 45, 40, 0},
+            new String[] {"A", "B", "C", "D", "E", "F"},
+            new double[] {5.0, 4.0, 3.0, 2.0, 1.0, 0.0});
+
+    /** Pass/fail at 60%; a pass counts as 4.0 so GPA reflects the share of credits passed */
+    public static final GradingScale PASS_FAIL = new GradingScale("PASS_FAIL", "Pass/Fail (pass at 60%)",
+            new int[] {60, 0},
+            new String[] {"P", "F"},
+            new double[] {4.0, 0.0});
+
+    private static final List<GradingScale> ALL =
+            Collections.unmodifiableList(Arrays.asList(STANDARD, PLUS_MINUS, FIVE_POINT, PASS_FAIL));
+
+    private final String name;
+    private final String description;
+    private final String[] letters = new String[BUCKETS];
+    private final double[] points = new double[BUCKETS];
+    private final double maxPoints;
+
+    /**
+     * Build the lookup tables from descending cutoffs; cutoffs[i] is the
+     * lowest whole grade that earns letters[i] and points[i]
+     */
+    private GradingScale(String name, String description, int[] cutoffs, String[] letters, double[] points) {
+        this.name = name;
+        this.description = description;
+        int band = 0;
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            while (bucket < cutoffs[band]) {
+                band++;
+            }
+            this.letters[bucket] = letters[band];
+            this.points[bucket] = points[band];
+        }
+        this.maxPoints = points[0];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /** Highest grade point on this scale */
+    public double getMaxPoints() {
+        return maxPoints;
+    }
+
+    public double gradePoint(double grade) {
+        return points[bucket(grade)];
+    }
+
+    public String letter(double grade) {
+        return letters[bucket(grade)];
+    }
+
+    private static int bucket(double grade) {
+        int bucket = (int) grade;
+        return bucket < 0 ? 0 : Math.min(bucket, BUCKETS - 1);
+    }
+
+    /** All built-in scales */
+    public static List<GradingScale> values() {
+        return ALL;
+    }
+
+    /** Look up a built-in scale by name (case-insensitive) */
+    public static GradingScale forName(String name) {
+        for (GradingScale scale : ALL) {
+            if (scale.name.equalsIgnoreCase(name)) {
+                return scale;
+            }
+        }
+        throw new IllegalArgumentException("Unknown grading scale: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return name + " - " + description;
+    }
+}
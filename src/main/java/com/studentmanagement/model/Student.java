@@ -1,8 +1,12 @@
 package com.studentmanagement.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Encapsulated Student class representing a student entity
@@ -18,6 +22,14 @@ public class Student implements Serializable {
     private List<Course> courses;
     private double gpa;
 
+    // Running GPA totals so single-course changes update GPA in O(1)
+    private transient double totalGradePoints;
+    private transient int totalCredits;
+    // Bumped on every course change so off-lock GPA results can be checked for staleness
+    private transient int revision;
+    // Scale of the manager holding this student (STANDARD when null); courses share it
+    private transient GradingScale gradingScale;
+
     /**
      * Constructor for creating a new student
      */
@@ -72,10 +84,58 @@ public class Student implements Serializable {
         return new ArrayList<>(courses); // Return copy to maintain encapsulation
     }
 
+    /**
+     * Read-only view of the course list, for callers that only iterate it
+     * and do not need their own copy. Reflects later changes.
+     */
+    public List<Course> getCourseList() {
+        return Collections.unmodifiableList(courses);
+    }
+
     public double getGpa() {
         return gpa;
     }
 
+    /** Grading scale this student's grade points and GPA are on */
+    public GradingScale getGradingScale() {
+        return gradingScale == null ? GradingScale.STANDARD : gradingScale;
+    }
+
+    /**
+     * Put this student on a grading scale, recalculating GPA if it changes.
+     * A StudentManager sets its own scale on every student it holds.
+     */
+    public void setGradingScale(GradingScale scale) {
+        if (scale == null) {
+            throw new IllegalArgumentException("Grading scale cannot be null");
+        }
+        if (scale != getGradingScale()) {
+            useGradingScale(scale);
+            calculateGPA();
+        }
+    }
+
+    private void useGradingScale(GradingScale scale) {
+        this.gradingScale = scale;
+        for (Course course : courses) {
+            course.setGradingScale(scale);
+        }
+    }
+
+    /**
+     * Total credits across enrolled courses
+     */
+    public int getTotalCredits() {
+        return totalCredits;
+    }
+
+    /**
+     * Counter that changes whenever the course list or a grade changes
+     */
+    public int getRevision() {
+        return revision;
+    }
+
     // Setters
     public void setFirstName(String firstName) {
         this.firstName = firstName;
@@ -102,8 +162,10 @@ public class Student implements Serializable {
      */
     public void addCourse(Course course) {
         if (course != null && !courses.contains(course)) {
+            course.setGradingScale(gradingScale);
             courses.add(course);
-            calculateGPA();
+            revision++;
+            adjustTotals(course.getGradePoint() * course.getCredits(), course.getCredits());
         }
     }
 
@@ -111,28 +173,128 @@ public class Student implements Serializable {
      * Remove a course from the student's course list
      */
     public void removeCourse(String courseCode) {
-        courses.removeIf(course -> course.getCourseCode().equals(courseCode));
+        int index = indexOfCourse(courseCode);
+        if (index >= 0) {
+            Course course = courses.remove(index);
+            revision++;
+            adjustTotals(-course.getGradePoint() * course.getCredits(), -course.getCredits());
+        }
+    }
+
+    /**
+     * Change the grade of an enrolled course, updating GPA in constant time
+     */
+    public void updateGrade(String courseCode, double grade) {
+        Course course = findCourse(courseCode);
+        if (course == null) {
+            throw new IllegalArgumentException("Student " + studentId + " is not enrolled in " + courseCode);
+        }
+        double oldPoints = course.getGradePoint();
+        course.setGrade(grade);
+        revision++;
+        adjustTotals((course.getGradePoint() - oldPoints) * course.getCredits(), 0);
+    }
+
+    private void adjustTotals(double gradePoints, int credits) {
+        if (courses.isEmpty()) {
+            // Re-anchor so rounding drift cannot accumulate across add/remove cycles
+            totalGradePoints = 0.0;
+            totalCredits = 0;
+        } else {
+            totalGradePoints += gradePoints;
+            totalCredits += credits;
+        }
+        this.gpa = totalCredits > 0 ? totalGradePoints / totalCredits : 0.0;
+    }
+
+    /**
+     * Apply several course changes and recalculate GPA once.
+     * Each entry maps a course code to its new course, or to null to drop it.
+     */
+    public void applyCourseChanges(Map<String, Course> changes) {
+        revision++;
+        for (Map.Entry<String, Course> change : changes.entrySet()) {
+            int index = indexOfCourse(change.getKey());
+            if (change.getValue() == null) {
+                if (index >= 0) {
+                    courses.remove(index);
+                }
+                continue;
+            }
+            change.getValue().setGradingScale(gradingScale);
+            if (index >= 0) {
+                courses.set(index, change.getValue());
+            } else {
+                courses.add(change.getValue());
+            }
+        }
         calculateGPA();
     }
 
+    /**
+     * Get the enrolled course with this code, or null
+     */
+    public Course findCourse(String courseCode) {
+        int index = indexOfCourse(courseCode);
+        return index >= 0 ? courses.get(index) : null;
+    }
+
+    private int indexOfCourse(String courseCode) {
+        for (int i = 0; i < courses.size(); i++) {
+            if (courses.get(i).getCourseCode().equals(courseCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Automatically calculate GPA based on enrolled courses
      */
     public void calculateGPA() {
-        if (courses.isEmpty()) {
-            this.gpa = 0.0;
-            return;
+        double points = 0.0;
+        int credits = 0;
+
+        for (Course course : courses) {
+            points += course.getGradePoint() * course.getCredits();
+            credits += course.getCredits();
         }
 
-        double totalGradePoints = 0.0;
-        int totalCredits = 0;
+        this.totalGradePoints = points;
+        this.totalCredits = credits;
+        this.gpa = credits > 0 ? points / credits : 0.0;
+    }
+
+    /**
+     * Put this student on a grading scale with GPA totals computed
+     * elsewhere from its courses under that scale
+     */
+    public void setGpaTotals(GradingScale scale, double gradePoints, int credits) {
+        useGradingScale(scale);
+        this.totalGradePoints = gradePoints;
+        this.totalCredits = credits;
+        this.gpa = credits > 0 ? gradePoints / credits : 0.0;
+    }
 
+    /**
+     * Deep copy of this student and its courses, safe to hand to other threads
+     */
+    public Student copy() {
+        Student copy = new Student(studentId, firstName, lastName, email, age);
         for (Course course : courses) {
-            totalGradePoints += course.getGradePoint() * course.getCredits();
-            totalCredits += course.getCredits();
+            copy.courses.add(new Course(course.getCourseCode(), course.getCourseName(),
+                                        course.getCredits(), course.getGrade()));
         }
+        copy.useGradingScale(gradingScale);
+        copy.totalGradePoints = totalGradePoints;
+        copy.totalCredits = totalCredits;
+        copy.gpa = gpa;
+        return copy;
+    }
 
-        this.gpa = totalCredits > 0 ? totalGradePoints / totalCredits : 0.0;
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        calculateGPA();
     }
 
     @Override
@@ -0,0 +1,273 @@
+package com.studentmanagement.replication;
+
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.ChangeEvent;
+import com.studentmanagement.service.QueryCursor;
+import com.studentmanagement.service.StudentManager;
+import com.studentmanagement.service.StudentQuery;
+import com.studentmanagement.util.SnapshotCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Scanner;
+
+/**
+ * Read-only replica of a primary StudentManager. Connects to a
+ * ReplicationServer, loads a snapshot when needed, applies the streamed
+ * change events in order and reconnects automatically if the connection
+ * drops. Reads go to getManager(), which rejects local mutations.
+ *
+ * Run standalone with: ReplicationFollower [host] [port]
+ */
+public class ReplicationFollower implements AutoCloseable {
+    private static final long RECONNECT_MILLIS = 1000;
+
+    private final String host;
+    private final int port;
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private volatile StudentManager manager;
+
+    // Replication position and lag metrics; written only by the follower thread
+    private volatile long epoch;
+    private volatile long appliedSequence;
+    private volatile long primarySequence;
+    private volatile long lastAppliedTimestamp;
+    private volatile long lastContactMillis;
+    private volatile boolean connected;
+    private volatile int snapshotsLoaded;
+    private volatile long eventsApplied;
+
+    public ReplicationFollower(String host, int port) {
+        this.host = host;
+        this.port = port;
+        this.manager = new StudentManager();
+        manager.setReadOnly(true);
+        this.thread = new Thread(this::run, "sms-replica");
+        thread.setDaemon(true);
+    }
+
+    /** Start following in the background */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                follow();
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                // fall through and reconnect
+            }
+            connected = false;
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void follow() throws IOException, ClassNotFoundException {
+        try (Socket s = new Socket(host, port)) {
+            socket = s;
+            s.setTcpNoDelay(true);
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            out.writeObject(ReplicationMessage.hello(epoch, appliedSequence));
+            out.flush();
+            ObjectInputStream in = ReplicationMessage.newInputStream(new BufferedInputStream(s.getInputStream()));
+            connected = true;
+            while (running) {
+                ReplicationMessage message = (ReplicationMessage) in.readObject();
+                lastContactMillis = System.currentTimeMillis();
+                switch (message.kind) {
+                    case SNAPSHOT:
+                        loadSnapshot(message);
+                        break;
+                    case EVENTS:
+                        applyEvents(message);
+                        break;
+                    case HEARTBEAT:
+                        primarySequence = Math.max(appliedSequence, message.sequence);
+                        break;
+                    default:
+                        throw new IOException("Unexpected " + message.kind + " from primary");
+                }
+            }
+        }
+    }
+
+    private void loadSnapshot(ReplicationMessage message) throws IOException {
+        StudentManager loaded = SnapshotCodec.decode(ByteBuffer.wrap(message.snapshot)).getManager();
+        loaded.setReadOnly(true);
+        synchronized (this) {
+            manager = loaded;
+            epoch = message.epoch;
+            appliedSequence = message.sequence;
+            primarySequence = Math.max(primarySequence, message.sequence);
+            lastAppliedTimestamp = message.timestamp;
+            snapshotsLoaded++;
+            notifyAll();
+        }
+    }
+
+    private void applyEvents(ReplicationMessage message) throws IOException {
+        StudentManager target = manager;
+        for (ChangeEvent event : message.events) {
+            if (event.getSequence() != appliedSequence + 1) {
+                // Reconnect; the primary resumes from appliedSequence or resends a snapshot
+                throw new IOException("Gap in replication stream: expected #" + (appliedSequence + 1)
+                                      + " but got #" + event.getSequence());
+            }
+            target.applyEvent(event);
+            appliedSequence = event.getSequence();
+            lastAppliedTimestamp = event.getTimestamp();
+            eventsApplied++;
+        }
+        synchronized (this) {
+            primarySequence = Math.max(primarySequence, appliedSequence);
+            notifyAll();
+        }
+    }
+
+    /** Current replica; replaced when a snapshot is loaded, so re-read it per use */
+    public StudentManager getManager() {
+        return manager;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /** Latest sequence the primary has reported */
+    public long getPrimarySequence() {
+        return primarySequence;
+    }
+
+    /** Events committed on the primary but not yet applied here */
+    public long getLagEvents() {
+        return Math.max(0, primarySequence - appliedSequence);
+    }
+
+    /**
+     * Age of the newest applied event when behind, 0 when caught up
+     */
+    public long getLagMillis() {
+        return getLagEvents() == 0 ? 0 : Math.max(0, System.currentTimeMillis() - lastAppliedTimestamp);
+    }
+
+    /** Milliseconds since anything was heard from the primary */
+    public long getMillisSinceContact() {
+        return lastContactMillis == 0 ? -1 : System.currentTimeMillis() - lastContactMillis;
+    }
+
+    public int getSnapshotsLoaded() {
+        return snapshotsLoaded;
+    }
+
+    public long getEventsApplied() {
+        return eventsApplied;
+    }
+
+    /**
+     * Wait until at least the given sequence has been applied
+     */
+    public synchronized boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (appliedSequence < sequence) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    public String describeStatus() {
+        return String.format("%s %s:%d | applied #%d of #%d | lag %d event(s), %d ms | %d student(s) | %d snapshot(s), %d event(s) applied",
+                            connected ? "connected to" : "disconnected from", host, port,
+                            appliedSequence, primarySequence, getLagEvents(), getLagMillis(),
+                            manager.getTotalStudents(), snapshotsLoaded, eventsApplied);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Socket s = socket;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * Standalone read-only replica with a small command prompt
+     */
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        try (ReplicationFollower follower = new ReplicationFollower(host, port);
+             Scanner scanner = new Scanner(System.in)) {
+            follower.start();
+            System.out.println("Following " + host + ":" + port + ". Commands: status, get <id>, search <text>, top <n>, quit");
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine().trim();
+                String[] parts = line.split("\\s+", 2);
+                String argument = parts.length > 1 ? parts[1] : "";
+                try {
+                    switch (parts[0].toLowerCase()) {
+                        case "":
+                            break;
+                        case "status":
+                            System.out.println(follower.describeStatus());
+                            break;
+                        case "get":
+                            System.out.print(follower.getManager().getStudentCopy(argument));
+                            break;
+                        case "search":
+                            for (Student student : follower.getManager().searchStudents(argument)) {
+                                System.out.println("  " + student.getStudentId() + "  " + student.getFirstName() + " " + student.getLastName());
+                            }
+                            break;
+                        case "top":
+                            int limit = argument.isEmpty() ? 10 : Integer.parseInt(argument);
+                            try (QueryCursor cursor = follower.getManager().query(StudentQuery.create()
+                                    .sortBy(StudentQuery.SortField.GPA, true).limit(limit))) {
+                                while (cursor.hasNext()) {
+                                    Student student = cursor.next();
+                                    System.out.printf("  %s  %-25s %.2f%n", student.getStudentId(),
+                                                      student.getFirstName() + " " + student.getLastName(), student.getGpa());
+                                }
+                            }
+                            break;
+                        case "quit":
+                        case "exit":
+                            return;
+                        default:
+                            System.out.println("✗ Unknown command: " + parts[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.out.println("✗ " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.studentmanagement.replication;
+
+import com.studentmanagement.service.ChangeEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Frame exchanged between a ReplicationServer and a follower.
+ * The follower sends one HELLO; the primary then streams SNAPSHOT,
+ * EVENTS and HEARTBEAT frames.
+ */
+class ReplicationMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Classes a replication stream may contain. Anything else is rejected
+     * before it is instantiated, so a peer cannot make the reader build
+     * arbitrary serializable objects.
+     */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=16;"
+            + "com.studentmanagement.replication.ReplicationMessage;"
+            + "com.studentmanagement.replication.ReplicationMessage$Kind;"
+            + "com.studentmanagement.service.ChangeEvent;"
+            + "com.studentmanagement.service.ChangeEvent$Type;"
+            + "com.studentmanagement.model.Student;"
+            + "com.studentmanagement.model.Course;"
+            + "java.lang.Enum;"
+            + "java.util.ArrayList;"
+            + "java.util.Collections$UnmodifiableList;"
+            + "java.util.Collections$UnmodifiableCollection;"
+            + "!*");
+
+    enum Kind {
+        HELLO,      // follower -> primary: epoch and last applied sequence
+        SNAPSHOT,   // full state as of sequence, in SnapshotCodec format
+        EVENTS,     // consecutive change events
+        HEARTBEAT   // primary's latest sequence, sent while idle
+    }
+
+    final Kind kind;
+    final long epoch;
+    final long sequence;
+    final byte[] snapshot;
+    final List<ChangeEvent> events;
+    final long timestamp = System.currentTimeMillis();
+
+    private ReplicationMessage(Kind kind, long epoch, long sequence, byte[] snapshot, List<ChangeEvent> events) {
+        this.kind = kind;
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.snapshot = snapshot;
+        this.events = events;
+    }
+
+    static ReplicationMessage hello(long epoch, long appliedSequence) {
+        return new ReplicationMessage(Kind.HELLO, epoch, appliedSequence, null, null);
+    }
+
+    static ReplicationMessage snapshot(long epoch, long sequence, byte[] data) {
+        return new ReplicationMessage(Kind.SNAPSHOT, epoch, sequence, data, null);
+    }
+
+    static ReplicationMessage events(List<ChangeEvent> events) {
+        return new ReplicationMessage(Kind.EVENTS, 0, events.get(events.size() - 1).getSequence(), null, events);
+    }
+
+    static ReplicationMessage heartbeat(long epoch, long sequence) {
+        return new ReplicationMessage(Kind.HEARTBEAT, epoch, sequence, null, null);
+    }
+
+    /**
+     * Object stream over a peer's socket that only accepts replication frames
+     */
+    static ObjectInputStream newInputStream(InputStream in) throws IOException {
+        ObjectInputStream stream = new ObjectInputStream(in);
+        stream.setObjectInputFilter(FILTER);
+        return stream;
+    }
+}
@@ -0,0 +1,208 @@
+package com.studentmanagement.replication;
+
+import com.studentmanagement.service.ChangeEvent;
+import com.studentmanagement.service.MutationLog;
+import com.studentmanagement.service.StudentManager;
+import com.studentmanagement.util.SnapshotCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams the mutation log of a primary StudentManager to followers over
+ * TCP. A follower that is new, from another epoch, or too far behind the
+ * retained log first receives a full snapshot and then the log tail from
+ * the snapshot's sequence on. Idle connections get a heartbeat every
+ * second so followers can measure their lag.
+ *
+ * Enabled in the console app with -Dsms.replication.port=PORT. The server
+ * listens on the loopback address unless -Dsms.replication.bind names
+ * another local address for followers on other hosts; the stream is not
+ * authenticated, so only bind where every peer is trusted. The log size is
+ * set with sms.replication.logCapacity (default 100000 events).
+ */
+public class ReplicationServer implements AutoCloseable {
+    public static final int DEFAULT_LOG_CAPACITY = 100_000;
+    private static final int BATCH_SIZE = 512;
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    private final StudentManager manager;
+    private final MutationLog log;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    /** Listen on the loopback address only */
+    public ReplicationServer(StudentManager manager, int port) throws IOException {
+        this(manager, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public ReplicationServer(StudentManager manager, InetSocketAddress address) throws IOException {
+        this.manager = manager;
+        this.log = manager.enableMutationLog(Integer.getInteger("sms.replication.logCapacity", DEFAULT_LOG_CAPACITY));
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "sms-replication");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Address from -Dsms.replication.port and -Dsms.replication.bind
+     * (default loopback), or null if no port is set
+     */
+    public static InetSocketAddress addressFromSystemProperties() {
+        Integer port = Integer.getInteger("sms.replication.port");
+        if (port == null) {
+            return null;
+        }
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid sms.replication.port: " + port);
+        }
+        String bind = System.getProperty("sms.replication.bind");
+        return bind == null
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                : new InetSocketAddress(bind, port);
+    }
+
+    /** Port actually bound (useful when constructed with port 0) */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    public long getLastSequence() {
+        return log.getLastSequence();
+    }
+
+    /** Start accepting followers in the background */
+    public void start() {
+        running = true;
+        executor.execute(this::acceptLoop);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                followers.add(socket);
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.out.println("✗ Warning: Replication accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.flush(); // stream header first, so the follower's ObjectInputStream can open
+            ObjectInputStream in = ReplicationMessage.newInputStream(new BufferedInputStream(socket.getInputStream()));
+            ReplicationMessage hello = (ReplicationMessage) in.readObject();
+            long sent = hello.sequence;
+            if (hello.kind != ReplicationMessage.Kind.HELLO || hello.epoch != log.getEpoch()) {
+                sent = sendSnapshot(out);
+            }
+            long lastHeartbeat = 0;
+            while (running) {
+                if (!log.covers(sent)) {
+                    sent = sendSnapshot(out); // new, diverged or fell off the retained log
+                    continue;
+                }
+                List<ChangeEvent> events;
+                try {
+                    events = log.readAfter(sent, BATCH_SIZE, HEARTBEAT_MILLIS);
+                } catch (IllegalStateException e) {
+                    continue; // overwritten while waiting; resend a snapshot
+                }
+                if (!events.isEmpty()) {
+                    out.writeObject(ReplicationMessage.events(events));
+                    sent = events.get(events.size() - 1).getSequence();
+                }
+                long now = System.currentTimeMillis();
+                if (events.isEmpty() || now - lastHeartbeat >= HEARTBEAT_MILLIS) {
+                    out.writeObject(ReplicationMessage.heartbeat(log.getEpoch(), log.getLastSequence()));
+                    lastHeartbeat = now;
+                }
+                out.flush();
+                out.reset(); // events are never resent, so drop the stream's back-references
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Follower went away or spoke garbage; it reconnects on its own
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Send the primary's full state and return the sequence it reflects
+     */
+    private long sendSnapshot(ObjectOutputStream out) throws IOException {
+        List<ByteBuffer> buffers;
+        long sequence;
+        synchronized (manager) {
+            // Events are appended under the same lock, so state and sequence match
+            sequence = log.getLastSequence();
+            buffers = SnapshotCodec.encode(manager, SnapshotCodec.DEFAULT_BLOCK_SIZE);
+        }
+        int size = 0;
+        for (ByteBuffer buffer : buffers) {
+            size += buffer.remaining();
+        }
+        byte[] data = new byte[size];
+        int offset = 0;
+        for (ByteBuffer buffer : buffers) {
+            int length = buffer.remaining();
+            buffer.duplicate().get(data, offset, length);
+            offset += length;
+        }
+        out.writeObject(ReplicationMessage.snapshot(log.getEpoch(), sequence, data));
+        out.flush();
+        out.reset();
+        return sequence;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    /** Stop accepting and disconnect all followers */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (Socket socket : followers) {
+            closeQuietly(socket);
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package com.studentmanagement.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of an applied StudentBatch
+ */
+public class BatchResult {
+    private final int operationCount;
+    private final int studentsTouched;
+    private final List<String> createdIds;
+
+    public BatchResult(int operationCount, int studentsTouched, List<String> createdIds) {
+        this.operationCount = operationCount;
+        this.studentsTouched = studentsTouched;
+        this.createdIds = createdIds;
+    }
+
+    public int getOperationCount() {
+        return operationCount;
+    }
+
+    /** Number of existing students whose courses changed */
+    public int getStudentsTouched() {
+        return studentsTouched;
+    }
+
+    /** IDs generated for CREATE operations, in batch order */
+    public List<String> getCreatedIds() {
+        return Collections.unmodifiableList(createdIds);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d operation(s), %d student(s) updated, %d created",
+                            operationCount, studentsTouched, createdIds.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One committed mutation of a StudentManager, in commit order.
+ * Carries a private copy of the student as it was right after the change
+ * (null for deletions), so applying an event is a plain upsert or delete
+ * and never depends on the receiver's prior state. An atomic batch is
+ * one BATCH event carrying every student it created or changed.
+ */
+public class ChangeEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Kinds of change */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        COURSE_ASSIGNED,
+        COURSE_REMOVED,
+        GRADE_UPDATED,
+        GRADING_SCALE_CHANGED,
+        BATCH
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final String studentId;
+    private final Student student;
+    private final List<Student> batch;
+    private final String gradingScale;
+    private final int nextId;
+    private final long timestamp;
+
+    ChangeEvent(long sequence, Type type, String studentId, Student student, String gradingScale, int nextId) {
+        this.sequence = sequence;
+        this.type = type;
+        this.studentId = studentId;
+        this.student = student;
+        this.batch = null;
+        this.gradingScale = gradingScale;
+        this.nextId = nextId;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /** A BATCH event; students are private copies after the batch was applied */
+    ChangeEvent(long sequence, List<Student> students, int nextId) {
+        this.sequence = sequence;
+        this.type = Type.BATCH;
+        this.studentId = null;
+        this.student = null;
+        this.batch = Collections.unmodifiableList(students);
+        this.gradingScale = null;
+        this.nextId = nextId;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /** Position in the mutation log, starting at 1 */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** Affected student, or null for GRADING_SCALE_CHANGED and BATCH */
+    public String getStudentId() {
+        return studentId;
+    }
+
+    /** Copy of the student after the change; null for DELETED, GRADING_SCALE_CHANGED and BATCH */
+    public Student getStudent() {
+        return student;
+    }
+
+    /**
+     * Copies of every student the change created or updated: all of a
+     * BATCH, the one student of other upserts, none for deletions
+     */
+    public List<Student> getStudents() {
+        if (batch != null) {
+            return batch;
+        }
+        return student == null ? Collections.emptyList() : Collections.singletonList(student);
+    }
+
+    /** New scale name for GRADING_SCALE_CHANGED, otherwise null */
+    public String getGradingScale() {
+        return gradingScale;
+    }
+
+    /** The manager's next ID counter after the change */
+    public int getNextId() {
+        return nextId;
+    }
+
+    /** Wall-clock time of the change in epoch milliseconds */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        if (batch != null) {
+            return "#" + sequence + " " + type + " of " + batch.size() + " student(s)";
+        }
+        return "#" + sequence + " " + type + (studentId != null ? " " + studentId : " " + gradingScale);
+    }
+}
@@ -0,0 +1,226 @@
+package com.studentmanagement.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Publishes a StudentManager's ChangeEvents, in commit order, to any
+ * number of Flow subscribers.
+ *
+ * Events are offered to subscribers under the manager's lock but never
+ * block it: each subscriber has a bounded buffer, and an event that does
+ * not fit is dropped for that subscriber and counted. Sequence numbers
+ * are consecutive, so a subscriber that sees a gap knows it fell behind
+ * and should re-read the roster. Subscribers run on the feed's executor,
+ * by default a pool of daemon threads separate from the common pool, so a
+ * subscriber that calls back into the manager cannot starve parallel
+ * work running under the manager's lock.
+ */
+public class ChangeFeed implements Flow.Publisher<ChangeEvent>, AutoCloseable {
+    /**
+     * Per-subscriber buffer limit (sms.changeFeed.bufferSize). Buffers
+     * start small and only grow while a subscriber is behind, so the limit
+     * is generous enough for a bulk operation's burst of events.
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 1 << 16;
+
+    private final SubmissionPublisher<ChangeEvent> publisher;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ChangeFeed() {
+        this(Threads.SUBSCRIBERS, Integer.getInteger("sms.changeFeed.bufferSize", DEFAULT_BUFFER_CAPACITY));
+    }
+
+    public ChangeFeed(Executor executor, int bufferCapacity) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ChangeEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /** Offer an event to every subscriber without waiting */
+    void publish(ChangeEvent event) {
+        if (!publisher.hasSubscribers()) {
+            return;
+        }
+        published.incrementAndGet();
+        publisher.offer(event, (subscriber, item) -> {
+            dropped.incrementAndGet();
+            return false;
+        });
+    }
+
+    /** Whether any subscriber would receive a published event */
+    boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    /** Events offered while at least one subscriber was attached */
+    public long getPublishedEvents() {
+        return published.get();
+    }
+
+    /** Deliveries skipped because a subscriber's buffer was full */
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    /** Largest number of events waiting for any one subscriber */
+    public int getMaximumLag() {
+        return publisher.estimateMaximumLag();
+    }
+
+    /**
+     * Complete every subscription; later events are not published
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+    @Override
+    public String toString() {
+        return getSubscriberCount() + " subscriber(s), " + getPublishedEvents() + " event(s) published, "
+               + getDroppedEvents() + " dropped";
+    }
+
+    /**
+     * Subscriber that hands events to a consumer in batches of up to
+     * maxBatch, or sooner once the oldest pending event has waited
+     * maxDelayMillis. It never has more than maxBatch events requested,
+     * so a slow consumer holds back its own buffer, not the manager.
+     */
+    public static BatchingSubscriber batching(int maxBatch, long maxDelayMillis, Consumer<List<ChangeEvent>> consumer) {
+        return new BatchingSubscriber(maxBatch, maxDelayMillis, consumer);
+    }
+
+    /** Shared daemon threads, created on first use */
+    private static final class Threads {
+        static final ExecutorService SUBSCRIBERS = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "sms-change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+
+        /** Flushes partial batches for every BatchingSubscriber */
+        static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sms-change-feed-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * See {@link ChangeFeed#batching}
+     */
+    public static class BatchingSubscriber implements Flow.Subscriber<ChangeEvent> {
+        private final int maxBatch;
+        private final long maxDelayMillis;
+        private final Consumer<List<ChangeEvent>> consumer;
+        private Flow.Subscription subscription;
+        private List<ChangeEvent> pending;
+        private ScheduledFuture<?> timer;
+        private boolean cancelled;
+
+        BatchingSubscriber(int maxBatch, long maxDelayMillis, Consumer<List<ChangeEvent>> consumer) {
+            if (maxBatch <= 0 || maxDelayMillis < 0) {
+                throw new IllegalArgumentException("Batch size must be positive and delay non-negative");
+            }
+            if (consumer == null) {
+                throw new IllegalArgumentException("Consumer cannot be null");
+            }
+            this.maxBatch = maxBatch;
+            this.maxDelayMillis = maxDelayMillis;
+            this.consumer = consumer;
+            this.pending = new ArrayList<>(maxBatch);
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(maxBatch);
+        }
+
+        @Override
+        public synchronized void onNext(ChangeEvent event) {
+            pending.add(event);
+            if (pending.size() >= maxBatch || maxDelayMillis == 0) {
+                flush();
+            } else if (timer == null) {
+                timer = Threads.TIMER.schedule(this::flushLate, maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable error) {
+            flush();
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            flush();
+        }
+
+        /**
+         * Stop receiving events; anything already pending is delivered first
+         */
+        public synchronized void cancel() {
+            flush();
+            cancelled = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        private synchronized void flushLate() {
+            timer = null;
+            flush();
+        }
+
+        private void flush() {
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+            if (pending.isEmpty() || cancelled) {
+                return;
+            }
+            List<ChangeEvent> batch = pending;
+            pending = new ArrayList<>(maxBatch);
+            try {
+                consumer.accept(batch);
+            } finally {
+                if (subscription != null) {
+                    subscription.request(batch.size());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set of student records changed since the last drain of a StudentManager.
+ * Written to disk as one delta segment by the auto-save scheduler.
+ */
+public class ChangeSet implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final long sequence;
+    private final Map<String, Student> updated;
+    private final Set<String> deleted;
+    private final int nextId;
+    private final String gradingScale; // set only when the scale changed
+
+    /**
+     * Constructor for a drained change set
+     */
+    public ChangeSet(long sequence, Map<String, Student> updated, Set<String> deleted, int nextId, String gradingScale) {
+        this.sequence = sequence;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.nextId = nextId;
+        this.gradingScale = gradingScale;
+    }
+
+    /**
+     * Journal sequence number of this change set (1 for the first segment)
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Collection<Student> getUpdated() {
+        return Collections.unmodifiableCollection(updated.values());
+    }
+
+    public Set<String> getDeleted() {
+        return Collections.unmodifiableSet(deleted);
+    }
+
+    public int getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Name of the grading scale selected in this change set, or null if unchanged
+     */
+    public String getGradingScale() {
+        return gradingScale;
+    }
+
+    public boolean isEmpty() {
+        return updated.isEmpty() && deleted.isEmpty() && gradingScale == null;
+    }
+
+    /**
+     * Number of records carried by this change set
+     */
+    public int size() {
+        return updated.size() + deleted.size();
+    }
+}
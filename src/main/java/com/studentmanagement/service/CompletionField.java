@@ -0,0 +1,10 @@
+package com.studentmanagement.service;
+
+/**
+ * Student fields that support prefix autocompletion
+ */
+public enum CompletionField {
+    STUDENT_ID,
+    LAST_NAME,
+    EMAIL
+}
@@ -0,0 +1,174 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrollment, grade and credit totals per course code, kept in step with
+ * the roster by StudentIndexes so course statistics never visit students.
+ *
+ * Grades are counted per whole percentage point, the buckets GradingScale
+ * converts from, so the letter distribution and pass rate are derived on
+ * read under whichever scale is active and a scale change costs nothing.
+ */
+class CourseAggregates implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int BUCKETS = 101;
+
+    // Totals stay when a course empties, so a course that is dropped and
+    // taken again does not allocate them anew; reads skip empty ones
+    private final Map<String, Totals> courses = new HashMap<>();
+    private int active;
+
+    /**
+     * Running totals of one course
+     */
+    private static final class Totals implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        String courseName; // as given by the first enrollment counted since the course was empty
+        final int[] grades = new int[BUCKETS];
+        int enrollments;
+        double gradeSum;
+        long credits;
+
+        Totals(String courseName) {
+            this.courseName = courseName;
+        }
+
+        void add(double grade, int credits, int sign) {
+            grades[bucket(grade)] += sign;
+            enrollments += sign;
+            gradeSum += sign * grade;
+            this.credits += sign * (long) credits;
+        }
+
+        void merge(Totals other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                grades[i] += other.grades[i];
+            }
+            enrollments += other.enrollments;
+            gradeSum += other.gradeSum;
+            credits += other.credits;
+        }
+    }
+
+    /**
+     * Build from scratch, students split across the common pool and the
+     * partial totals merged
+     */
+    static CourseAggregates build(Collection<Student> students) {
+        return students.parallelStream().collect(CourseAggregates::new, CourseAggregates::addAll,
+                                                 CourseAggregates::merge);
+    }
+
+    /** Count every course of a student */
+    void addAll(Student student) {
+        for (Course course : student.getCourseList()) {
+            add(course);
+        }
+    }
+
+    /** Uncount every course of a student; call before changing them */
+    void removeAll(Student student) {
+        for (Course course : student.getCourseList()) {
+            remove(course);
+        }
+    }
+
+    void add(Course course) {
+        Totals totals = courses.get(course.getCourseCode());
+        if (totals == null) {
+            totals = new Totals(course.getCourseName());
+            courses.put(course.getCourseCode(), totals);
+        } else if (totals.enrollments == 0) {
+            totals.courseName = course.getCourseName();
+        }
+        if (totals.enrollments == 0) {
+            active++;
+        }
+        totals.add(course.getGrade(), course.getCredits(), 1);
+    }
+
+    void remove(Course course) {
+        Totals totals = courses.get(course.getCourseCode());
+        if (totals == null || totals.enrollments == 0) {
+            return;
+        }
+        totals.add(course.getGrade(), course.getCredits(), -1);
+        if (totals.enrollments == 0) {
+            active--;
+            totals.gradeSum = 0.0; // drop rounding left over from the additions
+        }
+    }
+
+    /** Move an enrollment to the course's new grade */
+    void gradeChanged(Course course, double oldGrade) {
+        Totals totals = courses.get(course.getCourseCode());
+        if (totals != null && totals.enrollments > 0) {
+            totals.add(oldGrade, course.getCredits(), -1);
+            totals.add(course.getGrade(), course.getCredits(), 1);
+        }
+    }
+
+    private void merge(CourseAggregates other) {
+        for (Map.Entry<String, Totals> entry : other.courses.entrySet()) {
+            Totals mine = courses.putIfAbsent(entry.getKey(), entry.getValue());
+            if (mine == null) {
+                active++;
+            } else {
+                mine.merge(entry.getValue());
+            }
+        }
+    }
+
+    /** Number of courses with at least one student enrolled */
+    int size() {
+        return active;
+    }
+
+    /** Statistics of one course under the given scale, or null if nobody takes it */
+    CourseStatistics get(String courseCode, GradingScale scale) {
+        Totals totals = courses.get(courseCode);
+        return totals == null || totals.enrollments == 0 ? null : statistics(courseCode, totals, scale);
+    }
+
+    /** Statistics of every course, in no particular order */
+    List<CourseStatistics> getAll(GradingScale scale) {
+        List<CourseStatistics> all = new ArrayList<>(active);
+        for (Map.Entry<String, Totals> entry : courses.entrySet()) {
+            if (entry.getValue().enrollments > 0) {
+                all.add(statistics(entry.getKey(), entry.getValue(), scale));
+            }
+        }
+        return all;
+    }
+
+    private static CourseStatistics statistics(String courseCode, Totals totals, GradingScale scale) {
+        Map<String, Integer> letters = new LinkedHashMap<>();
+        int passed = 0;
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            int count = totals.grades[bucket];
+            letters.merge(scale.letter(bucket), count, Integer::sum);
+            if (scale.gradePoint(bucket) > 0) {
+                passed += count;
+            }
+        }
+        return new CourseStatistics(courseCode, totals.courseName, totals.enrollments, totals.gradeSum,
+                                    passed, totals.credits, letters);
+    }
+
+    /** Same bucketing as GradingScale: whole percentage points, clamped to 0-100 */
+    private static int bucket(double grade) {
+        int bucket = (int) grade;
+        return bucket < 0 ? 0 : Math.min(bucket, BUCKETS - 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.studentmanagement.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Aggregates of one course shown on the course statistics screen. Letters
+ * and passes follow the grading scale active when they were read; a grade
+ * that earns grade points counts as a pass.
+ */
+public class CourseStatistics {
+    private final String courseCode;
+    private final String courseName;
+    private final int enrollments;
+    private final double gradeSum;
+    private final int passed;
+    private final long totalCredits;
+    private final Map<String, Integer> letterCounts;
+
+    public CourseStatistics(String courseCode, String courseName, int enrollments, double gradeSum,
+                            int passed, long totalCredits, Map<String, Integer> letterCounts) {
+        this.courseCode = courseCode;
+        this.courseName = courseName;
+        this.enrollments = enrollments;
+        this.gradeSum = gradeSum;
+        this.passed = passed;
+        this.totalCredits = totalCredits;
+        this.letterCounts = Collections.unmodifiableMap(letterCounts);
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public int getEnrollments() {
+        return enrollments;
+    }
+
+    /** Sum of every enrolled student's grade in this course */
+    public double getGradeSum() {
+        return gradeSum;
+    }
+
+    public double getMeanGrade() {
+        return enrollments == 0 ? 0.0 : gradeSum / enrollments;
+    }
+
+    public int getPassed() {
+        return passed;
+    }
+
+    /** Share of enrollments passed, 0.0 to 1.0 */
+    public double getPassRate() {
+        return enrollments == 0 ? 0.0 : (double) passed / enrollments;
+    }
+
+    /** Credits of every enrollment added up */
+    public long getTotalCredits() {
+        return totalCredits;
+    }
+
+    /** Enrollments per letter of the scale, best letter first, including letters nobody earned */
+    public Map<String, Integer> getLetterCounts() {
+        return letterCounts;
+    }
+}
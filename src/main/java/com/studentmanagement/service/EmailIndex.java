@@ -0,0 +1,118 @@
+package com.studentmanagement.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Hash index from case-normalized email to the student who owns it, so
+ * uniqueness checks and lookups by email are O(1).
+ *
+ * New emails are kept unique by StudentManager, but rosters saved before
+ * that rule may already share an email between students. Those extra
+ * owners are tracked on the side, so removing one student never loses
+ * track of another with the same email.
+ */
+class EmailIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, String> owners;
+    private final Map<String, List<String>> extraOwners = new HashMap<>(); // pre-existing duplicates only
+
+    EmailIndex() {
+        this.owners = new HashMap<>();
+    }
+
+    private EmailIndex(int expected) {
+        this.owners = new HashMap<>(expected * 4 / 3 + 1);
+    }
+
+    /**
+     * Build from the email prefix index, whose keys are already
+     * normalized and whose IDs are grouped by key
+     */
+    static EmailIndex fromPrefixIndex(PrefixIndex emails) {
+        SortedIndex<String> keys = emails.keys();
+        EmailIndex index = new EmailIndex(keys.keyCount());
+        for (Map.Entry<String, TreeSet<String>> entry : keys.tail("").entrySet()) {
+            for (String id : entry.getValue()) {
+                index.add(entry.getKey(), id);
+            }
+        }
+        return index;
+    }
+
+    static String normalize(String email) {
+        return PrefixIndex.normalize(email);
+    }
+
+    /** Student that owns an email, or null */
+    String owner(String email) {
+        if (email == null || email.isEmpty()) {
+            return null;
+        }
+        return owners.get(normalize(email));
+    }
+
+    /**
+     * Reject an email already used by a student other than studentId
+     * (pass null when creating a student)
+     */
+    void checkAvailable(String email, String studentId) {
+        String owner = owner(email);
+        if (owner != null && !owner.equals(studentId)) {
+            throw new IllegalArgumentException("Email already in use by " + owner + ": " + email.trim());
+        }
+    }
+
+    void add(String email, String studentId) {
+        if (email == null || email.isEmpty()) {
+            return;
+        }
+        String key = normalize(email);
+        String previous = owners.putIfAbsent(key, studentId);
+        if (previous != null && !previous.equals(studentId)) {
+            extraOwners.computeIfAbsent(key, k -> new ArrayList<>(2)).add(studentId);
+        }
+    }
+
+    void remove(String email, String studentId) {
+        if (email == null || email.isEmpty()) {
+            return;
+        }
+        String key = normalize(email);
+        List<String> extras = extraOwners.get(key);
+        if (studentId.equals(owners.get(key))) {
+            if (extras == null) {
+                owners.remove(key);
+                return;
+            }
+            owners.put(key, extras.remove(extras.size() - 1));
+        } else if (extras == null || !extras.remove(studentId)) {
+            return;
+        }
+        if (extras.isEmpty()) {
+            extraOwners.remove(key);
+        }
+    }
+
+    /**
+     * Emails shared by more than one student, each with all of its
+     * owners, in email order
+     */
+    Map<String, List<String>> duplicates() {
+        Map<String, List<String>> duplicates = new TreeMap<>();
+        for (Map.Entry<String, List<String>> entry : extraOwners.entrySet()) {
+            List<String> ids = new ArrayList<>(entry.getValue().size() + 1);
+            ids.add(owners.get(entry.getKey()));
+            ids.addAll(entry.getValue());
+            ids.sort(null);
+            duplicates.put(entry.getKey(), ids);
+        }
+        return duplicates;
+    }
+}
@@ -0,0 +1,351 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant index over first and last names.
+ * Name tokens are stored in a BK-tree for bounded edit-distance lookup,
+ * plus a Soundex table so names that sound alike also match.
+ * Holds student IDs only; StudentManager resolves them.
+ */
+public class FuzzyNameIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final double PHONETIC_SCORE = 0.6;
+    private static final int MAX_ALTERNATIVES = 8; // per query token
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+"); // compiled once; String.split recompiles
+
+    private final Map<String, Set<String>> postings = new HashMap<>();  // token -> student IDs
+    private final Map<String, Set<String>> phonetic = new HashMap<>();  // soundex code -> student IDs
+    private Node root;
+
+    /** BK-tree node; children keyed by edit distance to this term */
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String term;
+        final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+
+    /** Index a student's name tokens */
+    public void add(Student student) {
+        for (String token : tokens(student)) {
+            Set<String> ids = postings.get(token);
+            if (ids == null) {
+                ids = new HashSet<>(2);
+                postings.put(token, ids);
+                insertTerm(token);
+            }
+            ids.add(student.getStudentId());
+            phonetic.computeIfAbsent(soundex(token), k -> new HashSet<>(2)).add(student.getStudentId());
+        }
+    }
+
+    /**
+     * Write postings and phonetic sets for the warm index image. The
+     * BK-tree is not written; it is rebuilt from the distinct tokens,
+     * which are few compared to the postings.
+     */
+    void writeImage(DataOutput out, Map<String, Integer> ordinals) throws IOException {
+        writeSets(out, postings, ordinals);
+        writeSets(out, phonetic, ordinals);
+    }
+
+    static FuzzyNameIndex readImage(ByteBuffer in, String[] ids) {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        readSets(in, index.postings, ids);
+        readSets(in, index.phonetic, ids);
+        for (String token : index.postings.keySet()) {
+            index.insertTerm(token);
+        }
+        return index;
+    }
+
+    private static void writeSets(DataOutput out, Map<String, Set<String>> sets, Map<String, Integer> ordinals)
+            throws IOException {
+        out.writeInt(sets.size());
+        for (Map.Entry<String, Set<String>> entry : sets.entrySet()) {
+            IndexImage.writeString(out, entry.getKey());
+            IndexImage.writeIds(out, entry.getValue(), ordinals);
+        }
+    }
+
+    private static void readSets(ByteBuffer in, Map<String, Set<String>> sets, String[] ids) {
+        int count = in.getInt();
+        for (int k = 0; k < count; k++) {
+            String key = IndexImage.readString(in);
+            int size = in.getInt();
+            Set<String> set = new HashSet<>(Math.max(2, size * 4 / 3 + 1));
+            for (int i = 0; i < size; i++) {
+                set.add(ids[in.getInt()]);
+            }
+            sets.put(key, set);
+        }
+    }
+
+    /**
+     * Drop a student's name tokens. Terms stay in the BK-tree and are
+     * skipped at query time once they have no postings.
+     */
+    public void remove(Student student) {
+        String id = student.getStudentId();
+        for (String token : tokens(student)) {
+            Set<String> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+            String code = soundex(token);
+            Set<String> sounds = phonetic.get(code);
+            if (sounds != null) {
+                sounds.remove(id);
+                if (sounds.isEmpty()) {
+                    phonetic.remove(code);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the best matching student IDs for a name query, highest score first.
+     * Each query token scores 1 - distance/length against an indexed token,
+     * or a fixed phonetic score; the student score is the mean over tokens.
+     *
+     * Ranking works on term combinations rather than students: combinations
+     * are visited in descending score order and their posting lists are
+     * intersected, so the first time a student appears is its best score and
+     * the scan stops as soon as enough students are found.
+     */
+    public List<Map.Entry<String, Double>> search(String query, int limit) {
+        String[] queryTokens = split(query);
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>();
+        if (queryTokens.length == 0 || limit <= 0) {
+            return ranked;
+        }
+
+        // Candidate postings per query token; a null slot means "token not matched"
+        List<List<Map.Entry<Set<String>, Double>>> alternatives = new ArrayList<>(queryTokens.length);
+        for (String token : queryTokens) {
+            int maxDistance = token.length() <= 4 ? 1 : 2;
+            List<Map.Entry<Set<String>, Double>> matches = new ArrayList<>();
+            collect(root, token, maxDistance, matches);
+            Set<String> sounds = phonetic.get(soundex(token));
+            if (sounds != null) {
+                matches.add(new AbstractMap.SimpleImmutableEntry<>(sounds, PHONETIC_SCORE));
+            }
+            matches.sort(Map.Entry.<Set<String>, Double>comparingByValue().reversed());
+            if (matches.size() > MAX_ALTERNATIVES) {
+                matches = new ArrayList<>(matches.subList(0, MAX_ALTERNATIVES));
+            }
+            matches.add(null);
+            alternatives.add(matches);
+        }
+
+        List<int[]> combinations = new ArrayList<>();
+        enumerate(alternatives, 0, new int[queryTokens.length], combinations);
+        List<Double> scores = new ArrayList<>(combinations.size());
+        for (int[] combination : combinations) {
+            scores.add(combinationScore(alternatives, combination) / queryTokens.length);
+        }
+        Integer[] order = new Integer[combinations.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores.get(b), scores.get(a)));
+
+        Set<String> emitted = new HashSet<>();
+        for (int index : order) {
+            double score = scores.get(index);
+            if (score <= 0) {
+                break;
+            }
+            List<Set<String>> sets = new ArrayList<>(queryTokens.length);
+            int[] combination = combinations.get(index);
+            for (int q = 0; q < combination.length; q++) {
+                Map.Entry<Set<String>, Double> alt = alternatives.get(q).get(combination[q]);
+                if (alt != null) {
+                    sets.add(alt.getKey());
+                }
+            }
+            sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            for (String id : sets.get(0)) {
+                if (emitted.contains(id)) {
+                    continue;
+                }
+                boolean inAll = true;
+                for (int i = 1; i < sets.size() && inAll; i++) {
+                    inAll = sets.get(i).contains(id);
+                }
+                if (inAll) {
+                    emitted.add(id);
+                    ranked.add(new AbstractMap.SimpleImmutableEntry<>(id, score));
+                    if (ranked.size() >= limit) {
+                        return ranked;
+                    }
+                }
+            }
+        }
+        return ranked;
+    }
+
+    private static void enumerate(List<List<Map.Entry<Set<String>, Double>>> alternatives, int position,
+                                  int[] current, List<int[]> out) {
+        if (position == current.length) {
+            out.add(current.clone());
+            return;
+        }
+        for (int i = 0; i < alternatives.get(position).size(); i++) {
+            current[position] = i;
+            enumerate(alternatives, position + 1, current, out);
+        }
+    }
+
+    private static double combinationScore(List<List<Map.Entry<Set<String>, Double>>> alternatives, int[] combination) {
+        double sum = 0;
+        for (int q = 0; q < combination.length; q++) {
+            Map.Entry<Set<String>, Double> alt = alternatives.get(q).get(combination[q]);
+            if (alt != null) {
+                sum += alt.getValue();
+            }
+        }
+        return sum;
+    }
+
+    private void collect(Node node, String token, int maxDistance, List<Map.Entry<Set<String>, Double>> matches) {
+        if (node == null) {
+            return;
+        }
+        int distance = levenshtein(node.term, token);
+        Set<String> ids = postings.get(node.term);
+        if (distance <= maxDistance && ids != null) {
+            double score = 1.0 - (double) distance / Math.max(node.term.length(), token.length());
+            matches.add(new AbstractMap.SimpleImmutableEntry<>(ids, score));
+        }
+        // Triangle inequality: only children within [d - k, d + k] can match
+        for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+            collect(node.children.get(d), token, maxDistance, matches);
+        }
+    }
+
+    private void insertTerm(String term) {
+        if (root == null) {
+            root = new Node(term);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = levenshtein(node.term, term);
+            if (distance == 0) {
+                return; // term revived after all its postings were removed
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private static List<String> tokens(Student student) {
+        List<String> tokens = new ArrayList<>(2);
+        for (String t : split(student.getFirstName())) {
+            tokens.add(t);
+        }
+        for (String t : split(student.getLastName())) {
+            if (!tokens.contains(t)) {
+                tokens.add(t);
+            }
+        }
+        return tokens;
+    }
+
+    private static String[] split(String text) {
+        String trimmed = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() ? new String[0] : WHITESPACE.split(trimmed);
+    }
+
+    /** Levenshtein edit distance using two rolling rows */
+    static int levenshtein(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[b.length()];
+    }
+
+    /**
+     * American Soundex code (letter + three digits)
+     */
+    static String soundex(String token) {
+        char[] code = {'0', '0', '0', '0'};
+        int length = 0;
+        char last = 0;
+        for (int i = 0; i < token.length() && length < 4; i++) {
+            char c = Character.toLowerCase(token.charAt(i));
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            char digit = soundexDigit(c);
+            if (length == 0) {
+                code[length++] = Character.toUpperCase(c);
+                last = digit;
+            } else if (digit != '0' && digit != last) {
+                code[length++] = digit;
+                last = digit;
+            } else if (c != 'h' && c != 'w') {
+                last = digit; // vowels separate repeated codes; h and w do not
+            }
+        }
+        return length == 0 ? "" : new String(code);
+    }
+
+    private static char soundexDigit(char c) {
+        switch (c) {
+            case 'b': case 'f': case 'p': case 'v':
+                return '1';
+            case 'c': case 'g': case 'j': case 'k': case 'q': case 's': case 'x': case 'z':
+                return '2';
+            case 'd': case 't':
+                return '3';
+            case 'l':
+                return '4';
+            case 'm': case 'n':
+                return '5';
+            case 'r':
+                return '6';
+            default:
+                return '0';
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes every student's GPA on a fork-join pool.
+ *
+ * The roster is captured under the manager's lock, split into ranges
+ * that are computed in parallel without the lock, and the new totals are
+ * published in one step under the lock again. Readers therefore see the
+ * roster either entirely before or entirely after the job. A student
+ * whose courses changed while the job was running (its revision moved
+ * on) is recomputed during publication instead of getting a stale value.
+ */
+public class GpaRecomputeJob {
+    public static final int DEFAULT_THRESHOLD = 2048;
+
+    /**
+     * Progress callback, invoked from worker threads at most once per
+     * percent of the roster, so implementations must be thread-safe
+     */
+    public interface ProgressListener {
+        void onProgress(int completed, int total, double studentsPerSecond);
+    }
+
+    /**
+     * Outcome of a recomputation run
+     */
+    public static class Result {
+        private final int total;
+        private final int changed;
+        private final int recomputedAtPublish;
+        private final long elapsedNanos;
+
+        Result(int total, int changed, int recomputedAtPublish, long elapsedNanos) {
+            this.total = total;
+            this.changed = changed;
+            this.recomputedAtPublish = recomputedAtPublish;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /** Students whose GPA differs from before the job */
+        public int getChanged() {
+            return changed;
+        }
+
+        /** Students modified during the job and recomputed under the lock */
+        public int getRecomputedAtPublish() {
+            return recomputedAtPublish;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        public double getStudentsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : total * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d GPA(s) recalculated, %d changed, in %d ms (%.0f students/s)",
+                                total, changed, getElapsedMillis(), getStudentsPerSecond());
+        }
+    }
+
+    private final StudentManager manager;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int threshold = DEFAULT_THRESHOLD;
+    private ProgressListener listener;
+    private GradingScale scale; // the manager's scale, captured with the roster
+
+    public GpaRecomputeJob(StudentManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Manager cannot be null");
+        }
+        this.manager = manager;
+    }
+
+    public GpaRecomputeJob withPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+        return this;
+    }
+
+    /** Largest range of students computed by a single task */
+    public GpaRecomputeJob withThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.threshold = threshold;
+        return this;
+    }
+
+    public GpaRecomputeJob onProgress(ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Run the job to completion on the calling thread's behalf. The caller
+     * should not hold the manager's lock, or the computation runs under it.
+     */
+    public Result run() {
+        long start = System.nanoTime();
+        Student[] roster;
+        int[] revisions;
+        synchronized (manager) {
+            roster = manager.loadedStudentValues().toArray(new Student[0]);
+            revisions = new int[roster.length];
+            for (int i = 0; i < roster.length; i++) {
+                revisions[i] = roster[i].getRevision();
+            }
+            scale = manager.getGradingScale();
+        }
+
+        double[] points = new double[roster.length];
+        int[] credits = new int[roster.length];
+        if (roster.length > 0) {
+            pool.invoke(new Partition(roster, points, credits, 0, roster.length, new AtomicInteger(), start));
+        }
+
+        synchronized (manager) {
+            GradingScale current = manager.getGradingScale();
+            boolean scaleChanged = current != scale;
+            Student[] moved = new Student[roster.length];
+            double[] oldGpas = new double[roster.length];
+            int changed = 0;
+            int recomputed = 0;
+            for (int i = 0; i < roster.length; i++) {
+                Student student = roster[i];
+                if (manager.lookup(student.getStudentId()) != student) {
+                    continue; // deleted while the job ran
+                }
+                double oldGpa = student.getGpa();
+                if (scaleChanged || credits[i] < 0 || student.getRevision() != revisions[i]) {
+                    student.setGradingScale(current);
+                    student.calculateGPA();
+                    recomputed++;
+                } else {
+                    student.setGpaTotals(scale, points[i], credits[i]);
+                }
+                if (Double.compare(oldGpa, student.getGpa()) != 0) {
+                    moved[changed] = student;
+                    oldGpas[changed] = oldGpa;
+                    changed++;
+                }
+            }
+            if (changed > roster.length / 4 || manager.hasColdTier()) {
+                // Paged-out students get their new GPAs as they are read back
+                manager.rebuildGpaIndex();
+            } else {
+                for (int i = 0; i < changed; i++) {
+                    manager.gpaChanged(moved[i], oldGpas[i]);
+                }
+            }
+            return new Result(roster.length, changed, recomputed, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Sum grade points on the given scale and credits for one student.
+     * Runs without the manager's lock, so it only reads: grade points come
+     * from the scale rather than the courses' caches, and a concurrent
+     * edit that makes the read fail is reported as -1 credits and fixed
+     * up at publication.
+     */
+    private static int computeTotals(Student student, GradingScale scale, double[] points, int index) {
+        try {
+            List<Course> courses = student.getCourses();
+            double sum = 0.0;
+            int credits = 0;
+            for (Course course : courses) {
+                sum += scale.gradePoint(course.getGrade()) * course.getCredits();
+                credits += course.getCredits();
+            }
+            points[index] = sum;
+            return credits;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private class Partition extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Student[] roster;
+        private final double[] points;
+        private final int[] credits;
+        private final int from;
+        private final int to;
+        private final AtomicInteger completed;
+        private final long start;
+
+        Partition(Student[] roster, double[] points, int[] credits, int from, int to,
+                  AtomicInteger completed, long start) {
+            this.roster = roster;
+            this.points = points;
+            this.credits = credits;
+            this.from = from;
+            this.to = to;
+            this.completed = completed;
+            this.start = start;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Partition(roster, points, credits, from, mid, completed, start),
+                          new Partition(roster, points, credits, mid, to, completed, start));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                credits[i] = computeTotals(roster[i], scale, points, i);
+            }
+            reportProgress(to - from);
+        }
+
+        private void reportProgress(int count) {
+            int done = completed.addAndGet(count);
+            if (listener == null) {
+                return;
+            }
+            long total = roster.length;
+            if (done == total || (done - count) * 100L / total != done * 100L / total) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                listener.onProgress(done, roster.length, seconds > 0 ? done / seconds : 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.studentmanagement.service;
+
+import java.util.BitSet;
+
+/**
+ * Hands out numeric student IDs ("STU" + number) above a high-water mark
+ * that only moves forward, so an ID is never issued twice even after the
+ * student is deleted.
+ *
+ * A bitmap records which numbers the roster already uses. Numbers above the
+ * mark can be taken when a roster was saved with a stale mark or merged
+ * from elsewhere, and the allocator steps over them with one bit scan
+ * instead of building and probing candidate ID strings.
+ *
+ * Callers that create many students, or create them outside the manager's
+ * lock, reserve a Block: a run of free numbers that is theirs alone, so
+ * they never contend with other creators or have to retry an ID.
+ */
+public class IdAllocator {
+    public static final String PREFIX = "STU";
+    public static final int FIRST_ID = 1001;
+
+    /**
+     * Numbers at or above this are not kept in the bitmap, which would
+     * otherwise grow with the largest ID ever seen. Marking one raises the
+     * high-water mark past it instead.
+     */
+    static final int BITMAP_LIMIT = 1 << 26;
+
+    private final BitSet used;
+    private int highWater;
+
+    IdAllocator(int highWater) {
+        this.used = new BitSet();
+        this.highWater = Math.max(FIRST_ID, highWater);
+    }
+
+    /**
+     * Numeric part of a generated ID, or -1 if the ID is not in the
+     * generated "STU" + number form. Parses in place without allocating.
+     */
+    public static int parse(String studentId) {
+        int length = studentId == null ? 0 : studentId.length();
+        if (length <= PREFIX.length() || length > PREFIX.length() + 10 || !studentId.startsWith(PREFIX)) {
+            return -1;
+        }
+        if (studentId.charAt(PREFIX.length()) == '0' && length > PREFIX.length() + 1) {
+            return -1; // "STU" + number never has leading zeros
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < length; i++) {
+            int digit = studentId.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    public static String format(int number) {
+        return PREFIX + number;
+    }
+
+    /** Record that the roster holds this ID */
+    void markUsed(String studentId) {
+        int number = parse(studentId);
+        if (number < 0) {
+            return;
+        }
+        if (number < BITMAP_LIMIT) {
+            used.set(number);
+        } else {
+            advancePast(number);
+        }
+    }
+
+    /**
+     * Record that the roster no longer holds this ID. Numbers below the
+     * mark stay retired.
+     */
+    void release(String studentId) {
+        int number = parse(studentId);
+        if (number >= 0 && number < BITMAP_LIMIT) {
+            used.clear(number);
+        }
+    }
+
+    /** Whether the roster holds the generated ID with this number */
+    boolean isUsed(int number) {
+        return number >= 0 && number < BITMAP_LIMIT && used.get(number);
+    }
+
+    /** Never issue this number or any below it */
+    void advancePast(int number) {
+        if (number >= highWater) {
+            highWater = checkedEnd(number, 1);
+        }
+    }
+
+    /** Issue the next free number */
+    int next() {
+        int number = highWater < BITMAP_LIMIT ? used.nextClearBit(highWater) : highWater;
+        highWater = checkedEnd(number, 1);
+        return number;
+    }
+
+    /**
+     * Reserve count consecutive free numbers. The mark moves past them at
+     * once; any the holder does not use are skipped, not reissued.
+     */
+    Block reserve(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        int start = highWater;
+        if (start < BITMAP_LIMIT) {
+            start = used.nextClearBit(start);
+            int end;
+            while (start < BITMAP_LIMIT && (end = used.nextSetBit(start)) >= 0 && end - start < count) {
+                start = used.nextClearBit(end);
+            }
+        }
+        highWater = checkedEnd(start, count);
+        return new Block(start, count);
+    }
+
+    private static int checkedEnd(int start, int count) {
+        if (start > Integer.MAX_VALUE - count) {
+            throw new IllegalStateException("Student IDs exhausted");
+        }
+        return start + count;
+    }
+
+    /** Next number that has not been issued (persisted with the roster) */
+    int getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * A run of reserved IDs, handed out in order. Not thread-safe: each
+     * thread or importer holds its own.
+     */
+    public static final class Block {
+        private final int end;
+        private int next;
+
+        Block(int start, int count) {
+            this.next = start;
+            this.end = start + count;
+        }
+
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        public String next() {
+            if (next >= end) {
+                throw new IllegalStateException("ID block exhausted");
+            }
+            return format(next++);
+        }
+
+        public int remaining() {
+            return end - next;
+        }
+
+        @Override
+        public String toString() {
+            return remaining() == 0 ? "empty ID block" : format(next) + ".." + format(end - 1);
+        }
+    }
+}
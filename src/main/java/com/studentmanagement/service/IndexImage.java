@@ -0,0 +1,231 @@
+package com.studentmanagement.service;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Encoding helpers for the warm index image. Student IDs are written as
+ * their position in the snapshot's student order, so loading resolves
+ * them to the roster's own String instances without any hashing.
+ * Reading works on a ByteBuffer; malformed input surfaces as a
+ * RuntimeException and the caller falls back to rebuilding.
+ */
+final class IndexImage {
+    private IndexImage() {}
+
+    /** Reads and writes the keys of a SortedIndex */
+    interface KeyCodec<K> {
+        void write(DataOutput out, K key) throws IOException;
+
+        K read(ByteBuffer in);
+    }
+
+    static final KeyCodec<Integer> INTEGER_KEYS = new KeyCodec<Integer>() {
+        public void write(DataOutput out, Integer key) throws IOException {
+            out.writeInt(key);
+        }
+
+        public Integer read(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    static final KeyCodec<Double> DOUBLE_KEYS = new KeyCodec<Double>() {
+        public void write(DataOutput out, Double key) throws IOException {
+            out.writeDouble(key);
+        }
+
+        public Double read(ByteBuffer in) {
+            return in.getDouble();
+        }
+    };
+
+    static final KeyCodec<String> STRING_KEYS = new KeyCodec<String>() {
+        public void write(DataOutput out, String key) throws IOException {
+            writeString(out, key);
+        }
+
+        public String read(ByteBuffer in) {
+            return readString(in);
+        }
+    };
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (!in.hasArray()) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /** Write a set of student IDs as a count followed by ordinals */
+    static void writeIds(DataOutput out, Collection<String> ids, Map<String, Integer> ordinals) throws IOException {
+        out.writeInt(ids.size());
+        for (String id : ids) {
+            out.writeInt(ordinals.get(id));
+        }
+    }
+
+    /**
+     * Present IDs that are already in natural order as a SortedSet, so
+     * TreeSet.addAll takes its linear bulk-build path
+     */
+    static SortedSet<String> sortedView(String[] ids) {
+        return new SortedRun(ids);
+    }
+
+    /**
+     * Present keys already in natural order, with their values, as a
+     * SortedMap, so TreeMap.putAll takes its linear bulk-build path
+     */
+    static <K, V> SortedMap<K, V> sortedView(List<K> keys, List<V> values) {
+        return new SortedEntries<>(keys, values);
+    }
+
+    /** Only what TreeSet's bulk build uses is supported */
+    private static final class SortedRun extends AbstractSet<String> implements SortedSet<String> {
+        private final String[] ids;
+
+        SortedRun(String[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return Arrays.asList(ids).iterator();
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public Comparator<? super String> comparator() {
+            return null;
+        }
+
+        @Override
+        public String first() {
+            return ids[0];
+        }
+
+        @Override
+        public String last() {
+            return ids[ids.length - 1];
+        }
+
+        @Override
+        public SortedSet<String> subSet(String from, String to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<String> headSet(String to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<String> tailSet(String from) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Only what TreeMap's bulk build uses is supported */
+    private static final class SortedEntries<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+        private final List<K> keys;
+        private final List<V> values;
+
+        SortedEntries(List<K> keys, List<V> values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new Iterator<Map.Entry<K, V>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.size();
+                        }
+
+                        @Override
+                        public Map.Entry<K, V> next() {
+                            Map.Entry<K, V> entry = new SimpleImmutableEntry<>(keys.get(next), values.get(next));
+                            next++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.size();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return null;
+        }
+
+        @Override
+        public K firstKey() {
+            return keys.get(0);
+        }
+
+        @Override
+        public K lastKey() {
+            return keys.get(keys.size() - 1);
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K from, K to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedMap<K, V> headMap(K to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedMap<K, V> tailMap(K from) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
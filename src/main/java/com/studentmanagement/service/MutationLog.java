@@ -0,0 +1,88 @@
+package com.studentmanagement.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded in-memory log of the most recent ChangeEvents of one
+ * StudentManager. Events are appended under the manager's lock; readers
+ * such as replication senders use the log's own lock and never block the
+ * manager for long. Once the ring is full the oldest events are dropped,
+ * and readers that fall behind must restart from a snapshot.
+ */
+public class MutationLog {
+    private final ChangeEvent[] ring;
+    private final long epoch = ThreadLocalRandom.current().nextLong(); // identifies this log across restarts
+    private final long startSequence;
+    private long lastSequence;
+
+    public MutationLog(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Log whose first event will have sequence startAfter + 1, for a
+     * manager that already numbered events before the log was enabled
+     */
+    public MutationLog(int capacity, long startAfter) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Log capacity must be positive");
+        }
+        this.ring = new ChangeEvent[capacity];
+        this.startSequence = startAfter;
+        this.lastSequence = startAfter;
+    }
+
+    /** Random identity of this log; sequences are only comparable within one epoch */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    synchronized void append(ChangeEvent event) {
+        lastSequence = event.getSequence();
+        ring[(int) (lastSequence % ring.length)] = event;
+        notifyAll();
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /** Oldest sequence still retained (lastSequence + 1 when empty) */
+    public synchronized long getFirstSequence() {
+        return Math.max(startSequence + 1, lastSequence - ring.length + 1);
+    }
+
+    /**
+     * Whether every event after the given sequence is still retained
+     */
+    public synchronized boolean covers(long afterSequence) {
+        return afterSequence >= getFirstSequence() - 1 && afterSequence <= lastSequence;
+    }
+
+    /**
+     * Up to max events after the given sequence, waiting up to timeoutMillis
+     * for the first one. Returns an empty list on timeout.
+     */
+    public synchronized List<ChangeEvent> readAfter(long afterSequence, int max, long timeoutMillis)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (lastSequence <= afterSequence) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return new ArrayList<>();
+            }
+            wait(remaining);
+        }
+        if (!covers(afterSequence)) {
+            throw new IllegalStateException("Events after #" + afterSequence + " are no longer retained");
+        }
+        int count = (int) Math.min(max, lastSequence - afterSequence);
+        List<ChangeEvent> events = new ArrayList<>(count);
+        for (long seq = afterSequence + 1; seq <= afterSequence + count; seq++) {
+            events.add(ring[(int) (seq % ring.length)]);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,138 @@
+package com.studentmanagement.service;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Case-insensitive prefix index for autocompletion and prefix queries.
+ * Keys are stored lower-cased in a SortedIndex, so "first N completions
+ * for a prefix" is one O(log n) seek plus N steps, and a prefix is also
+ * a key range the query planner can scan.
+ */
+public class PrefixIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final byte DISPLAY_IS_KEY = 0;
+    private static final byte DISPLAY_IS_ID = 1;
+    private static final byte DISPLAY_WRITTEN = 2;
+
+    private final SortedIndex<String> keys;
+    private final Map<String, String> display; // normalized -> first-seen spelling
+
+    public PrefixIndex() {
+        this(new SortedIndex<>(), new HashMap<>());
+    }
+
+    private PrefixIndex(SortedIndex<String> keys, Map<String, String> display) {
+        this.keys = keys;
+        this.display = display;
+    }
+
+    public void add(String value, String studentId) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String key = normalize(value);
+        keys.add(key, studentId);
+        display.putIfAbsent(key, value);
+    }
+
+    public void remove(String value, String studentId) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String key = normalize(value);
+        keys.remove(key, studentId);
+        if (keys.estimate(key, key, 0) == 0) {
+            display.remove(key);
+        }
+    }
+
+    /**
+     * First completions for a prefix, in case-insensitive sorted order
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> completions = new ArrayList<>(Math.min(limit, 16));
+        if (prefix == null || limit <= 0) {
+            return completions;
+        }
+        String key = normalize(prefix);
+        for (Map.Entry<String, TreeSet<String>> entry : keys.tail(key).entrySet()) {
+            if (!entry.getKey().startsWith(key) || completions.size() >= limit) {
+                break;
+            }
+            completions.add(display.get(entry.getKey()));
+        }
+        return completions;
+    }
+
+    /**
+     * Write keys and display spellings for the warm index image. Each
+     * spelling is tagged as equal to its key, equal to the first student
+     * ID under the key, or written out, so loading can share the String
+     * instances the way add() does.
+     */
+    void writeImage(DataOutput out, Map<String, Integer> ordinals) throws IOException {
+        keys.writeImage(out, IndexImage.STRING_KEYS, ordinals);
+        for (Map.Entry<String, TreeSet<String>> entry : keys.tail("").entrySet()) {
+            String spelling = display.get(entry.getKey());
+            if (spelling.equals(entry.getKey())) {
+                out.writeByte(DISPLAY_IS_KEY);
+            } else if (spelling.equals(entry.getValue().first())) {
+                out.writeByte(DISPLAY_IS_ID);
+            } else {
+                out.writeByte(DISPLAY_WRITTEN);
+                IndexImage.writeString(out, spelling);
+            }
+        }
+    }
+
+    static PrefixIndex readImage(ByteBuffer in, String[] ids) {
+        SortedIndex<String> keys = SortedIndex.readImage(in, IndexImage.STRING_KEYS, ids);
+        Map<String, String> display = new HashMap<>(keys.keyCount() * 4 / 3 + 1);
+        for (Map.Entry<String, TreeSet<String>> entry : keys.tail("").entrySet()) {
+            byte tag = in.get();
+            switch (tag) {
+                case DISPLAY_IS_KEY:
+                    display.put(entry.getKey(), entry.getKey());
+                    break;
+                case DISPLAY_IS_ID:
+                    display.put(entry.getKey(), entry.getValue().first());
+                    break;
+                case DISPLAY_WRITTEN:
+                    display.put(entry.getKey(), IndexImage.readString(in));
+                    break;
+                default:
+                    throw new IllegalStateException("Bad display tag " + tag + " in index image");
+            }
+        }
+        return new PrefixIndex(keys, display);
+    }
+
+    /** Underlying index of normalized keys, for range scans */
+    public SortedIndex<String> keys() {
+        return keys;
+    }
+
+    /** Lowest normalized key a value with this prefix can have */
+    public static String rangeStart(String prefix) {
+        return normalize(prefix);
+    }
+
+    /** Highest normalized key a value with this prefix can have */
+    public static String rangeEnd(String prefix) {
+        return normalize(prefix) + Character.MAX_VALUE;
+    }
+
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
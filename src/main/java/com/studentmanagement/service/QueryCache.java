@@ -0,0 +1,202 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Bounded LRU cache of query results, keyed by normalized query text.
+ *
+ * Entries come in two kinds. Aggregate results (statistics, rankings)
+ * are tagged with the manager's data version and go stale on any
+ * change. Student-list results (searches) remember which students they
+ * contain and how to test a student for membership, so a mutation only
+ * drops the searches whose result it could change.
+ *
+ * Not thread-safe; StudentManager only uses it under its own lock.
+ */
+public class QueryCache {
+    public static final int DEFAULT_CAPACITY = 256;
+    /** Larger results are not cached; re-running the scan is cheaper than holding them */
+    public static final int MAX_CACHED_RESULTS = 10_000;
+
+    private static final long ANY_VERSION = -1;
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+        private final int capacity;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int size, int capacity) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /** Entries dropped to stay within capacity */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /** Entries dropped because a mutation made them stale */
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hit(s), %d miss(es) (%.0f%% hit rate), %d eviction(s), %d invalidation(s), %d/%d entries",
+                                hits, misses, getHitRate() * 100, evictions, invalidations, size, capacity);
+        }
+    }
+
+    private static class CacheEntry {
+        final Object value;
+        final long version;              // ANY_VERSION for student-list entries
+        final Set<String> studentIds;    // null for aggregate entries
+        final Predicate<Student> matcher;
+
+        CacheEntry(Object value, long version, Set<String> studentIds, Predicate<Student> matcher) {
+            this.value = value;
+            this.version = version;
+            this.studentIds = studentIds;
+            this.matcher = matcher;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * A capacity of 0 disables caching; lookups are still counted as misses
+     */
+    public QueryCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > QueryCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached value for a key, or null on a miss. Aggregate entries only
+     * hit if they were stored at the given data version.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, long version) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.version != ANY_VERSION && entry.version != version) {
+            entries.remove(key);
+            invalidations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return (T) entry.value;
+    }
+
+    /**
+     * Cache an aggregate result that depends on the whole roster
+     */
+    public void putAggregate(String key, long version, Object value) {
+        if (capacity > 0) {
+            entries.put(key, new CacheEntry(value, version, null, null));
+        }
+    }
+
+    /**
+     * Cache a list of students. The entry stays valid until a student it
+     * contains changes, or a changed student starts matching.
+     */
+    public void putStudents(String key, List<Student> result, Predicate<Student> matcher) {
+        if (capacity == 0 || result.size() > MAX_CACHED_RESULTS) {
+            return;
+        }
+        Set<String> ids = new HashSet<>(result.size() * 2);
+        for (Student student : result) {
+            ids.add(student.getStudentId());
+        }
+        entries.put(key, new CacheEntry(result, ANY_VERSION, ids, matcher));
+    }
+
+    /**
+     * Drop student-list entries affected by a change to one student.
+     * Pass null as the student when it was deleted.
+     */
+    public void studentChanged(String studentId, Student current) {
+        Iterator<CacheEntry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            CacheEntry entry = it.next();
+            if (entry.studentIds != null
+                    && (entry.studentIds.contains(studentId) || (current != null && entry.matcher.test(current)))) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Drop everything, e.g. after a bulk load
+     */
+    public void clear() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), capacity);
+    }
+}
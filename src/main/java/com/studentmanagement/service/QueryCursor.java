@@ -0,0 +1,51 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+import java.util.Iterator;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Lazy result of a StudentQuery. Students are produced on demand from the
+ * planned index scan; nothing is materialized unless the query needs an
+ * explicit sort. The cursor is weakly consistent: it never fails because
+ * of concurrent changes, but may or may not see them.
+ */
+public class QueryCursor implements Iterator<Student>, AutoCloseable {
+    private final Stream<Student> stream;
+    private final Iterator<Student> results;
+    private final String plan;
+    private final LongSupplier rowsExamined;
+
+    QueryCursor(Stream<Student> stream, String plan, LongSupplier rowsExamined) {
+        this.stream = stream;
+        this.results = stream.iterator();
+        this.plan = plan;
+        this.rowsExamined = rowsExamined;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return results.hasNext();
+    }
+
+    @Override
+    public Student next() {
+        return results.next();
+    }
+
+    /** Access path chosen by the planner */
+    public String getPlan() {
+        return plan;
+    }
+
+    /** Index entries read so far */
+    public long getRowsExamined() {
+        return rowsExamined.getAsLong();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
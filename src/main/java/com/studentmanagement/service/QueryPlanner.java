@@ -0,0 +1,231 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Chooses an access path for a StudentQuery and builds its cursor.
+ *
+ * Every indexable predicate becomes a candidate range scan; the one with
+ * the fewest index entries wins (estimates stop counting once they exceed
+ * the best so far). A scan over the sort field's index is preferred when it
+ * is within ORDERED_SCAN_FACTOR of the best, since it needs no sort step and
+ * can stop at the limit. All other predicates are evaluated lazily, chunk
+ * by chunk under the manager lock, since they walk each student's courses.
+ */
+final class QueryPlanner {
+    private QueryPlanner() {}
+
+    private static final int CHUNK_SIZE = 256;
+    private static final int ORDERED_SCAN_FACTOR = 4;
+
+    /** A range over one index, scanned in chunks under the manager lock */
+    private static final class AccessPath<K extends Comparable<K>> {
+        final String name;
+        final SortedIndex<K> index;
+        final K low;
+        final K high;
+        final StudentQuery.SortField order;
+        int estimate;
+
+        AccessPath(String name, SortedIndex<K> index, K low, K high, StudentQuery.SortField order) {
+            this.name = name;
+            this.index = index;
+            this.low = low;
+            this.high = high;
+            this.order = order;
+        }
+
+        void estimate(int cap) {
+            this.estimate = index.estimate(low, high, cap);
+        }
+
+        String describe() {
+            if (low == null && high == null) {
+                return "full scan via " + name + " index (" + estimate + " rows)";
+            }
+            return "index range scan on " + name + " (~" + estimate + " rows)";
+        }
+
+        Iterator<Student> scan(Object lock, Map<String, Student> students, Predicate<Student> filter,
+                               boolean descending, AtomicLong examined) {
+            return new Iterator<Student>() {
+                private final List<Map.Entry<K, String>> entries = new ArrayList<>(CHUNK_SIZE);
+                private final List<Student> chunk = new ArrayList<>(CHUNK_SIZE);
+                private int position;
+                private K afterKey;
+                private String afterId;
+                private boolean exhausted;
+
+                @Override
+                public boolean hasNext() {
+                    while (position >= chunk.size() && !exhausted) {
+                        fill();
+                    }
+                    return position < chunk.size();
+                }
+
+                @Override
+                public Student next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return chunk.get(position++);
+                }
+
+                private void fill() {
+                    entries.clear();
+                    chunk.clear();
+                    position = 0;
+                    synchronized (lock) {
+                        index.scan(low, high, descending, afterKey, afterId, CHUNK_SIZE, entries);
+                        for (Map.Entry<K, String> entry : entries) {
+                            Student student = students.get(entry.getValue());
+                            if (student != null && filter.test(student)) {
+                                chunk.add(student);
+                            }
+                        }
+                    }
+                    examined.addAndGet(entries.size());
+                    if (entries.size() < CHUNK_SIZE) {
+                        exhausted = true;
+                    }
+                    if (!entries.isEmpty()) {
+                        Map.Entry<K, String> last = entries.get(entries.size() - 1);
+                        afterKey = last.getKey();
+                        afterId = last.getValue();
+                    }
+                }
+            };
+        }
+    }
+
+    static QueryCursor open(Object lock, Map<String, Student> students, StudentIndexes indexes, StudentQuery query) {
+        List<AccessPath<?>> paths = candidatePaths(indexes, query);
+        AccessPath<?> best = new AccessPath<>("studentId", indexes.studentIds.keys(), null, null,
+                                              StudentQuery.SortField.STUDENT_ID);
+        best.estimate = students.size();
+        for (AccessPath<?> path : paths) {
+            path.estimate(best.estimate);
+            if (path.estimate < best.estimate) {
+                best = path;
+            }
+        }
+
+        boolean needsSort = query.sortField != null && best.order != query.sortField;
+        if (needsSort) {
+            AccessPath<?> ordered = orderedPath(indexes, paths, query.sortField);
+            ordered.estimate(best.estimate * ORDERED_SCAN_FACTOR);
+            if (ordered.estimate <= (long) best.estimate * ORDERED_SCAN_FACTOR) {
+                best = ordered;
+                needsSort = false;
+            }
+        }
+
+        AtomicLong examined = new AtomicLong();
+        boolean descending = query.sortField != null && !needsSort && query.descending;
+        Iterator<Student> source = best.scan(lock, students, query::matches, descending, examined);
+        Stream<Student> matches = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED | Spliterator.NONNULL), false);
+
+        String plan = best.describe() + "; filter: " + query.describe();
+        Stream<Student> results;
+        if (needsSort) {
+            plan += "; sort by " + query.sortField + (query.descending ? " desc" : "") + " (top " + limitText(query) + ")";
+            Comparator<Student> order = query.comparator();
+            // Supplier-based stream: the top-K pass only runs when the cursor is first read
+            results = StreamSupport.stream(() -> topK(matches, order, query.limit).spliterator(),
+                                           Spliterator.ORDERED | Spliterator.SIZED, false)
+                .onClose(matches::close);
+        } else {
+            if (query.sortField != null) {
+                plan += "; order from index";
+            }
+            results = query.limit == Integer.MAX_VALUE ? matches : matches.limit(query.limit);
+        }
+        return new QueryCursor(results, plan, examined::get);
+    }
+
+    private static List<AccessPath<?>> candidatePaths(StudentIndexes indexes, StudentQuery query) {
+        List<AccessPath<?>> paths = new ArrayList<>();
+        if (query.courseCode != null) {
+            paths.add(new AccessPath<>("course", indexes.courses, query.courseCode, query.courseCode, null));
+        }
+        if (query.minGpa != null || query.maxGpa != null) {
+            paths.add(new AccessPath<>("gpa", indexes.gpas, query.minGpa, query.maxGpa, StudentQuery.SortField.GPA));
+        }
+        if (query.minAge != null || query.maxAge != null) {
+            paths.add(new AccessPath<>("age", indexes.ages, query.minAge, query.maxAge, StudentQuery.SortField.AGE));
+        }
+        if (query.idPrefix != null) {
+            paths.add(new AccessPath<>("studentId", indexes.studentIds.keys(),
+                    PrefixIndex.rangeStart(query.idPrefix), PrefixIndex.rangeEnd(query.idPrefix),
+                    StudentQuery.SortField.STUDENT_ID));
+        }
+        if (query.lastNamePrefix != null) {
+            paths.add(new AccessPath<>("lastName", indexes.lastNames.keys(),
+                    PrefixIndex.rangeStart(query.lastNamePrefix), PrefixIndex.rangeEnd(query.lastNamePrefix),
+                    StudentQuery.SortField.LAST_NAME));
+        }
+        if (query.emailPrefix != null) {
+            paths.add(new AccessPath<>("email", indexes.emails.keys(),
+                    PrefixIndex.rangeStart(query.emailPrefix), PrefixIndex.rangeEnd(query.emailPrefix), null));
+        }
+        return paths;
+    }
+
+    /** Scan over the sort field's index, narrowed by a predicate on that field if any */
+    private static AccessPath<?> orderedPath(StudentIndexes indexes, List<AccessPath<?>> paths,
+                                             StudentQuery.SortField field) {
+        for (AccessPath<?> path : paths) {
+            if (path.order == field) {
+                return path;
+            }
+        }
+        switch (field) {
+            case LAST_NAME:
+                return new AccessPath<>("lastName", indexes.lastNames.keys(), null, null, field);
+            case AGE:
+                return new AccessPath<>("age", indexes.ages, null, null, field);
+            case GPA:
+                return new AccessPath<>("gpa", indexes.gpas, null, null, field);
+            default:
+                return new AccessPath<>("studentId", indexes.studentIds.keys(), null, null, field);
+        }
+    }
+
+    /** Keep the first `limit` students in order using a bounded heap */
+    private static List<Student> topK(Stream<Student> matches, Comparator<Student> order, int limit) {
+        List<Student> sorted = new ArrayList<>();
+        if (limit == Integer.MAX_VALUE) {
+            matches.forEach(sorted::add);
+        } else {
+            PriorityQueue<Student> heap = new PriorityQueue<>(order.reversed());
+            matches.forEach(student -> {
+                heap.add(student);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            });
+            sorted.addAll(heap);
+        }
+        sorted.sort(order);
+        return sorted;
+    }
+
+    private static String limitText(StudentQuery query) {
+        return query.limit == Integer.MAX_VALUE ? "all" : String.valueOf(query.limit);
+    }
+}
@@ -0,0 +1,447 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Writes transcripts, course grade sheets and a dean's list to text files.
+ *
+ * The students in a report are copied under the manager's lock, so each
+ * report is a consistent point-in-time view. Rows are then rendered in
+ * fixed-size chunks on a fork-join pool into reused per-thread builders
+ * and pooled byte buffers, and a single writer drains the chunks in
+ * order, keeping only a small window of chunks in memory. Output goes to
+ * a temp file that is renamed into place when complete.
+ */
+public class ReportEngine {
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+    private static final String REPORTS_DIR = "data/reports";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final DateTimeFormatter GENERATED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Fixed parts of the layouts, built once
+    private static final String RULE = "=".repeat(72) + "\n";
+    private static final String THIN_RULE = "-".repeat(72) + "\n";
+    private static final String TRANSCRIPT_COLUMNS =
+        "  Code        Course                          Credits   Grade  Letter  Points\n";
+    private static final String GRADE_SHEET_COLUMNS =
+        "  Student ID    Name                            Grade  Letter  Points\n";
+    private static final String DEANS_LIST_COLUMNS =
+        "  Rank  Student ID    Name                            Credits    GPA\n";
+
+    private static final ThreadLocal<StringBuilder> BUILDERS = ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+    private static final ThreadLocal<CharsetEncoder> ENCODERS = ThreadLocal.withInitial(() ->
+        StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+    /**
+     * Outcome of writing one report
+     */
+    public static class Result {
+        private final String report;
+        private final Path file;
+        private final int rows;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        Result(String report, Path file, int rows, long bytes, long elapsedNanos) {
+            this.report = report;
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /** Number of students in the report */
+        public int getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d student(s), %d KB written to %s in %d ms",
+                                report, rows, (bytes + 1023) / 1024, file, getElapsedMillis());
+        }
+    }
+
+    /** Renders one student's rows; index is the student's position in the report */
+    private interface RowRenderer {
+        void render(Student student, int index, StringBuilder out);
+    }
+
+    private final StudentManager manager;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<>();
+
+    public ReportEngine(StudentManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Manager cannot be null");
+        }
+        this.manager = manager;
+    }
+
+    public ReportEngine withPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+        return this;
+    }
+
+    /** Number of students rendered by a single task */
+    public ReportEngine withChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Timestamped file for a report under data/reports, e.g. transcripts-20240101-120000.txt
+     */
+    public static Path defaultFile(String name) {
+        return Paths.get(REPORTS_DIR, name + "-" + LocalDateTime.now().format(STAMP) + ".txt");
+    }
+
+    /**
+     * Transcripts for every student, ordered by student ID
+     */
+    public Result writeTranscripts(Path file) throws IOException {
+        return writeTranscripts(file, capture(StudentQuery.create().sortBy(StudentQuery.SortField.STUDENT_ID, false)));
+    }
+
+    /**
+     * Transcript for a single student
+     */
+    public Result writeTranscript(String studentId, Path file) throws IOException {
+        List<Student> one = new ArrayList<>(1);
+        GradingScale scale;
+        synchronized (manager) {
+            one.add(manager.getStudent(studentId).copy());
+            scale = manager.getGradingScale();
+        }
+        return writeTranscripts(file, new Capture(one, scale));
+    }
+
+    private Result writeTranscripts(Path file, Capture capture) throws IOException {
+        GradingScale scale = capture.scale;
+        StringBuilder header = new StringBuilder(256);
+        header.append("STUDENT TRANSCRIPTS\nGenerated ").append(LocalDateTime.now().format(GENERATED))
+              .append(" | Grading scale: ").append(scale.getDescription()).append('\n');
+        return write("Transcripts", file, capture.students, header.toString(), (student, index, out) -> {
+            out.append('\n').append(RULE);
+            pad(out.append("  Student ID: "), student.getStudentId(), 24);
+            out.append("Name: ").append(student.getFirstName()).append(' ').append(student.getLastName()).append('\n');
+            pad(out.append("  Age: "), Integer.toString(student.getAge()), 31);
+            out.append("Email: ").append(student.getEmail()).append('\n');
+            out.append(THIN_RULE);
+            List<Course> courses = student.getCourses();
+            if (courses.isEmpty()) {
+                out.append("  No courses enrolled\n");
+            } else {
+                out.append(TRANSCRIPT_COLUMNS);
+                for (Course course : courses) {
+                    pad(out.append("  "), course.getCourseCode(), 12);
+                    pad(out, course.getCourseName(), 32);
+                    padLeft(out, course.getCredits(), 7);
+                    fixed(out.append("   "), course.getGrade(), 1, 5);
+                    pad(out.append("  "), scale.letter(course.getGrade()), 6);
+                    fixed(out.append("  "), scale.gradePoint(course.getGrade()), 2, 6);
+                    out.append('\n');
+                }
+            }
+            out.append(THIN_RULE).append("  Total credits: ").append(student.getTotalCredits());
+            fixed(out.append("   GPA: "), student.getGpa(), 2, 0);
+            out.append('\n');
+        }, null);
+    }
+
+    /**
+     * Grade sheet for one course: every enrolled student's grade, ordered
+     * by last name, with the class average at the end
+     */
+    public Result writeGradeSheet(String courseCode, Path file) throws IOException {
+        if (courseCode == null || courseCode.trim().isEmpty()) {
+            throw new IllegalArgumentException("Course code cannot be empty");
+        }
+        String code = courseCode.trim().toUpperCase();
+        Capture capture = capture(StudentQuery.create().enrolledIn(code));
+        capture.students.sort(Comparator.comparing(Student::getLastName, String.CASE_INSENSITIVE_ORDER)
+                                        .thenComparing(Student::getFirstName, String.CASE_INSENSITIVE_ORDER)
+                                        .thenComparing(Student::getStudentId));
+        GradingScale scale = capture.scale;
+        String courseName = capture.students.isEmpty() ? "" : capture.students.get(0).findCourse(code).getCourseName();
+        double total = 0.0;
+        for (Student student : capture.students) {
+            total += student.findCourse(code).getGrade();
+        }
+
+        StringBuilder header = new StringBuilder(256);
+        header.append("GRADE SHEET: ").append(code);
+        if (!courseName.isEmpty()) {
+            header.append(" - ").append(courseName);
+        }
+        header.append("\nGenerated ").append(LocalDateTime.now().format(GENERATED))
+              .append(" | Grading scale: ").append(scale.getDescription()).append('\n')
+              .append(RULE).append(GRADE_SHEET_COLUMNS).append(THIN_RULE);
+        StringBuilder footer = new StringBuilder(128);
+        footer.append(THIN_RULE).append("  Students: ").append(capture.students.size());
+        if (!capture.students.isEmpty()) {
+            fixed(footer.append("   Average grade: "), total / capture.students.size(), 1, 0);
+        }
+        footer.append('\n');
+
+        return write("Grade sheet " + code, file, capture.students, header.toString(), (student, index, out) -> {
+            double grade = student.findCourse(code).getGrade();
+            pad(out.append("  "), student.getStudentId(), 14);
+            pad(out, student.getLastName() + ", " + student.getFirstName(), 30);
+            fixed(out, grade, 1, 7);
+            pad(out.append("  "), scale.letter(grade), 6);
+            fixed(out.append("  "), scale.gradePoint(grade), 2, 6);
+            out.append('\n');
+        }, footer.toString());
+    }
+
+    /**
+     * Students with at least the given GPA, best first (the same selection
+     * as StudentManager.getStudentsByMinGPA)
+     */
+    public Result writeDeansList(double minGpa, Path file) throws IOException {
+        Capture capture = capture(StudentQuery.create().gpaAtLeast(minGpa).sortBy(StudentQuery.SortField.GPA, true));
+        StringBuilder header = new StringBuilder(256);
+        fixed(header.append("DEAN'S LIST (GPA >= "), minGpa, 2, 0);
+        header.append(")\nGenerated ").append(LocalDateTime.now().format(GENERATED))
+              .append(" | Grading scale: ").append(capture.scale.getDescription()).append('\n')
+              .append(RULE).append(DEANS_LIST_COLUMNS).append(THIN_RULE);
+        String footer = THIN_RULE + "  Students listed: " + capture.students.size() + "\n";
+
+        return write("Dean's list", file, capture.students, header.toString(), (student, index, out) -> {
+            padLeft(out, index + 1, 6);
+            pad(out.append("  "), student.getStudentId(), 14);
+            pad(out, student.getLastName() + ", " + student.getFirstName(), 30);
+            padLeft(out, student.getTotalCredits(), 9);
+            fixed(out, student.getGpa(), 2, 7);
+            out.append('\n');
+        }, footer);
+    }
+
+    /** Students copied under the lock, plus the scale they were graded on */
+    private static class Capture {
+        final List<Student> students;
+        final GradingScale scale;
+
+        Capture(List<Student> students, GradingScale scale) {
+            this.students = students;
+            this.scale = scale;
+        }
+    }
+
+    private Capture capture(StudentQuery query) {
+        List<Student> students = new ArrayList<>();
+        synchronized (manager) {
+            try (QueryCursor cursor = manager.query(query)) {
+                while (cursor.hasNext()) {
+                    students.add(cursor.next().copy());
+                }
+            }
+            return new Capture(students, manager.getGradingScale());
+        }
+    }
+
+    /**
+     * Render rows in parallel chunks and write them in order to a temp
+     * file, which then replaces the target
+     */
+    private Result write(String report, Path file, List<Student> students, String header,
+                         RowRenderer renderer, String footer) throws IOException {
+        long start = System.nanoTime();
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int chunks = (students.size() + chunkSize - 1) / chunkSize;
+        int window = Math.max(2, pool.getParallelism() * 2);
+        long bytes = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            bytes += writeText(channel, header);
+            ArrayDeque<Future<ByteBuffer>> inFlight = new ArrayDeque<>(window);
+            int next = 0;
+            while (next < chunks || !inFlight.isEmpty()) {
+                while (next < chunks && inFlight.size() < window) {
+                    int from = next * chunkSize;
+                    int to = Math.min(students.size(), from + chunkSize);
+                    inFlight.add(pool.submit(() -> renderChunk(students, from, to, renderer)));
+                    next++;
+                }
+                ByteBuffer chunk = await(inFlight.poll(), inFlight);
+                bytes += writeFully(channel, chunk);
+                chunk.clear();
+                freeBuffers.offer(chunk);
+            }
+            if (footer != null) {
+                bytes += writeText(channel, footer);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new Result(report, file, students.size(), bytes, System.nanoTime() - start);
+    }
+
+    private ByteBuffer await(Future<ByteBuffer> chunk, ArrayDeque<Future<ByteBuffer>> others) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            others.forEach(f -> f.cancel(true));
+            throw new IOException("Report interrupted");
+        } catch (ExecutionException e) {
+            others.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Report rendering failed: " + cause, cause);
+        }
+    }
+
+    /** Render students [from, to) with this thread's builder into a pooled buffer */
+    private ByteBuffer renderChunk(List<Student> students, int from, int to, RowRenderer renderer) {
+        StringBuilder out = BUILDERS.get();
+        out.setLength(0);
+        for (int i = from; i < to; i++) {
+            renderer.render(students.get(i), i, out);
+        }
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, out.length() + out.length() / 8));
+        }
+        buffer = encode(out, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer encode(CharSequence text, ByteBuffer buffer) {
+        CharsetEncoder encoder = ENCODERS.get();
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            buffer = grow(buffer, chars.remaining() * 3);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            buffer = grow(buffer, 16);
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed + 16));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private static long writeText(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = encode(text, ByteBuffer.allocate(text.length() + 64));
+        buffer.flip();
+        return writeFully(channel, buffer);
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return written;
+    }
+
+    // Formatting helpers that append in place instead of going through String.format
+
+    /** Append text padded with spaces (or cut) to exactly width characters */
+    private static void pad(StringBuilder out, String text, int width) {
+        if (text.length() >= width) {
+            out.append(text, 0, width - 1).append(' ');
+            return;
+        }
+        out.append(text);
+        for (int i = text.length(); i < width; i++) {
+            out.append(' ');
+        }
+    }
+
+    /** Append a right-aligned integer in a field of the given width */
+    private static void padLeft(StringBuilder out, int value, int width) {
+        int start = out.length();
+        out.append(value);
+        int length = out.length() - start;
+        for (int i = length; i < width; i++) {
+            out.insert(start, ' ');
+        }
+    }
+
+    /**
+     * Append a non-negative number with a fixed number of decimals,
+     * right-aligned in a field of the given width (0 for no padding)
+     */
+    private static void fixed(StringBuilder out, double value, int decimals, int width) {
+        long scale = decimals == 1 ? 10 : 100;
+        long scaled = Math.round(value * scale);
+        int start = out.length();
+        out.append(scaled / scale).append('.');
+        long fraction = scaled % scale;
+        if (decimals == 2 && fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+        for (int length = out.length() - start; length < width; length++) {
+            out.insert(start, ' ');
+        }
+    }
+}
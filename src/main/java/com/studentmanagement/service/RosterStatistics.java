@@ -0,0 +1,33 @@
+package com.studentmanagement.service;
+
+/**
+ * Roster-wide aggregates shown on the statistics screen
+ */
+public class RosterStatistics {
+    private final int totalStudents;
+    private final int studentsWithCourses;
+    private final double gpaSum;
+
+    public RosterStatistics(int totalStudents, int studentsWithCourses, double gpaSum) {
+        this.totalStudents = totalStudents;
+        this.studentsWithCourses = studentsWithCourses;
+        this.gpaSum = gpaSum;
+    }
+
+    public int getTotalStudents() {
+        return totalStudents;
+    }
+
+    public int getStudentsWithCourses() {
+        return studentsWithCourses;
+    }
+
+    /** Sum of all GPAs, so statistics from several rosters can be combined */
+    public double getGpaSum() {
+        return gpaSum;
+    }
+
+    public double getAverageGpa() {
+        return totalStudents == 0 ? 0.0 : gpaSum / totalStudents;
+    }
+}
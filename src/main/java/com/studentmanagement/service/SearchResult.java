@@ -0,0 +1,30 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Student;
+
+/**
+ * A ranked search hit: the student and a relevance score in (0, 1]
+ */
+public class SearchResult {
+    private final Student student;
+    private final double score;
+
+    public SearchResult(Student student, double score) {
+        this.student = student;
+        this.score = score;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (%s, score %.2f)",
+                            student.getFirstName(), student.getLastName(), student.getStudentId(), score);
+    }
+}
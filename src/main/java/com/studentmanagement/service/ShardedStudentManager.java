@@ -0,0 +1,622 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.util.DataStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Student roster split across independent StudentManager shards.
+ * Each shard has its own lock, indexes and snapshot file
+ * (students-shard-NNN.dat in the shard directory), so work on different
+ * shards never contends. Single-student operations are routed by ID;
+ * search, queries and statistics fan out to every shard in parallel and
+ * merge the results.
+ *
+ * The layout is fixed while running. rebalance() changes the shard count
+ * or partitioner offline.
+ */
+public class ShardedStudentManager {
+    private static final String SHARD_PREFIX = "students-shard-";
+    private static final String SHARD_SUFFIX = ".dat";
+    private static final String STAGING_DIR = ".rebalance";
+    private static final String COMMIT_MARKER = "COMMIT";
+    private static final int ID_BLOCK_SIZE = 64;
+
+    /**
+     * Maps a student ID to one of shardCount shards
+     */
+    public interface Partitioner {
+        int shardFor(String studentId, int shardCount);
+
+        /** Spread IDs evenly by hash */
+        static Partitioner hashed() {
+            return (studentId, shardCount) -> Math.floorMod(studentId.hashCode(), shardCount);
+        }
+
+        /**
+         * Split on the numeric part of the ID: shard i holds numbers below
+         * splitPoints[i] and the last shard holds the rest. IDs without a
+         * number fall back to hashing.
+         */
+        static Partitioner byIdRange(int... splitPoints) {
+            int[] points = splitPoints.clone();
+            for (int i = 1; i < points.length; i++) {
+                if (points[i] <= points[i - 1]) {
+                    throw new IllegalArgumentException("Split points must be strictly increasing");
+                }
+            }
+            return (studentId, shardCount) -> {
+                if (points.length != shardCount - 1) {
+                    throw new IllegalArgumentException("Range partitioner has " + (points.length + 1)
+                            + " ranges but there are " + shardCount + " shards");
+                }
+                int number = idNumber(studentId);
+                if (number < 0) {
+                    return Math.floorMod(studentId.hashCode(), shardCount);
+                }
+                int index = Arrays.binarySearch(points, number);
+                return index >= 0 ? index + 1 : -index - 1;
+            };
+        }
+    }
+
+    /**
+     * Roster-wide statistics merged from all shards
+     */
+    public static class Statistics {
+        private final int totalStudents;
+        private final int studentsWithCourses;
+        private final double averageGpa;
+        private final int[] shardSizes;
+
+        Statistics(int totalStudents, int studentsWithCourses, double averageGpa, int[] shardSizes) {
+            this.totalStudents = totalStudents;
+            this.studentsWithCourses = studentsWithCourses;
+            this.averageGpa = averageGpa;
+            this.shardSizes = shardSizes;
+        }
+
+        public int getTotalStudents() {
+            return totalStudents;
+        }
+
+        public int getStudentsWithCourses() {
+            return studentsWithCourses;
+        }
+
+        public double getAverageGpa() {
+            return averageGpa;
+        }
+
+        /** Number of students in each shard, by shard index */
+        public int[] getShardSizes() {
+            return shardSizes.clone();
+        }
+    }
+
+    private final Path directory;
+    private final StudentManager[] shards;
+    private final Partitioner partitioner;
+    private final IdAllocator ids;                       // guarded by itself
+    private final ThreadLocal<IdAllocator.Block> idBlocks = new ThreadLocal<>();
+
+    private ShardedStudentManager(Path directory, StudentManager[] shards, Partitioner partitioner) {
+        this.directory = directory;
+        this.shards = shards;
+        this.partitioner = partitioner;
+        int highest = IdAllocator.FIRST_ID;
+        for (StudentManager shard : shards) {
+            highest = Math.max(highest, shard.getNextId());
+        }
+        this.ids = new IdAllocator(highest);
+        for (StudentManager shard : shards) {
+            synchronized (shard) {
+                for (Student student : shard.studentValues()) {
+                    ids.markUsed(student.getStudentId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Load every shard in the directory concurrently. Fails if the files on
+     * disk were written with a different layout; rebalance them first.
+     */
+    public static ShardedStudentManager load(Path directory, int shardCount, Partitioner partitioner)
+            throws IOException {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        finishRebalance(directory);
+        for (int index : listShardFiles(directory).keySet()) {
+            if (index >= shardCount) {
+                throw new IllegalStateException("Found shard file " + shardFile(directory, index).getFileName()
+                        + " but only " + shardCount + " shard(s) are configured; rebalance first");
+            }
+        }
+        StudentManager[] shards = IntStream.range(0, shardCount).parallel()
+            .mapToObj(i -> DataStore.load(shardFile(directory, i)))
+            .toArray(StudentManager[]::new);
+        ShardedStudentManager manager = new ShardedStudentManager(directory, shards, partitioner);
+        manager.verifyPlacement();
+        return manager;
+    }
+
+    private void verifyPlacement() {
+        IntStream.range(0, shards.length).parallel().forEach(i -> {
+            synchronized (shards[i]) {
+                for (Student student : shards[i].studentValues()) {
+                    if (partitioner.shardFor(student.getStudentId(), shards.length) != i) {
+                        throw new IllegalStateException("Shard " + i + " holds " + student.getStudentId()
+                                + ", which belongs to another shard; rebalance with this layout first");
+                    }
+                }
+            }
+        });
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Direct access to one shard, e.g. to attach an AutoSaveScheduler.
+     * Create students through this manager, which allocates IDs unique
+     * across all shards.
+     */
+    public StudentManager getShard(int index) {
+        return shards[index];
+    }
+
+    /** Snapshot file backing one shard */
+    public Path getShardFile(int index) {
+        return shardFile(directory, index);
+    }
+
+    private StudentManager shardFor(String studentId) {
+        if (studentId == null) {
+            throw new IllegalArgumentException("Student ID cannot be null");
+        }
+        return shards[partitioner.shardFor(studentId, shards.length)];
+    }
+
+    // Single-student operations, routed to the owning shard
+
+    /**
+     * Emails are unique per shard under the shard's lock; across shards
+     * they are checked before routing, which is only best effort against
+     * two concurrent creates with the same email on different shards
+     */
+    public String createStudent(String firstName, String lastName, String email, int age) {
+        Student owner = findByEmail(email);
+        if (owner != null) {
+            throw new IllegalArgumentException("Failed to create student: Email already in use by "
+                                               + owner.getStudentId() + ": " + email.trim());
+        }
+        String studentId = nextStudentId();
+        shardFor(studentId).createStudentWithId(studentId, firstName, lastName, email, age);
+        return studentId;
+    }
+
+    /**
+     * Take an ID from this thread's reserved block, so concurrent creates
+     * only meet on the shared allocator once every ID_BLOCK_SIZE IDs
+     */
+    private String nextStudentId() {
+        IdAllocator.Block block = idBlocks.get();
+        if (block == null || !block.hasNext()) {
+            synchronized (ids) {
+                block = ids.reserve(ID_BLOCK_SIZE);
+            }
+            idBlocks.set(block);
+        }
+        return block.next();
+    }
+
+    public Student getStudent(String studentId) {
+        return shardFor(studentId).getStudent(studentId);
+    }
+
+    public boolean studentExists(String studentId) {
+        return shardFor(studentId).studentExists(studentId);
+    }
+
+    public void updateStudent(String studentId, String field, String value) {
+        if ("email".equalsIgnoreCase(field)) {
+            Student owner = findByEmail(value);
+            if (owner != null && !owner.getStudentId().equals(studentId)) {
+                throw new IllegalArgumentException("Email already in use by " + owner.getStudentId() + ": " + value.trim());
+            }
+        }
+        shardFor(studentId).updateStudent(studentId, field, value);
+    }
+
+    public boolean deleteStudent(String studentId) {
+        return shardFor(studentId).deleteStudent(studentId);
+    }
+
+    public void assignCourse(String studentId, String courseCode, String courseName, int credits, double grade) {
+        shardFor(studentId).assignCourse(studentId, courseCode, courseName, credits, grade);
+    }
+
+    public void removeCourse(String studentId, String courseCode) {
+        shardFor(studentId).removeCourse(studentId, courseCode);
+    }
+
+    public void updateGrade(String studentId, String courseCode, double grade) {
+        shardFor(studentId).updateGrade(studentId, courseCode, grade);
+    }
+
+    // Fan-out operations
+
+    /**
+     * Student with the given email on any shard, or null
+     */
+    public Student findByEmail(String email) {
+        return Arrays.stream(shards).parallel()
+            .map(shard -> shard.findByEmail(email))
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+    }
+
+    public int getTotalStudents() {
+        return Arrays.stream(shards).parallel().mapToInt(StudentManager::getTotalStudents).sum();
+    }
+
+    public List<Student> getAllStudents() {
+        return Arrays.stream(shards).parallel()
+            .flatMap(shard -> shard.getAllStudents().stream())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Substring search on every shard, merged in student ID order
+     */
+    public List<Student> searchStudents(String searchTerm) {
+        return Arrays.stream(shards).parallel()
+            .flatMap(shard -> shard.searchStudents(searchTerm).stream())
+            .sorted(Comparator.comparing(Student::getStudentId))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Fuzzy name search on every shard; the best matches overall come first
+     */
+    public List<SearchResult> fuzzySearch(String query, int limit) {
+        return Arrays.stream(shards).parallel()
+            .flatMap(shard -> shard.fuzzySearch(query, limit).stream())
+            .sorted(Comparator.comparingDouble(SearchResult::getScore).reversed()
+                    .thenComparing(result -> result.getStudent().getStudentId()))
+            .limit(Math.max(limit, 0))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Run a query on every shard and merge the results. Each shard applies
+     * the sort and limit itself, so at most limit rows per shard are merged.
+     */
+    public List<Student> query(StudentQuery query) {
+        List<List<Student>> perShard = Arrays.stream(shards).parallel()
+            .map(shard -> {
+                List<Student> rows = new ArrayList<>();
+                try (QueryCursor cursor = shard.query(query)) {
+                    cursor.forEachRemaining(rows::add);
+                }
+                return rows;
+            })
+            .collect(Collectors.toList());
+        List<Student> merged = new ArrayList<>();
+        for (List<Student> rows : perShard) {
+            merged.addAll(rows);
+        }
+        if (query.sortField != null) {
+            merged.sort(query.comparator());
+        }
+        return merged.size() > query.limit ? new ArrayList<>(merged.subList(0, query.limit)) : merged;
+    }
+
+    /**
+     * Regrade a course on every shard. Each shard is updated atomically,
+     * but other shards may briefly show the old grades.
+     */
+    public int regradeCourse(String courseCode, DoubleUnaryOperator regrade) {
+        return Arrays.stream(shards).parallel()
+            .mapToInt(shard -> shard.regradeCourse(courseCode, regrade))
+            .sum();
+    }
+
+    /** Switch grading scale on every shard, recomputing shards in parallel */
+    public void setGradingScale(GradingScale scale) {
+        Arrays.stream(shards).parallel().forEach(shard -> shard.setGradingScale(scale));
+    }
+
+    /**
+     * Totals and average GPA across all shards, computed per shard in parallel
+     */
+    public Statistics getStatistics() {
+        // Each shard answers from its query cache unless it changed since the last call
+        RosterStatistics[] perShard = new RosterStatistics[shards.length];
+        IntStream.range(0, shards.length).parallel().forEach(i -> perShard[i] = shards[i].getStatistics());
+        int[] sizes = new int[shards.length];
+        int total = 0;
+        int courses = 0;
+        double gpaSum = 0.0;
+        for (int i = 0; i < shards.length; i++) {
+            sizes[i] = perShard[i].getTotalStudents();
+            total += sizes[i];
+            courses += perShard[i].getStudentsWithCourses();
+            gpaSum += perShard[i].getGpaSum();
+        }
+        return new Statistics(total, courses, total == 0 ? 0.0 : gpaSum / total, sizes);
+    }
+
+    /**
+     * Save every shard to its own snapshot file concurrently
+     */
+    public void save() throws IOException {
+        List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+        IntStream.range(0, shards.length).parallel().forEach(i -> {
+            try {
+                DataStore.save(shards[i], shardFile(directory, i));
+            } catch (IOException e) {
+                failures.add(new IOException("Shard " + i + ": " + e.getMessage(), e));
+            }
+        });
+        if (!failures.isEmpty()) {
+            IOException first = failures.get(0);
+            for (IOException other : failures.subList(1, failures.size())) {
+                first.addSuppressed(other);
+            }
+            throw first;
+        }
+    }
+
+    /**
+     * Redistribute every student in a shard directory over a new layout.
+     * Run it while nothing has the directory open. New shards are staged
+     * in .rebalance/ and committed with a marker file, so an interrupted
+     * rebalance is completed by the next load or rebalance rather than
+     * losing students. Returns the number of students redistributed.
+     */
+    public static int rebalance(Path directory, int shardCount, Partitioner partitioner) throws IOException {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        finishRebalance(directory);
+
+        List<StudentManager> current = listShardFiles(directory).values().parallelStream()
+            .map(DataStore::load)
+            .collect(Collectors.toList());
+        return writeLayout(directory, current, shardCount, partitioner);
+    }
+
+    /**
+     * Split a single-manager snapshot (such as data/students.dat) into
+     * shards in a directory that has none yet. The snapshot itself is left
+     * as it is. Returns the number of students split.
+     */
+    public static int split(Path snapshot, Path directory, int shardCount, Partitioner partitioner)
+            throws IOException {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (!Files.exists(snapshot)) {
+            throw new IllegalArgumentException("Snapshot not found: " + snapshot);
+        }
+        finishRebalance(directory);
+        if (!listShardFiles(directory).isEmpty()) {
+            throw new IllegalStateException(directory + " already holds shards; use rebalance to change them");
+        }
+        Files.createDirectories(directory);
+        return writeLayout(directory, Collections.singletonList(DataStore.load(snapshot)), shardCount, partitioner);
+    }
+
+    /**
+     * Combine every shard in a directory into one single-manager snapshot,
+     * loading the shards concurrently. The target must not exist yet.
+     * Returns the number of students merged.
+     */
+    public static int merge(Path directory, Path snapshot) throws IOException {
+        if (Files.exists(snapshot)) {
+            throw new IllegalStateException(snapshot + " already exists; move it away first");
+        }
+        finishRebalance(directory);
+        List<StudentManager> shards = listShardFiles(directory).values().parallelStream()
+            .map(DataStore::load)
+            .collect(Collectors.toList());
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No shard files in " + directory);
+        }
+        List<Student> students = new ArrayList<>();
+        int nextId = IdAllocator.FIRST_ID;
+        long sequence = 0;
+        String scale = GradingScale.STANDARD.getName();
+        for (StudentManager shard : shards) {
+            synchronized (shard) {
+                nextId = Math.max(nextId, shard.getNextId());
+                sequence = Math.max(sequence, shard.getJournalSequence());
+                scale = shard.getGradingScale().getName();
+                students.addAll(shard.studentValues());
+            }
+        }
+        DataStore.save(StudentManager.fromSnapshot(students, nextId, sequence, scale), snapshot);
+        return students.size();
+    }
+
+    /** Number of shard files in a directory */
+    public static int countShards(Path directory) throws IOException {
+        finishRebalance(directory);
+        return listShardFiles(directory).size();
+    }
+
+    /**
+     * Stage the students of the given managers as a new layout and commit
+     * it over the directory's shard files
+     */
+    private static int writeLayout(Path directory, List<StudentManager> current, int shardCount,
+                                   Partitioner partitioner) throws IOException {
+        List<Map<String, Student>> targets = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            targets.add(new LinkedHashMap<>());
+        }
+        int nextId = IdAllocator.FIRST_ID;
+        long sequence = 0;
+        String scale = GradingScale.STANDARD.getName();
+        for (StudentManager shard : current) {
+            synchronized (shard) {
+                nextId = Math.max(nextId, shard.getNextId());
+                sequence = Math.max(sequence, shard.getJournalSequence());
+                scale = shard.getGradingScale().getName();
+                for (Student student : shard.studentValues()) {
+                    targets.get(partitioner.shardFor(student.getStudentId(), shardCount))
+                           .put(student.getStudentId(), student);
+                }
+            }
+        }
+
+        Path staging = directory.resolve(STAGING_DIR);
+        deleteStaging(staging);
+        Files.createDirectories(staging);
+        int moved = 0;
+        for (int i = 0; i < shardCount; i++) {
+            // The shared journal sequence makes each new snapshot cover every old delta segment
+            StudentManager rebuilt = StudentManager.fromSnapshot(targets.get(i).values(), nextId, sequence, scale);
+            DataStore.save(rebuilt, shardFile(staging, i));
+            moved += targets.get(i).size();
+        }
+        DataStore.writeAtomically(staging.resolve(COMMIT_MARKER),
+                                  Integer.toString(shardCount).getBytes(StandardCharsets.US_ASCII));
+        finishRebalance(directory);
+        return moved;
+    }
+
+    /**
+     * Complete a committed rebalance: move staged shards into place and drop
+     * shard files beyond the new count. Idempotent, so it is safe to rerun
+     * after a crash. An uncommitted staging area is discarded; one with a
+     * damaged commit marker is left alone and reported.
+     */
+    private static void finishRebalance(Path directory) throws IOException {
+        Path staging = directory.resolve(STAGING_DIR);
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        Path marker = staging.resolve(COMMIT_MARKER);
+        if (!Files.exists(marker)) {
+            deleteStaging(staging);
+            return;
+        }
+        int shardCount = readCommitMarker(marker);
+        for (Map.Entry<Integer, Path> staged : listShardFiles(staging).entrySet()) {
+            Path target = shardFile(directory, staged.getKey());
+            DataStore.delete(target);
+            try {
+                Files.move(staged.getValue(), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staged.getValue(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path stagedImage = DataStore.warmImageFile(staged.getValue());
+            if (Files.exists(stagedImage)) {
+                Files.move(stagedImage, DataStore.warmImageFile(target), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        for (Map.Entry<Integer, Path> existing : listShardFiles(directory).entrySet()) {
+            if (existing.getKey() >= shardCount) {
+                DataStore.delete(existing.getValue());
+            }
+        }
+        deleteStaging(staging);
+    }
+
+    /**
+     * New shard count recorded in a commit marker. The marker is written
+     * atomically, so an unreadable one means the staging area itself is
+     * damaged; the rebalance is not committed and the caller is told.
+     */
+    private static int readCommitMarker(Path marker) throws IOException {
+        String content = new String(Files.readAllBytes(marker), StandardCharsets.US_ASCII).trim();
+        try {
+            int shardCount = Integer.parseInt(content);
+            if (shardCount > 0) {
+                return shardCount;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IOException("Damaged rebalance commit marker " + marker + " (\"" + content + "\"); staged shards in "
+                              + marker.getParent() + " were not moved into place");
+    }
+
+    private static void deleteStaging(Path staging) throws IOException {
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(staging)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(staging);
+    }
+
+    /** Shard snapshot files in a directory, keyed by shard index */
+    private static Map<Integer, Path> listShardFiles(Path directory) throws IOException {
+        Map<Integer, Path> files = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SHARD_PREFIX + "*" + SHARD_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String number = name.substring(SHARD_PREFIX.length(), name.length() - SHARD_SUFFIX.length());
+                try {
+                    files.put(Integer.parseInt(number), path);
+                } catch (NumberFormatException e) {
+                    // Not a shard file
+                }
+            }
+        }
+        return files;
+    }
+
+    private static Path shardFile(Path directory, int index) {
+        return directory.resolve(SHARD_PREFIX + String.format("%03d", index) + SHARD_SUFFIX);
+    }
+
+    /** Numeric part of an ID such as STU1042, or -1 */
+    private static int idNumber(String studentId) {
+        int start = 0;
+        while (start < studentId.length() && !Character.isDigit(studentId.charAt(start))) {
+            start++;
+        }
+        if (start == studentId.length() || studentId.length() - start > 9) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(studentId.substring(start));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.studentmanagement.service;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Ordered secondary index from a field value to the IDs of students
+ * holding it. Entries are ordered by (key, studentId), which lets a
+ * query cursor resume a range scan from the last entry it returned.
+ */
+public class SortedIndex<K extends Comparable<K>> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final TreeMap<K, TreeSet<String>> entries = new TreeMap<>();
+    private int size;
+
+    public void add(K key, String studentId) {
+        if (key != null && entries.computeIfAbsent(key, k -> new TreeSet<>()).add(studentId)) {
+            size++;
+        }
+    }
+
+    public void remove(K key, String studentId) {
+        if (key == null) {
+            return;
+        }
+        TreeSet<String> ids = entries.get(key);
+        if (ids != null && ids.remove(studentId)) {
+            size--;
+            if (ids.isEmpty()) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /** Total number of (key, studentId) entries */
+    public int size() {
+        return size;
+    }
+
+    /** Number of distinct keys */
+    public int keyCount() {
+        return entries.size();
+    }
+
+    /**
+     * Count entries with low <= key <= high (null bounds are open),
+     * giving up once the count passes cap
+     */
+    public int estimate(K low, K high, int cap) {
+        int count = 0;
+        for (TreeSet<String> ids : range(low, high, false).values()) {
+            count += ids.size();
+            if (count > cap) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Append up to max entries within [low, high] that come strictly after
+     * (afterKey, afterId) in scan order; a null afterKey starts at the beginning
+     */
+    public void scan(K low, K high, boolean descending, K afterKey, String afterId,
+                     int max, List<Map.Entry<K, String>> out) {
+        NavigableMap<K, TreeSet<String>> view = range(low, high, descending);
+        if (afterKey != null) {
+            view = view.tailMap(afterKey, true);
+        }
+        int added = 0;
+        for (Map.Entry<K, TreeSet<String>> entry : view.entrySet()) {
+            NavigableSet<String> ids = descending ? entry.getValue().descendingSet() : entry.getValue();
+            if (afterKey != null && entry.getKey().compareTo(afterKey) == 0) {
+                ids = ids.tailSet(afterId, false);
+            }
+            for (String id : ids) {
+                if (added >= max) {
+                    return;
+                }
+                out.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), id));
+                added++;
+            }
+        }
+    }
+
+    /**
+     * Write every key with its student IDs, in key order, for the warm index image
+     */
+    void writeImage(DataOutput out, IndexImage.KeyCodec<K> codec, Map<String, Integer> ordinals) throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<K, TreeSet<String>> entry : entries.entrySet()) {
+            codec.write(out, entry.getKey());
+            IndexImage.writeIds(out, entry.getValue(), ordinals);
+        }
+    }
+
+    /**
+     * Read an index written by writeImage, resolving ID ordinals against ids
+     */
+    static <K extends Comparable<K>> SortedIndex<K> readImage(ByteBuffer in, IndexImage.KeyCodec<K> codec, String[] ids) {
+        SortedIndex<K> index = new SortedIndex<>();
+        int keyCount = in.getInt();
+        List<K> keys = new ArrayList<>(keyCount);
+        List<TreeSet<String>> sets = new ArrayList<>(keyCount);
+        for (int k = 0; k < keyCount; k++) {
+            keys.add(codec.read(in));
+            String[] sorted = new String[in.getInt()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = ids[in.getInt()];
+            }
+            TreeSet<String> set = new TreeSet<>();
+            set.addAll(IndexImage.sortedView(sorted));
+            sets.add(set);
+            index.size += sorted.length;
+        }
+        // Keys and IDs were written in index order, so both levels are bulk-built in linear time
+        index.entries.putAll(IndexImage.sortedView(keys, sets));
+        return index;
+    }
+
+    /** Distinct keys in ascending order starting at from (inclusive) */
+    NavigableMap<K, TreeSet<String>> tail(K from) {
+        return entries.tailMap(from, true);
+    }
+
+    private NavigableMap<K, TreeSet<String>> range(K low, K high, boolean descending) {
+        NavigableMap<K, TreeSet<String>> view = entries;
+        if (low != null && high != null) {
+            view = low.compareTo(high) > 0 ? new TreeMap<>() : entries.subMap(low, true, high, true);
+        } else if (low != null) {
+            view = entries.tailMap(low, true);
+        } else if (high != null) {
+            view = entries.headMap(high, true);
+        }
+        return descending ? view.descendingMap() : view;
+    }
+}
@@ -0,0 +1,114 @@
+package com.studentmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of student mutations applied together by StudentManager.applyBatch.
+ * The whole batch is validated before anything changes, then applied under
+ * one lock with each touched student's GPA and indexes updated only once.
+ */
+public class StudentBatch {
+
+    /** Kinds of batch operation */
+    enum Type {
+        CREATE,
+        ASSIGN_COURSE,
+        REMOVE_COURSE,
+        UPDATE_GRADE
+    }
+
+    /** One queued operation; unused fields are null */
+    static final class Operation {
+        final Type type;
+        final String studentId;
+        final String firstName;
+        final String lastName;
+        final String email;
+        final int age;
+        final String courseCode;
+        final String courseName;
+        final int credits;
+        final double grade;
+
+        Operation(Type type, String studentId, String firstName, String lastName, String email, int age,
+                  String courseCode, String courseName, int credits, double grade) {
+            this.type = type;
+            this.studentId = studentId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.age = age;
+            this.courseCode = courseCode;
+            this.courseName = courseName;
+            this.credits = credits;
+            this.grade = grade;
+        }
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    public static StudentBatch create() {
+        return new StudentBatch();
+    }
+
+    public StudentBatch createStudent(String firstName, String lastName, String email, int age) {
+        operations.add(new Operation(Type.CREATE, null, firstName, lastName, email, age, null, null, 0, 0));
+        return this;
+    }
+
+    public StudentBatch assignCourse(String studentId, String courseCode, String courseName, int credits, double grade) {
+        operations.add(new Operation(Type.ASSIGN_COURSE, studentId, null, null, null, 0, courseCode, courseName, credits, grade));
+        return this;
+    }
+
+    /** Enroll every listed student in the same course with the same grade */
+    public StudentBatch assignCourseToAll(Collection<String> studentIds, String courseCode, String courseName,
+                                          int credits, double grade) {
+        for (String studentId : studentIds) {
+            assignCourse(studentId, courseCode, courseName, credits, grade);
+        }
+        return this;
+    }
+
+    public StudentBatch removeCourse(String studentId, String courseCode) {
+        operations.add(new Operation(Type.REMOVE_COURSE, studentId, null, null, null, 0, courseCode, null, 0, 0));
+        return this;
+    }
+
+    public StudentBatch removeCourseFromAll(Collection<String> studentIds, String courseCode) {
+        for (String studentId : studentIds) {
+            removeCourse(studentId, courseCode);
+        }
+        return this;
+    }
+
+    /** Change the grade of a course the student is already enrolled in */
+    public StudentBatch updateGrade(String studentId, String courseCode, double grade) {
+        operations.add(new Operation(Type.UPDATE_GRADE, studentId, null, null, null, 0, courseCode, null, 0, grade));
+        return this;
+    }
+
+    /** Regrade one course for many students (student ID -> new grade) */
+    public StudentBatch updateGrades(String courseCode, Map<String, Double> gradesByStudent) {
+        for (Map.Entry<String, Double> entry : gradesByStudent.entrySet()) {
+            updateGrade(entry.getKey(), courseCode, entry.getValue());
+        }
+        return this;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    List<Operation> operations() {
+        return Collections.unmodifiableList(operations);
+    }
+}
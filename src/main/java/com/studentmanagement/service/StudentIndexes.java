@@ -0,0 +1,158 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.Student;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Secondary indexes kept in step with StudentManager's student map.
+ * Every index refers to students by ID only.
+ */
+class StudentIndexes implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final FuzzyNameIndex names;
+    final PrefixIndex studentIds;
+    final PrefixIndex lastNames;
+    final PrefixIndex emails;
+    final EmailIndex emailOwners;
+    final SortedIndex<Integer> ages;
+    SortedIndex<Double> gpas;
+    final SortedIndex<String> courses;
+    CourseAggregates courseTotals; // not in the warm image; rebuilt after loading one
+
+    StudentIndexes() {
+        this(new FuzzyNameIndex(), new PrefixIndex(), new PrefixIndex(), new PrefixIndex(),
+             new SortedIndex<>(), new SortedIndex<>(), new SortedIndex<>());
+    }
+
+    private StudentIndexes(FuzzyNameIndex names, PrefixIndex studentIds, PrefixIndex lastNames, PrefixIndex emails,
+                           SortedIndex<Integer> ages, SortedIndex<Double> gpas, SortedIndex<String> courses) {
+        this.names = names;
+        this.studentIds = studentIds;
+        this.lastNames = lastNames;
+        this.emails = emails;
+        this.emailOwners = EmailIndex.fromPrefixIndex(emails);
+        this.ages = ages;
+        this.gpas = gpas;
+        this.courses = courses;
+        this.courseTotals = new CourseAggregates();
+    }
+
+    /** Build all indexes from scratch */
+    static StudentIndexes build(Collection<Student> students) {
+        StudentIndexes indexes = new StudentIndexes();
+        for (Student student : students) {
+            indexes.add(student);
+        }
+        return indexes;
+    }
+
+    /**
+     * Write all indexes as a warm image; ordinals give each student's
+     * position in the snapshot the image belongs to
+     */
+    void writeImage(DataOutput out, Map<String, Integer> ordinals) throws IOException {
+        names.writeImage(out, ordinals);
+        studentIds.writeImage(out, ordinals);
+        lastNames.writeImage(out, ordinals);
+        emails.writeImage(out, ordinals);
+        ages.writeImage(out, IndexImage.INTEGER_KEYS, ordinals);
+        gpas.writeImage(out, IndexImage.DOUBLE_KEYS, ordinals);
+        courses.writeImage(out, IndexImage.STRING_KEYS, ordinals);
+    }
+
+    /** Load indexes written by writeImage; ids[i] is the i-th student of the snapshot */
+    static StudentIndexes readImage(ByteBuffer in, String[] ids) {
+        StudentIndexes indexes = new StudentIndexes(
+            FuzzyNameIndex.readImage(in, ids),
+            PrefixIndex.readImage(in, ids),
+            PrefixIndex.readImage(in, ids),
+            PrefixIndex.readImage(in, ids),
+            SortedIndex.readImage(in, IndexImage.INTEGER_KEYS, ids),
+            SortedIndex.readImage(in, IndexImage.DOUBLE_KEYS, ids),
+            SortedIndex.readImage(in, IndexImage.STRING_KEYS, ids));
+        if (in.hasRemaining()) {
+            throw new IllegalStateException(in.remaining() + " unexpected trailing byte(s) in index image");
+        }
+        return indexes;
+    }
+
+    /** Index a student's current field values */
+    void add(Student student) {
+        String id = student.getStudentId();
+        names.add(student);
+        studentIds.add(id, id);
+        lastNames.add(student.getLastName(), id);
+        emails.add(student.getEmail(), id);
+        emailOwners.add(student.getEmail(), id);
+        ages.add(student.getAge(), id);
+        addEnrollment(student);
+    }
+
+    /** Remove a student's current field values; call before mutating them */
+    void remove(Student student) {
+        String id = student.getStudentId();
+        names.remove(student);
+        studentIds.remove(id, id);
+        lastNames.remove(student.getLastName(), id);
+        emails.remove(student.getEmail(), id);
+        emailOwners.remove(student.getEmail(), id);
+        ages.remove(student.getAge(), id);
+        removeEnrollment(student);
+    }
+
+    /** Index the course list and GPA only */
+    void addEnrollment(Student student) {
+        String id = student.getStudentId();
+        gpas.add(student.getGpa(), id);
+        for (Course course : student.getCourseList()) {
+            courses.add(course.getCourseCode(), id);
+            courseTotals.add(course);
+        }
+    }
+
+    /** Rebuild the GPA index after GPAs were recalculated in bulk */
+    void rebuildGpas(Collection<Student> students) {
+        SortedIndex<Double> rebuilt = new SortedIndex<>();
+        for (Student student : students) {
+            rebuilt.add(student.getGpa(), student.getStudentId());
+        }
+        gpas = rebuilt;
+    }
+
+    /** Move a student within the GPA index after a grade change */
+    void updateGpa(String studentId, double oldGpa, double newGpa) {
+        if (Double.compare(oldGpa, newGpa) != 0) {
+            gpas.remove(oldGpa, studentId);
+            gpas.add(newGpa, studentId);
+        }
+    }
+
+    /** Move an enrollment within the course totals after a grade change */
+    void updateGrade(Course course, double oldGrade) {
+        if (Double.compare(oldGrade, course.getGrade()) != 0) {
+            courseTotals.gradeChanged(course, oldGrade);
+        }
+    }
+
+    /** Remove the course list and GPA only; call before changing courses */
+    void removeEnrollment(Student student) {
+        String id = student.getStudentId();
+        gpas.remove(student.getGpa(), id);
+        for (Course course : student.getCourseList()) {
+            courses.remove(course.getCourseCode(), id);
+            courseTotals.remove(course);
+        }
+    }
+
+    /** Rebuild the course totals from every student, in parallel */
+    void rebuildCourseTotals(Collection<Student> students) {
+        courseTotals = CourseAggregates.build(students);
+    }
+}
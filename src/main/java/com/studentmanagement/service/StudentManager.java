@@ -1,50 +1,355 @@
 package com.studentmanagement.service;
 
 import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
 import com.studentmanagement.model.Student;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
- * StudentManager class handling CRUD operations for students
+ * StudentManager class handling CRUD operations for students.
+ * All public operations are synchronized so a background auto-save
+ * can drain changes while the console keeps working.
  */
 public class StudentManager implements Serializable {
     private static final long serialVersionUID = 1L;
     private Map<String, Student> students;
-    private int nextId;
+    private int nextId;           // ID high-water mark as of the last save; the live one is in ids
+    private long journalSequence; // last delta segment covered by this state
+    private String gradingScale;  // name of the selected GradingScale; null means STANDARD
+
+    // Dirty tracking for incremental saves (not persisted)
+    private transient Set<String> dirtyIds;
+    private transient Set<String> deletedIds;
+    private transient long mutationCount;
+    private transient ThreadLocal<long[]> lastMutationByThread; // mutationCount after each thread's latest change
+    private transient boolean gradingScaleChanged;
+
+    // Secondary indexes, rebuilt after loading
+    private transient StudentIndexes indexes;
+    private transient IdAllocator ids;
+
+    // Set when students are paged out; then also referenced by students
+    private transient TieredStudentStore tieredStore;
+
+    // Ordered change log for replication and live change feed; null unless enabled
+    private transient MutationLog mutationLog;
+    private transient ChangeFeed changeFeed;
+    private transient long lastEventSequence;
+    private transient boolean readOnly;
+
+    // Cached query results; dataVersion moves on every change to the roster
+    private transient QueryCache queryCache;
+    private transient long dataVersion;
+    private transient boolean warmStart;
 
     /**
      * Constructor initializing the student storage
      */
     public StudentManager() {
         this.students = new HashMap<>();
-        this.nextId = 1001; // Starting ID
+        this.nextId = IdAllocator.FIRST_ID;
+        initTransientState();
+    }
+
+    /**
+     * Rebuild a manager from students decoded out of a block snapshot
+     */
+    public static StudentManager fromSnapshot(Collection<Student> students, int nextId, long journalSequence,
+                                              String gradingScale) {
+        return fromSnapshot(new ArrayList<>(students), nextId, journalSequence, gradingScale, null);
+    }
+
+    /**
+     * Rebuild a manager from a decoded snapshot, taking the indexes from a
+     * warm image written by writeIndexImage for the same snapshot. If the
+     * image is null or unreadable the indexes are rebuilt instead.
+     */
+    public static StudentManager fromSnapshot(List<Student> students, int nextId, long journalSequence,
+                                              String gradingScale, ByteBuffer indexImage) {
+        StudentManager manager = new StudentManager();
+        String[] ids = new String[students.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Student student = students.get(i);
+            ids[i] = student.getStudentId();
+            manager.students.put(ids[i], student);
+        }
+        manager.ids.advancePast(nextId - 1);
+        manager.markIdsUsed(Arrays.asList(ids));
+        manager.journalSequence = journalSequence;
+        manager.gradingScale = gradingScale;
+        // Decoded students start on the standard scale
+        boolean recalculated = manager.getGradingScale() != GradingScale.STANDARD;
+        manager.applyGradingScale();
+        if (indexImage != null) {
+            try {
+                manager.indexes = StudentIndexes.readImage(indexImage.duplicate(), ids);
+                manager.indexes.rebuildCourseTotals(manager.students.values());
+                manager.warmStart = true;
+                if (recalculated) {
+                    manager.indexes.rebuildGpas(manager.students.values());
+                }
+            } catch (RuntimeException e) {
+                manager.indexes = null; // damaged image; rebuild below
+            }
+        }
+        if (!manager.warmStart) {
+            manager.rebuildIndexes();
+        }
+        return manager;
+    }
+
+    private void initTransientState() {
+        this.dirtyIds = new LinkedHashSet<>();
+        this.deletedIds = new LinkedHashSet<>();
+        this.mutationCount = 0;
+        this.lastMutationByThread = ThreadLocal.withInitial(() -> new long[1]);
+        this.queryCache = new QueryCache(Integer.getInteger("sms.queryCache.size", QueryCache.DEFAULT_CAPACITY));
+        this.ids = new IdAllocator(nextId);
+        markIdsUsed(students.keySet());
+        rebuildIndexes();
+    }
+
+    private void markIdsUsed(Collection<String> studentIds) {
+        for (String studentId : studentIds) {
+            ids.markUsed(studentId);
+        }
+    }
+
+    /**
+     * Write the secondary indexes as a warm image for a snapshot of the
+     * given roster, which must list exactly this manager's students in
+     * snapshot order. Caller must hold this manager's lock.
+     */
+    public void writeIndexImage(List<Student> roster, DataOutput out) throws IOException {
+        if (roster.size() != students.size()) {
+            throw new IllegalArgumentException("Roster does not match the manager's students");
+        }
+        Map<String, Integer> ordinals = new HashMap<>(roster.size() * 4 / 3 + 1);
+        for (int i = 0; i < roster.size(); i++) {
+            ordinals.put(roster.get(i).getStudentId(), i);
+        }
+        indexes.writeImage(out, ordinals);
+    }
+
+    /**
+     * True if the indexes were loaded from a warm image instead of rebuilt
+     */
+    public synchronized boolean isWarmStart() {
+        return warmStart;
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        nextId = ids.getHighWater();
+        Map<String, Student> live = students;
+        if (tieredStore != null) {
+            students = new HashMap<>(live);
+        }
+        try {
+            out.defaultWriteObject();
+        } finally {
+            students = live;
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        applyGradingScale();
+        initTransientState();
+    }
+
+    /**
+     * Put every student on the heap on this manager's grading scale,
+     * recalculating GPAs where it differs; paged-out students are put on
+     * it when read back
+     */
+    private void applyGradingScale() {
+        GradingScale scale = getGradingScale();
+        if (tieredStore != null) {
+            tieredStore.setGradingScale(scale);
+        }
+        loadedStudentValues().parallelStream().forEach(student -> student.setGradingScale(scale));
+    }
+
+    /**
+     * Rebuild all secondary indexes from the student map
+     */
+    private void rebuildIndexes() {
+        this.indexes = StudentIndexes.build(students.values());
+    }
+
+    /**
+     * Record that a student changed since the last drain
+     */
+    private void markDirty(ChangeEvent.Type type, Student student) {
+        markChanged(type, student);
+        record(type, student.getStudentId(), student, null);
+    }
+
+    /**
+     * Dirty tracking, caches and paging for a changed student, without a
+     * change event; applyBatch records one event for the whole batch
+     */
+    private void markChanged(ChangeEvent.Type type, Student student) {
+        String studentId = student.getStudentId();
+        deletedIds.remove(studentId);
+        dirtyIds.add(studentId);
+        countMutation();
+        dataVersion++;
+        if (tieredStore != null) {
+            tieredStore.written(student);
+        }
+        if (type == ChangeEvent.Type.CREATED || type == ChangeEvent.Type.UPDATED) {
+            // Course and grade changes cannot change which searches a student matches
+            queryCache.studentChanged(studentId, student);
+        }
+    }
+
+    private void countMutation() {
+        mutationCount++;
+        lastMutationByThread.get()[0] = mutationCount;
+    }
+
+    /**
+     * Record that a student was deleted since the last drain
+     */
+    private void markDeleted(String studentId) {
+        dirtyIds.remove(studentId);
+        deletedIds.add(studentId);
+        countMutation();
+        dataVersion++;
+        queryCache.studentChanged(studentId, null);
+        record(ChangeEvent.Type.DELETED, studentId, null, null);
+    }
+
+    /**
+     * Append a change event to the mutation log and offer it to the
+     * change feed. The event and its copy of the student are only built
+     * when the log is enabled or the feed has a subscriber.
+     */
+    private void record(ChangeEvent.Type type, String studentId, Student student, String scale) {
+        boolean publish = changeFeed != null && changeFeed.hasSubscribers();
+        if (mutationLog == null && !publish) {
+            return;
+        }
+        ChangeEvent event = new ChangeEvent(++lastEventSequence, type, studentId,
+                                            student == null ? null : student.copy(), scale, ids.getHighWater());
+        if (mutationLog != null) {
+            mutationLog.append(event);
+        }
+        if (publish) {
+            changeFeed.publish(event);
+        }
+    }
+
+    /**
+     * Record one BATCH event for every student an atomic batch touched
+     */
+    private void recordBatch(List<Student> touched) {
+        boolean publish = changeFeed != null && changeFeed.hasSubscribers();
+        if (touched.isEmpty() || (mutationLog == null && !publish)) {
+            return;
+        }
+        List<Student> copies = new ArrayList<>(touched.size());
+        for (Student student : touched) {
+            copies.add(student.copy());
+        }
+        ChangeEvent event = new ChangeEvent(++lastEventSequence, copies, ids.getHighWater());
+        if (mutationLog != null) {
+            mutationLog.append(event);
+        }
+        if (publish) {
+            changeFeed.publish(event);
+        }
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("This roster is a read-only replica");
+        }
     }
 
     /**
      * Generate a unique student ID
      */
     private String generateUniqueId() {
-        String id;
-        do {
-            id = "STU" + nextId++;
-        } while (students.containsKey(id));
-        return id;
+        return IdAllocator.format(ids.next());
+    }
+
+    /**
+     * Reserve a block of unused student IDs for an importer or worker
+     * thread to hand out without coming back to this manager; create the
+     * students with createStudentWithId. IDs left unused are skipped.
+     */
+    public synchronized IdAllocator.Block reserveIds(int count) {
+        checkWritable();
+        return ids.reserve(count);
     }
 
     /**
      * Create a new student with unique ID
      */
-    public String createStudent(String firstName, String lastName, String email, int age) {
+    public synchronized String createStudent(String firstName, String lastName, String email, int age) {
+        checkWritable();
+        checkNewEmail(email);
+        String studentId = generateUniqueId();
+        insertStudent(studentId, firstName, lastName, email, age);
+        return studentId;
+    }
+
+    /**
+     * Create a student under an ID allocated by the caller, e.g. a
+     * ShardedStudentManager routing IDs across shards
+     */
+    public synchronized void createStudentWithId(String studentId, String firstName, String lastName,
+                                                 String email, int age) {
+        checkWritable();
+        if (studentId != null && students.containsKey(studentId)) {
+            throw new IllegalArgumentException("Student ID already exists: " + studentId);
+        }
+        checkNewEmail(email);
+        insertStudent(studentId, firstName, lastName, email, age);
+        // Keep local ID generation ahead of externally allocated IDs
+        int number = IdAllocator.parse(studentId);
+        if (number >= 0) {
+            ids.advancePast(number);
+        }
+    }
+
+    private void checkNewEmail(String email) {
+        try {
+            indexes.emailOwners.checkAvailable(email, null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to create student: " + e.getMessage());
+        }
+    }
+
+    private void insertStudent(String studentId, String firstName, String lastName, String email, int age) {
         try {
-            String studentId = generateUniqueId();
             Student student = new Student(studentId, firstName, lastName, email, age);
+            student.setGradingScale(getGradingScale());
             students.put(studentId, student);
-            return studentId;
+            ids.markUsed(studentId);
+            indexes.add(student);
+            markDirty(ChangeEvent.Type.CREATED, student);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to create student: " + e.getMessage());
         }
@@ -53,7 +358,7 @@ public class StudentManager implements Serializable {
     /**
      * Read/retrieve a student by ID
      */
-    public Student getStudent(String studentId) {
+    public synchronized Student getStudent(String studentId) {
         Student student = students.get(studentId);
         if (student == null) {
             throw new IllegalArgumentException("Student not found with ID: " + studentId);
@@ -61,29 +366,96 @@ public class StudentManager implements Serializable {
         return student;
     }
 
+    /**
+     * Deep copy of a student, for callers that read it outside the lock
+     * (rendering it, walking its courses) while other sessions may change it
+     */
+    public synchronized Student getStudentCopy(String studentId) {
+        return getStudent(studentId).copy();
+    }
+
+    /**
+     * Student with the given email (case-insensitive), or null
+     */
+    public synchronized Student findByEmail(String email) {
+        String studentId = indexes.emailOwners.owner(email);
+        return studentId == null ? null : students.get(studentId);
+    }
+
+    /**
+     * Emails shared by more than one student, mapped to their student IDs.
+     * New duplicates are rejected, so these can only come from data saved
+     * before emails had to be unique.
+     */
+    public synchronized Map<String, List<String>> findDuplicateEmails() {
+        return indexes.emailOwners.duplicates();
+    }
+
+    /**
+     * Check the emails of rows about to be imported in one pass. Returns
+     * every email that repeats within the rows or already belongs to a
+     * student, mapped to the owning student ID (if any) followed by the
+     * 1-based row numbers that use it, as "#n".
+     */
+    public synchronized Map<String, List<String>> findDuplicateEmails(List<String> emails) {
+        Map<String, List<String>> uses = new LinkedHashMap<>();
+        for (int row = 0; row < emails.size(); row++) {
+            String email = emails.get(row);
+            if (email == null || email.trim().isEmpty()) {
+                continue;
+            }
+            List<String> rows = uses.computeIfAbsent(EmailIndex.normalize(email), key -> {
+                List<String> list = new ArrayList<>(2);
+                String owner = indexes.emailOwners.owner(key);
+                if (owner != null) {
+                    list.add(owner);
+                }
+                return list;
+            });
+            rows.add("#" + (row + 1));
+        }
+        uses.values().removeIf(list -> list.size() < 2);
+        return uses;
+    }
+
     /**
      * Update student information (selective fields)
      */
-    public void updateStudent(String studentId, String field, String value) {
+    public synchronized void updateStudent(String studentId, String field, String value) {
+        checkWritable();
         Student student = getStudent(studentId);
         
         try {
             switch (field.toLowerCase()) {
                 case "firstname":
+                    indexes.remove(student);
                     student.setFirstName(value);
+                    indexes.add(student);
                     break;
                 case "lastname":
+                    indexes.remove(student);
                     student.setLastName(value);
+                    indexes.add(student);
                     break;
                 case "email":
+                    indexes.emailOwners.checkAvailable(value, studentId);
+                    indexes.remove(student);
                     student.setEmail(value);
+                    indexes.add(student);
                     break;
                 case "age":
-                    student.setAge(Integer.parseInt(value));
+                    int age = Integer.parseInt(value);
+                    indexes.remove(student);
+                    try {
+                        student.setAge(age);
+                    } finally {
+                        indexes.add(student);
+                    }
                     break;
                 default:
                     throw new IllegalArgumentException("Invalid field: " + field);
             }
+            markDirty(ChangeEvent.Type.UPDATED, student);
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Invalid value for " + field + ": " + value);
         }
@@ -92,65 +464,279 @@ public class StudentManager implements Serializable {
     /**
      * Delete a student by ID
      */
-    public boolean deleteStudent(String studentId) {
+    public synchronized boolean deleteStudent(String studentId) {
+        checkWritable();
         if (students.containsKey(studentId)) {
-            students.remove(studentId);
+            indexes.remove(students.remove(studentId));
+            ids.release(studentId);
+            markDeleted(studentId);
             return true;
         }
         return false;
     }
 
     /**
-     * Search for students by various criteria
+     * Search for students by various criteria. Results are cached per
+     * search term until a matching student changes.
      */
-    public List<Student> searchStudents(String searchTerm) {
+    public synchronized List<Student> searchStudents(String searchTerm) {
         String lowerSearchTerm = searchTerm.toLowerCase();
-        return students.values().stream()
-            .filter(student -> 
-                student.getStudentId().toLowerCase().contains(lowerSearchTerm) ||
-                student.getFirstName().toLowerCase().contains(lowerSearchTerm) ||
-                student.getLastName().toLowerCase().contains(lowerSearchTerm) ||
-                student.getEmail().toLowerCase().contains(lowerSearchTerm)
-            )
+        String key = "search:" + lowerSearchTerm;
+        List<Student> cached = queryCache.get(key, dataVersion);
+        if (cached != null) {
+            return tieredStore == null ? new ArrayList<>(cached) : currentStudents(cached);
+        }
+        Predicate<Student> matcher = student -> matchesSearch(student, lowerSearchTerm);
+        List<Student> results = students.values().stream()
+            .filter(matcher)
             .collect(Collectors.toList());
+        queryCache.putStudents(key, new ArrayList<>(results), matcher);
+        return results;
+    }
+
+    private static boolean matchesSearch(Student student, String lowerSearchTerm) {
+        return containsIgnoreCase(student.getStudentId(), lowerSearchTerm) ||
+               containsIgnoreCase(student.getFirstName(), lowerSearchTerm) ||
+               containsIgnoreCase(student.getLastName(), lowerSearchTerm) ||
+               containsIgnoreCase(student.getEmail(), lowerSearchTerm);
+    }
+
+    /**
+     * Case-insensitive contains without lower-casing a copy of the field;
+     * this runs per student on every search scan and cache invalidation
+     */
+    static boolean containsIgnoreCase(String field, String lowerTerm) {
+        int last = field.length() - lowerTerm.length();
+        for (int i = 0; i <= last; i++) {
+            if (field.regionMatches(true, i, lowerTerm, 0, lowerTerm.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The current objects for cached students. With tiered storage a
+     * cached cold student is a copy read back from disk, which later
+     * course and grade changes do not reach; search membership still
+     * holds, so only the objects are looked up again.
+     */
+    private List<Student> currentStudents(List<Student> cached) {
+        List<Student> current = new ArrayList<>(cached.size());
+        for (Student student : cached) {
+            Student live = tieredStore.current(student.getStudentId());
+            if (live != null) {
+                current.add(live);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Typo-tolerant name search over first and last names, best matches first
+     */
+    public synchronized List<SearchResult> fuzzySearch(String query, int limit) {
+        List<SearchResult> results = new ArrayList<>();
+        if (query == null || query.trim().isEmpty() || limit <= 0) {
+            return results;
+        }
+        for (Map.Entry<String, Double> hit : indexes.names.search(query, limit)) {
+            Student student = students.get(hit.getKey());
+            if (student != null) {
+                results.add(new SearchResult(student, hit.getValue()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * First completions for a prefix of a student ID, last name or email
+     */
+    public synchronized List<String> complete(CompletionField field, String prefix, int limit) {
+        switch (field) {
+            case STUDENT_ID:
+                return indexes.studentIds.complete(prefix, limit);
+            case LAST_NAME:
+                return indexes.lastNames.complete(prefix, limit);
+            case EMAIL:
+                return indexes.emails.complete(prefix, limit);
+            default:
+                throw new IllegalArgumentException("Unsupported completion field: " + field);
+        }
     }
 
     /**
      * Assign a course to a student
      */
-    public void assignCourse(String studentId, String courseCode, String courseName, 
+    public synchronized void assignCourse(String studentId, String courseCode, String courseName, 
                             int credits, double grade) {
+        checkWritable();
         Student student = getStudent(studentId);
         Course course = new Course(courseCode, courseName, credits, grade);
+        indexes.removeEnrollment(student);
         student.addCourse(course);
+        indexes.addEnrollment(student);
+        markDirty(ChangeEvent.Type.COURSE_ASSIGNED, student);
     }
 
     /**
      * Remove a course from a student
      */
-    public void removeCourse(String studentId, String courseCode) {
+    public synchronized void removeCourse(String studentId, String courseCode) {
+        checkWritable();
         Student student = getStudent(studentId);
+        indexes.removeEnrollment(student);
         student.removeCourse(courseCode);
+        indexes.addEnrollment(student);
+        markDirty(ChangeEvent.Type.COURSE_REMOVED, student);
+    }
+
+    /**
+     * Change the grade of a course a student is enrolled in
+     */
+    public synchronized void updateGrade(String studentId, String courseCode, double grade) {
+        checkWritable();
+        Student student = getStudent(studentId);
+        Course course = student.findCourse(courseCode);
+        double oldGrade = course == null ? grade : course.getGrade();
+        double oldGpa = student.getGpa();
+        student.updateGrade(courseCode, grade);
+        indexes.updateGpa(studentId, oldGpa, student.getGpa());
+        indexes.updateGrade(course, oldGrade);
+        markDirty(ChangeEvent.Type.GRADE_UPDATED, student);
+    }
+
+    /**
+     * Regrade every student enrolled in a course in one pass over the course
+     * index. All new grades are validated before any is applied.
+     * Returns the number of students regraded.
+     */
+    public synchronized int regradeCourse(String courseCode, DoubleUnaryOperator regrade) {
+        checkWritable();
+        List<Map.Entry<String, String>> enrolled = new ArrayList<>();
+        indexes.courses.scan(courseCode, courseCode, false, null, null, Integer.MAX_VALUE, enrolled);
+        double[] grades = new double[enrolled.size()];
+        for (int i = 0; i < grades.length; i++) {
+            String studentId = enrolled.get(i).getValue();
+            grades[i] = regrade.applyAsDouble(students.get(studentId).findCourse(courseCode).getGrade());
+            if (grades[i] < 0 || grades[i] > 100) {
+                throw new IllegalArgumentException("Regrade rejected, no changes made: grade for " + studentId
+                                                   + " would be " + grades[i] + " (must be between 0 and 100)");
+            }
+        }
+        for (int i = 0; i < grades.length; i++) {
+            updateGrade(enrolled.get(i).getValue(), courseCode, grades[i]);
+        }
+        return grades.length;
+    }
+
+    /**
+     * Apply a batch of mutations atomically. Every operation is validated
+     * first (against the batch's own earlier operations too); if any fails,
+     * nothing changes. Each touched student then has its courses updated,
+     * GPA recalculated and indexes refreshed exactly once, and the whole
+     * batch is recorded as a single BATCH change event.
+     */
+    public synchronized BatchResult applyBatch(StudentBatch batch) {
+        checkWritable();
+        List<String> errors = new ArrayList<>();
+        List<StudentBatch.Operation> creates = new ArrayList<>();
+        Map<String, Map<String, Course>> changes = new LinkedHashMap<>(); // studentId -> code -> new course or null
+        Map<String, Integer> newEmails = new HashMap<>(); // normalized email -> position of the create using it
+        int position = 0;
+        for (StudentBatch.Operation op : batch.operations()) {
+            position++;
+            try {
+                if (op.type == StudentBatch.Type.CREATE) {
+                    new Student("PENDING", op.firstName, op.lastName, op.email, op.age); // field validation only
+                    indexes.emailOwners.checkAvailable(op.email, null);
+                    Integer earlier = newEmails.putIfAbsent(EmailIndex.normalize(op.email), position);
+                    if (earlier != null) {
+                        throw new IllegalArgumentException("Email " + op.email.trim() + " is also used by operation #" + earlier);
+                    }
+                    creates.add(op);
+                    continue;
+                }
+                Student student = getStudent(op.studentId);
+                Map<String, Course> pending = changes.computeIfAbsent(op.studentId, k -> new LinkedHashMap<>());
+                Course current = pending.containsKey(op.courseCode) ? pending.get(op.courseCode) : student.findCourse(op.courseCode);
+                switch (op.type) {
+                    case ASSIGN_COURSE:
+                        if (op.credits <= 0) {
+                            throw new IllegalArgumentException("Credits must be positive");
+                        }
+                        Course course = new Course(op.courseCode, op.courseName, op.credits, op.grade);
+                        if (current == null) {
+                            pending.put(op.courseCode, course);
+                        }
+                        break;
+                    case REMOVE_COURSE:
+                        pending.put(op.courseCode, null);
+                        break;
+                    case UPDATE_GRADE:
+                        if (current == null) {
+                            throw new IllegalArgumentException("Student " + op.studentId + " is not enrolled in " + op.courseCode);
+                        }
+                        pending.put(op.courseCode, new Course(current.getCourseCode(), current.getCourseName(),
+                                                              current.getCredits(), op.grade));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported batch operation: " + op.type);
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add("#" + position + " " + op.type + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            List<String> shown = errors.subList(0, Math.min(errors.size(), 5));
+            throw new IllegalArgumentException("Batch rejected, no changes made. " + errors.size() + " invalid operation(s): "
+                                               + String.join("; ", shown) + (errors.size() > shown.size() ? "; ..." : ""));
+        }
+
+        List<String> createdIds = new ArrayList<>(creates.size());
+        List<Student> touched = new ArrayList<>(creates.size() + changes.size());
+        IdAllocator.Block block = creates.isEmpty() ? null : ids.reserve(creates.size());
+        for (StudentBatch.Operation op : creates) {
+            String studentId = block.next();
+            Student student = new Student(studentId, op.firstName, op.lastName, op.email, op.age);
+            student.setGradingScale(getGradingScale());
+            students.put(studentId, student);
+            ids.markUsed(studentId);
+            indexes.add(student);
+            markChanged(ChangeEvent.Type.CREATED, student);
+            touched.add(student);
+            createdIds.add(studentId);
+        }
+        for (Map.Entry<String, Map<String, Course>> entry : changes.entrySet()) {
+            Student student = students.get(entry.getKey());
+            indexes.removeEnrollment(student);
+            student.applyCourseChanges(entry.getValue());
+            indexes.addEnrollment(student);
+            markChanged(ChangeEvent.Type.UPDATED, student);
+            touched.add(student);
+        }
+        recordBatch(touched);
+        return new BatchResult(batch.size(), changes.size(), createdIds);
     }
 
     /**
      * Get all students
      */
-    public List<Student> getAllStudents() {
+    public synchronized List<Student> getAllStudents() {
         return new ArrayList<>(students.values());
     }
 
     /**
      * Get total number of students
      */
-    public int getTotalStudents() {
+    public synchronized int getTotalStudents() {
         return students.size();
     }
 
     /**
      * Check if a student exists
      */
-    public boolean studentExists(String studentId) {
+    public synchronized boolean studentExists(String studentId) {
         return students.containsKey(studentId);
     }
 
@@ -158,8 +744,373 @@ public class StudentManager implements Serializable {
      * Get students with GPA above threshold
      */
     public List<Student> getStudentsByMinGPA(double minGPA) {
-        return students.values().stream()
-            .filter(student -> student.getGpa() >= minGPA)
-            .collect(Collectors.toList());
+        List<Student> result = new ArrayList<>();
+        try (QueryCursor cursor = query(StudentQuery.create().gpaAtLeast(minGPA))) {
+            cursor.forEachRemaining(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Student count, enrolled count and average GPA, cached until the
+     * roster next changes
+     */
+    public synchronized RosterStatistics getStatistics() {
+        RosterStatistics cached = queryCache.get("statistics", dataVersion);
+        if (cached != null) {
+            return cached;
+        }
+        int withCourses = 0;
+        double gpaSum = 0.0;
+        for (Student student : students.values()) {
+            gpaSum += student.getGpa();
+            if (student.getTotalCredits() > 0) {
+                withCourses++;
+            }
+        }
+        RosterStatistics statistics = new RosterStatistics(students.size(), withCourses, gpaSum);
+        queryCache.putAggregate("statistics", dataVersion, statistics);
+        return statistics;
+    }
+
+    /**
+     * Enrollments, mean grade, pass rate, credits and letter distribution
+     * of one course under the active grading scale, or null if nobody is
+     * enrolled. Read from totals kept up to date on every change.
+     */
+    public synchronized CourseStatistics getCourseStatistics(String courseCode) {
+        return indexes.courseTotals.get(courseCode, getGradingScale());
+    }
+
+    /**
+     * Statistics of every course anyone is enrolled in, by course code
+     */
+    public synchronized List<CourseStatistics> getCourseStatistics() {
+        List<CourseStatistics> all = indexes.courseTotals.getAll(getGradingScale());
+        all.sort((a, b) -> a.getCourseCode().compareTo(b.getCourseCode()));
+        return all;
+    }
+
+    /**
+     * Number of distinct courses anyone is enrolled in
+     */
+    public synchronized int getCourseCount() {
+        return indexes.courseTotals.size();
+    }
+
+    /**
+     * Recompute the course totals from every student in parallel, e.g.
+     * to check them against the incrementally kept ones. Paged-out
+     * students are read back. Returns the number of courses.
+     */
+    public synchronized int rebuildCourseStatistics() {
+        indexes.rebuildCourseTotals(students.values());
+        return indexes.courseTotals.size();
+    }
+
+    /**
+     * Students with at least the given GPA, best first, cached until the
+     * roster next changes
+     */
+    public synchronized List<Student> getTopStudents(double minGPA) {
+        String key = "top:" + minGPA;
+        List<Student> cached = queryCache.get(key, dataVersion);
+        if (cached == null) {
+            cached = new ArrayList<>();
+            try (QueryCursor cursor = query(StudentQuery.create().gpaAtLeast(minGPA)
+                    .sortBy(StudentQuery.SortField.GPA, true))) {
+                cursor.forEachRemaining(cached::add);
+            }
+            queryCache.putAggregate(key, dataVersion, cached);
+        }
+        return new ArrayList<>(cached);
+    }
+
+    /**
+     * Hit, miss, eviction and invalidation counters of the query cache
+     */
+    public synchronized QueryCache.Stats getQueryCacheStats() {
+        return queryCache.stats();
+    }
+
+    /**
+     * Run a composite query. The planner picks the most selective index,
+     * remaining predicates are applied lazily, and results are pulled
+     * through the returned cursor in small chunks rather than copied.
+     */
+    public synchronized QueryCursor query(StudentQuery query) {
+        return QueryPlanner.open(this, students, indexes, query);
+    }
+
+    /**
+     * Grading scale used for this roster's grade points and letters
+     */
+    public synchronized GradingScale getGradingScale() {
+        return gradingScale == null ? GradingScale.STANDARD : GradingScale.forName(gradingScale);
+    }
+
+    /**
+     * Switch grading scale and recalculate every student's GPA with a
+     * GpaRecomputeJob. The switch is made under the lock; the job then
+     * computes without it and publishes all new GPAs in one step, so the
+     * manager stays usable meanwhile and no reader sees a mix of old and
+     * new GPAs. Call it without holding this manager's lock, or the whole
+     * job runs under it.
+     */
+    public GpaRecomputeJob.Result setGradingScale(GradingScale scale, GpaRecomputeJob.ProgressListener listener) {
+        if (scale == null) {
+            throw new IllegalArgumentException("Grading scale cannot be null");
+        }
+        synchronized (this) {
+            checkWritable();
+            gradingScale = scale.getName();
+            if (tieredStore != null) {
+                tieredStore.setGradingScale(scale);
+            }
+            gradingScaleChanged = true;
+            countMutation();
+            dataVersion++;
+            record(ChangeEvent.Type.GRADING_SCALE_CHANGED, null, null, gradingScale);
+        }
+        return new GpaRecomputeJob(this).onProgress(listener).run();
+    }
+
+    public GpaRecomputeJob.Result setGradingScale(GradingScale scale) {
+        return setGradingScale(scale, null);
+    }
+
+    // Hooks for GpaRecomputeJob; callers hold this manager's lock
+
+    Collection<Student> studentValues() {
+        return students.values();
+    }
+
+    /** Students on the heap: all of them unless tiered storage is enabled */
+    Collection<Student> loadedStudentValues() {
+        return tieredStore != null ? tieredStore.hotValues() : students.values();
+    }
+
+    /** A student on the heap, or null; never reads a paged-out student back */
+    Student lookup(String studentId) {
+        return tieredStore != null ? tieredStore.peekHot(studentId) : students.get(studentId);
+    }
+
+    /** True if some students are paged out and only get new GPAs when read back */
+    boolean hasColdTier() {
+        return tieredStore != null;
+    }
+
+    void gpaChanged(Student student, double oldGpa) {
+        indexes.updateGpa(student.getStudentId(), oldGpa, student.getGpa());
+        dataVersion++;
+    }
+
+    void rebuildGpaIndex() {
+        indexes.rebuildGpas(students.values());
+        dataVersion++;
+    }
+
+    /**
+     * Number of mutations since this manager was created or loaded
+     */
+    public synchronized long getMutationCount() {
+        return mutationCount;
+    }
+
+    /**
+     * Mutation count right after the calling thread's latest change, or 0.
+     * Sessions sharing this manager tag their logs with it, so the changes
+     * can later be put back in the order the manager applied them.
+     */
+    public long getLastMutationOfCurrentThread() {
+        return lastMutationByThread.get()[0];
+    }
+
+    /**
+     * Check if there are changes not yet drained to disk, including a
+     * grading scale change
+     */
+    public synchronized boolean hasPendingChanges() {
+        return !dirtyIds.isEmpty() || !deletedIds.isEmpty() || gradingScaleChanged;
+    }
+
+    /**
+     * Next numeric ID the generator will try (persisted high-water mark)
+     */
+    public synchronized int getNextId() {
+        return ids.getHighWater();
+    }
+
+    /**
+     * Journal sequence of the last delta segment reflected in this state
+     */
+    public synchronized long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /**
+     * Take the set of changed and deleted students and reset dirty tracking.
+     * A non-empty change set advances the journal sequence. The returned
+     * records are live objects; callers must encode them while holding this
+     * manager's lock.
+     */
+    public synchronized ChangeSet drainChanges() {
+        Map<String, Student> updated = new LinkedHashMap<>();
+        for (String id : dirtyIds) {
+            Student student = students.get(id);
+            if (student != null) {
+                updated.put(id, student);
+            }
+        }
+        Set<String> deleted = new LinkedHashSet<>(deletedIds);
+        String scaleChange = gradingScaleChanged ? getGradingScale().getName() : null;
+        dirtyIds.clear();
+        deletedIds.clear();
+        gradingScaleChanged = false;
+        if (!updated.isEmpty() || !deleted.isEmpty() || scaleChange != null) {
+            journalSequence++;
+        }
+        return new ChangeSet(journalSequence, updated, deleted, ids.getHighWater(), scaleChange);
+    }
+
+    /**
+     * Start recording every mutation as a ChangeEvent in a bounded log.
+     * Returns the existing log if one is already enabled.
+     */
+    public synchronized MutationLog enableMutationLog(int capacity) {
+        if (mutationLog == null) {
+            mutationLog = new MutationLog(capacity, lastEventSequence);
+        }
+        return mutationLog;
+    }
+
+    /** The mutation log, or null if not enabled */
+    public synchronized MutationLog getMutationLog() {
+        return mutationLog;
+    }
+
+    /**
+     * Start publishing every mutation to a ChangeFeed. Returns the
+     * existing feed if one is enabled.
+     */
+    public synchronized ChangeFeed enableChangeFeed() {
+        if (changeFeed == null) {
+            changeFeed = new ChangeFeed();
+        }
+        return changeFeed;
+    }
+
+    /**
+     * Subscribe to every change committed from now on, enabling the
+     * change feed if needed. Delivery is asynchronous; see ChangeFeed.
+     */
+    public synchronized void subscribe(Flow.Subscriber<? super ChangeEvent> subscriber) {
+        enableChangeFeed().subscribe(subscriber);
+    }
+
+    /** The change feed, or null if not enabled */
+    public synchronized ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Keep only about hotBudgetBytes of recently used students on the heap
+     * and page the rest out to a scratch file in the given directory,
+     * reading them back on demand. Returns the existing store if tiered
+     * storage is already enabled.
+     */
+    public synchronized TieredStudentStore enableTieredStorage(Path directory, long hotBudgetBytes) throws IOException {
+        if (tieredStore == null) {
+            TieredStudentStore store = new TieredStudentStore(directory, hotBudgetBytes);
+            store.setGradingScale(getGradingScale());
+            store.pageOut(students.values());
+            students = store;
+            tieredStore = store;
+        }
+        return tieredStore;
+    }
+
+    /** The tiered store, or null if all students are kept on the heap */
+    public synchronized TieredStudentStore getTieredStorage() {
+        return tieredStore;
+    }
+
+    /**
+     * Reject local mutations; a replica only changes through applyEvent
+     */
+    public synchronized void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public synchronized boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Apply a change event recorded by another manager (used by replicas)
+     */
+    public synchronized void applyEvent(ChangeEvent event) {
+        if (event.getType() == ChangeEvent.Type.GRADING_SCALE_CHANGED) {
+            gradingScale = event.getGradingScale();
+            applyGradingScale();
+            indexes.rebuildGpas(students.values());
+        } else if (event.getType() == ChangeEvent.Type.DELETED) {
+            Student previous = students.remove(event.getStudentId());
+            if (previous != null) {
+                indexes.remove(previous);
+            }
+            ids.release(event.getStudentId());
+            queryCache.studentChanged(event.getStudentId(), null);
+        } else {
+            for (Student student : event.getStudents()) {
+                student.setGradingScale(getGradingScale());
+                Student previous = students.put(student.getStudentId(), student);
+                if (previous != null) {
+                    indexes.remove(previous);
+                }
+                ids.markUsed(student.getStudentId());
+                indexes.add(student);
+                // The replica holds a new object, so searches containing the old one are dropped too
+                queryCache.studentChanged(student.getStudentId(), student);
+            }
+        }
+        dataVersion++;
+        ids.advancePast(event.getNextId() - 1);
+        // A replica's feed carries the primary's events and sequence numbers
+        lastEventSequence = Math.max(lastEventSequence, event.getSequence());
+        if (changeFeed != null) {
+            changeFeed.publish(event);
+        }
+    }
+
+    /**
+     * Apply a delta segment read back from disk (used when loading)
+     */
+    public synchronized void applyChanges(ChangeSet changes) {
+        if (changes.getGradingScale() != null) {
+            gradingScale = changes.getGradingScale();
+            applyGradingScale();
+            rebuildIndexes();
+        }
+        for (Student student : changes.getUpdated()) {
+            student.setGradingScale(getGradingScale());
+            Student previous = students.put(student.getStudentId(), student);
+            if (previous != null) {
+                indexes.remove(previous);
+            }
+            ids.markUsed(student.getStudentId());
+            indexes.add(student);
+        }
+        for (String id : changes.getDeleted()) {
+            Student previous = students.remove(id);
+            if (previous != null) {
+                indexes.remove(previous);
+            }
+            ids.release(id);
+        }
+        queryCache.clear();
+        dataVersion++;
+        ids.advancePast(changes.getNextId() - 1);
+        journalSequence = Math.max(journalSequence, changes.getSequence());
     }
 }
@@ -0,0 +1,221 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.Student;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Composite student query: predicates on age, GPA, course, credits, grade
+ * and name fields, with optional sort and limit. Unset predicates match
+ * everything. Built fluently, e.g.
+ *
+ *   StudentQuery.create().enrolledIn("CS101").gpaAtLeast(3.0)
+ *               .sortBy(SortField.GPA, true).limit(10)
+ */
+public class StudentQuery {
+
+    /** Fields a query can be sorted on */
+    public enum SortField {
+        STUDENT_ID,
+        LAST_NAME,
+        AGE,
+        GPA
+    }
+
+    Integer minAge;
+    Integer maxAge;
+    Double minGpa;
+    Double maxGpa;
+    String courseCode;
+    Integer minCredits;
+    Integer maxCredits;
+    Double minGrade;
+    Double maxGrade;
+    String idPrefix;
+    String firstNamePrefix;
+    String lastNamePrefix;
+    String emailPrefix;
+    String nameContains;
+    SortField sortField;
+    boolean descending;
+    int limit = Integer.MAX_VALUE;
+
+    private StudentQuery() {}
+
+    public static StudentQuery create() {
+        return new StudentQuery();
+    }
+
+    public StudentQuery ageBetween(int min, int max) {
+        this.minAge = min;
+        this.maxAge = max;
+        return this;
+    }
+
+    public StudentQuery gpaAtLeast(double min) {
+        this.minGpa = min;
+        return this;
+    }
+
+    public StudentQuery gpaBetween(double min, double max) {
+        this.minGpa = min;
+        this.maxGpa = max;
+        return this;
+    }
+
+    /** Students enrolled in the given course code */
+    public StudentQuery enrolledIn(String courseCode) {
+        this.courseCode = courseCode == null ? null : courseCode.trim().toUpperCase(Locale.ROOT);
+        return this;
+    }
+
+    /** Total enrolled credits within [min, max] */
+    public StudentQuery creditsBetween(int min, int max) {
+        this.minCredits = min;
+        this.maxCredits = max;
+        return this;
+    }
+
+    /**
+     * Grade within [min, max] in the course given by enrolledIn,
+     * or in any course when no course is given
+     */
+    public StudentQuery gradeBetween(double min, double max) {
+        this.minGrade = min;
+        this.maxGrade = max;
+        return this;
+    }
+
+    public StudentQuery idStartsWith(String prefix) {
+        this.idPrefix = prefix;
+        return this;
+    }
+
+    public StudentQuery firstNameStartsWith(String prefix) {
+        this.firstNamePrefix = prefix;
+        return this;
+    }
+
+    public StudentQuery lastNameStartsWith(String prefix) {
+        this.lastNamePrefix = prefix;
+        return this;
+    }
+
+    public StudentQuery emailStartsWith(String prefix) {
+        this.emailPrefix = prefix;
+        return this;
+    }
+
+    /** First or last name contains the text (case-insensitive) */
+    public StudentQuery nameContains(String text) {
+        this.nameContains = text;
+        return this;
+    }
+
+    public StudentQuery sortBy(SortField field, boolean descending) {
+        this.sortField = field;
+        this.descending = descending;
+        return this;
+    }
+
+    public StudentQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Evaluate every predicate against a student. Reads its course list, so
+     * call it under the lock of the manager that owns the student.
+     */
+    public boolean matches(Student student) {
+        if (minAge != null && student.getAge() < minAge) return false;
+        if (maxAge != null && student.getAge() > maxAge) return false;
+        if (minGpa != null && student.getGpa() < minGpa) return false;
+        if (maxGpa != null && student.getGpa() > maxGpa) return false;
+        if (idPrefix != null && !startsWithIgnoreCase(student.getStudentId(), idPrefix)) return false;
+        if (firstNamePrefix != null && !startsWithIgnoreCase(student.getFirstName(), firstNamePrefix)) return false;
+        if (lastNamePrefix != null && !startsWithIgnoreCase(student.getLastName(), lastNamePrefix)) return false;
+        if (emailPrefix != null && !startsWithIgnoreCase(student.getEmail(), emailPrefix)) return false;
+        if (nameContains != null
+                && !containsIgnoreCase(student.getFirstName(), nameContains)
+                && !containsIgnoreCase(student.getLastName(), nameContains)) return false;
+        if (minCredits != null || maxCredits != null) {
+            int credits = student.getTotalCredits();
+            if (minCredits != null && credits < minCredits) return false;
+            if (maxCredits != null && credits > maxCredits) return false;
+        }
+        if (courseCode != null || minGrade != null || maxGrade != null) {
+            return matchesCourses(student);
+        }
+        return true;
+    }
+
+    private boolean matchesCourses(Student student) {
+        for (Course course : student.getCourseList()) {
+            if (courseCode != null && !courseCode.equals(course.getCourseCode())) continue;
+            if (minGrade != null && course.getGrade() < minGrade) continue;
+            if (maxGrade != null && course.getGrade() > maxGrade) continue;
+            return true;
+        }
+        return false;
+    }
+
+    /** Comparator for the sort field, matching the order of its index */
+    Comparator<Student> comparator() {
+        Comparator<Student> byId = Comparator.comparing(Student::getStudentId);
+        Comparator<Student> order;
+        switch (sortField) {
+            case LAST_NAME:
+                order = Comparator.comparing((Student s) -> PrefixIndex.normalize(s.getLastName())).thenComparing(byId);
+                break;
+            case AGE:
+                order = Comparator.comparingInt(Student::getAge).thenComparing(byId);
+                break;
+            case GPA:
+                order = Comparator.comparingDouble(Student::getGpa).thenComparing(byId);
+                break;
+            default:
+                order = Comparator.comparing((Student s) -> PrefixIndex.normalize(s.getStudentId())).thenComparing(byId);
+        }
+        return descending ? order.reversed() : order;
+    }
+
+    /** Human-readable list of the active predicates */
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (minAge != null || maxAge != null) parts.add("age " + range(minAge, maxAge));
+        if (minGpa != null || maxGpa != null) parts.add("gpa " + range(minGpa, maxGpa));
+        if (courseCode != null) parts.add("course = " + courseCode);
+        if (minCredits != null || maxCredits != null) parts.add("credits " + range(minCredits, maxCredits));
+        if (minGrade != null || maxGrade != null) parts.add("grade " + range(minGrade, maxGrade));
+        if (idPrefix != null) parts.add("id starts with '" + idPrefix + "'");
+        if (firstNamePrefix != null) parts.add("first name starts with '" + firstNamePrefix + "'");
+        if (lastNamePrefix != null) parts.add("last name starts with '" + lastNamePrefix + "'");
+        if (emailPrefix != null) parts.add("email starts with '" + emailPrefix + "'");
+        if (nameContains != null) parts.add("name contains '" + nameContains + "'");
+        return parts.isEmpty() ? "all students" : String.join(" and ", parts);
+    }
+
+    private static String range(Object min, Object max) {
+        return "[" + (min == null ? "-inf" : min) + " .. " + (max == null ? "+inf" : max) + "]";
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean containsIgnoreCase(String value, String text) {
+        for (int i = 0; i + text.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
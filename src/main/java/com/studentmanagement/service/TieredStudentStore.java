@@ -0,0 +1,677 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Student map that keeps recently used students on the heap and pages
+ * the rest out to a local file.
+ *
+ * The hot tier is an LRU map limited by an estimated byte budget. A
+ * student read through get() is faulted in from the cold file and
+ * becomes hot; iteration reads cold students without caching them, so a
+ * full scan does not flush the working set. A hot student that changed
+ * is written back when it is evicted; an unchanged one is dropped, since
+ * its record is still current.
+ *
+ * Cold records hold fields and courses but not GPAs, which are
+ * recalculated under the owning manager's grading scale whenever a
+ * record is read back. The file is scratch space: the roster is still saved through
+ * DataStore, and the file is deleted when the store is closed.
+ *
+ * Not thread-safe; StudentManager only uses it under its own lock, and
+ * relies on being told through written() when it changes a student.
+ */
+public class TieredStudentStore extends AbstractMap<String, Student> implements AutoCloseable {
+    /** Rewrite the cold file once stale records outweigh live ones and pass this size */
+    private static final long COMPACT_MIN_GARBAGE = 16L << 20;
+    private static final int PAGE_OUT_BUFFER = 1 << 20;
+    private static final int MAX_RECORD = 1 << 24;
+
+    /**
+     * Snapshot of the store counters
+     */
+    public static class Stats {
+        private final long hits;
+        private final long faults;
+        private final long evictions;
+        private final long writeBacks;
+        private final int hotCount;
+        private final int coldCount;
+        private final long hotBytes;
+        private final long budgetBytes;
+        private final long fileBytes;
+
+        Stats(long hits, long faults, long evictions, long writeBacks, int hotCount, int coldCount,
+              long hotBytes, long budgetBytes, long fileBytes) {
+            this.hits = hits;
+            this.faults = faults;
+            this.evictions = evictions;
+            this.writeBacks = writeBacks;
+            this.hotCount = hotCount;
+            this.coldCount = coldCount;
+            this.hotBytes = hotBytes;
+            this.budgetBytes = budgetBytes;
+            this.fileBytes = fileBytes;
+        }
+
+        /** Lookups answered from the heap */
+        public long getHits() {
+            return hits;
+        }
+
+        /** Lookups that read the student back from the cold file */
+        public long getFaults() {
+            return faults;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /** Evicted students that had changed and were written to the cold file */
+        public long getWriteBacks() {
+            return writeBacks;
+        }
+
+        public int getHotCount() {
+            return hotCount;
+        }
+
+        /** Students with a record in the cold file, some of them also hot */
+        public int getColdCount() {
+            return coldCount;
+        }
+
+        /** Estimated heap used by hot students */
+        public long getHotBytes() {
+            return hotBytes;
+        }
+
+        public long getBudgetBytes() {
+            return budgetBytes;
+        }
+
+        public long getFileBytes() {
+            return fileBytes;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + faults;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hot (%d/%d KB), %d on disk (%d KB file), %d hit(s), %d fault(s) (%.0f%% hit rate), "
+                                 + "%d eviction(s), %d write-back(s)",
+                                 hotCount, hotBytes >> 10, budgetBytes >> 10, coldCount, fileBytes >> 10,
+                                 hits, faults, getHitRate() * 100, evictions, writeBacks);
+        }
+    }
+
+    private static class Hot {
+        final Student student;
+        int bytes;
+        boolean dirty;
+
+        Hot(Student student, int bytes, boolean dirty) {
+            this.student = student;
+            this.bytes = bytes;
+            this.dirty = dirty;
+        }
+    }
+
+    private final Path file;
+    private final long budgetBytes;
+    private final LinkedHashMap<String, Hot> hot = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> cold = new HashMap<>(); // id -> record location in the file
+    private FileChannel channel;
+    private long fileEnd;
+    private long liveBytes;
+    private long garbageBytes;
+    private long hotBytes;
+    private int size;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private GradingScale gradingScale = GradingScale.STANDARD;
+
+    private long hits;
+    private long faults;
+    private long evictions;
+    private long writeBacks;
+
+    /**
+     * Create a store paging to a new temporary file in the given
+     * directory, keeping about budgetBytes of students on the heap
+     */
+    public TieredStudentStore(Path directory, long budgetBytes) throws IOException {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Hot tier budget must be positive");
+        }
+        Files.createDirectories(directory);
+        this.file = Files.createTempFile(directory, "students-cold-", ".tmp");
+        this.budgetBytes = budgetBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                        StandardOpenOption.DELETE_ON_CLOSE);
+        file.toFile().deleteOnExit();
+    }
+
+    /** Scale that students read back from the cold file are put on */
+    void setGradingScale(GradingScale scale) {
+        this.gradingScale = scale;
+    }
+
+    /**
+     * Write students straight to the cold file without making them hot,
+     * e.g. when tiering a roster that was loaded in full
+     */
+    public void pageOut(Collection<Student> students) {
+        ByteBuffer batch = ByteBuffer.allocate(PAGE_OUT_BUFFER);
+        long batchStart = fileEnd;
+        for (Student student : students) {
+            ByteBuffer record = encode(student);
+            if (record.remaining() > batch.remaining()) {
+                batchStart += flush(batch, batchStart);
+            }
+            if (record.remaining() > batch.remaining()) {
+                write(record, batchStart); // larger than the whole batch buffer
+                batchStart += record.limit();
+            } else {
+                batch.put(record);
+            }
+            String studentId = student.getStudentId();
+            long location = location(batchStart + batch.position() - record.limit(), record.limit());
+            Hot previous = hot.remove(studentId);
+            if (previous != null) {
+                hotBytes -= previous.bytes;
+            } else if (!cold.containsKey(studentId)) {
+                size++;
+            }
+            replaceLocation(studentId, location);
+        }
+        flush(batch, batchStart);
+    }
+
+    private int flush(ByteBuffer batch, long position) {
+        batch.flip();
+        int length = batch.remaining();
+        write(batch, position);
+        fileEnd = position + length;
+        batch.clear();
+        return length;
+    }
+
+    @Override
+    public Student get(Object key) {
+        Hot entry = hot.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.student;
+        }
+        Long location = cold.get(key);
+        if (location == null) {
+            return null;
+        }
+        faults++;
+        Student student = read(location);
+        admit((String) key, student, false);
+        return student;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return hot.containsKey(key) || cold.containsKey(key);
+    }
+
+    @Override
+    public Student put(String studentId, Student student) {
+        Student previous = peek(studentId);
+        if (previous == null) {
+            size++;
+        }
+        admit(studentId, student, true);
+        return previous;
+    }
+
+    @Override
+    public Student remove(Object key) {
+        Student previous = peek(key);
+        if (previous == null) {
+            return null;
+        }
+        Hot entry = hot.remove(key);
+        if (entry != null) {
+            hotBytes -= entry.bytes;
+        }
+        Long location = cold.remove(key);
+        if (location != null) {
+            liveBytes -= lengthOf(location);
+            garbageBytes += lengthOf(location);
+        }
+        size--;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        hot.clear();
+        cold.clear();
+        hotBytes = 0;
+        liveBytes = 0;
+        garbageBytes = fileEnd;
+        size = 0;
+    }
+
+    /**
+     * Record that a student was changed in place. It becomes (or stays)
+     * hot and is written back when evicted.
+     */
+    public void written(Student student) {
+        String studentId = student.getStudentId();
+        if (!containsKey(studentId)) {
+            return;
+        }
+        Hot entry = hot.get(studentId);
+        if (entry == null || entry.student != student) {
+            admit(studentId, student, true);
+            return;
+        }
+        entry.dirty = true;
+        int bytes = estimateBytes(student);
+        hotBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+        evictToBudget();
+    }
+
+    /** The students currently on the heap, without reading any back */
+    public Collection<Student> hotValues() {
+        List<Student> values = new ArrayList<>(hot.size());
+        for (Hot entry : hot.values()) {
+            values.add(entry.student);
+        }
+        return values;
+    }
+
+    /** The hot student with this ID, or null; never reads from disk */
+    public Student peekHot(String studentId) {
+        Hot entry = hot.get(studentId);
+        return entry == null ? null : entry.student;
+    }
+
+    public Stats getStats() {
+        return new Stats(hits, faults, evictions, writeBacks, hot.size(), cold.size(), hotBytes, budgetBytes, fileEnd);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Student>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Student>>() {
+            @Override
+            public Iterator<Map.Entry<String, Student>> iterator() {
+                Iterator<Student> students = values().iterator();
+                return new Iterator<Map.Entry<String, Student>>() {
+                    public boolean hasNext() {
+                        return students.hasNext();
+                    }
+
+                    public Map.Entry<String, Student> next() {
+                        Student student = students.next();
+                        return new SimpleImmutableEntry<>(student.getStudentId(), student);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<String> hotKeys = hot.keySet().iterator();
+                Iterator<String> coldKeys = cold.keySet().iterator();
+                return new Iterator<String>() {
+                    private String next = advance();
+
+                    private String advance() {
+                        if (hotKeys.hasNext()) {
+                            return hotKeys.next();
+                        }
+                        while (coldKeys.hasNext()) {
+                            String key = coldKeys.next();
+                            if (!hot.containsKey(key)) {
+                                return key;
+                            }
+                        }
+                        return null;
+                    }
+
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    public String next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        String key = next;
+                        next = advance();
+                        return key;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Hot students as they are, then cold students read back from the
+     * file without being cached
+     */
+    @Override
+    public Collection<Student> values() {
+        return new AbstractCollection<Student>() {
+            @Override
+            public Iterator<Student> iterator() {
+                Iterator<Hot> hotEntries = hot.values().iterator();
+                Iterator<Map.Entry<String, Long>> coldEntries = cold.entrySet().iterator();
+                return new Iterator<Student>() {
+                    private long nextLocation = -1;
+
+                    public boolean hasNext() {
+                        if (hotEntries.hasNext() || nextLocation >= 0) {
+                            return true;
+                        }
+                        while (coldEntries.hasNext()) {
+                            Map.Entry<String, Long> entry = coldEntries.next();
+                            if (!hot.containsKey(entry.getKey())) {
+                                nextLocation = entry.getValue();
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+
+                    public Student next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        if (hotEntries.hasNext()) {
+                            return hotEntries.next().student;
+                        }
+                        long location = nextLocation;
+                        nextLocation = -1;
+                        return read(location);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** Current student with this ID, or null; a cold one is read back without making it hot */
+    Student current(String studentId) {
+        return peek(studentId);
+    }
+
+    /** Current student without making it hot */
+    private Student peek(Object key) {
+        Hot entry = hot.get(key);
+        if (entry != null) {
+            return entry.student;
+        }
+        Long location = cold.get(key);
+        return location == null ? null : read(location);
+    }
+
+    private void admit(String studentId, Student student, boolean dirty) {
+        Hot entry = new Hot(student, estimateBytes(student), dirty);
+        Hot previous = hot.put(studentId, entry);
+        if (previous != null) {
+            hotBytes -= previous.bytes;
+            entry.dirty |= previous.dirty;
+        }
+        hotBytes += entry.bytes;
+        evictToBudget();
+    }
+
+    /** Evict least recently used students, always keeping the newest */
+    private void evictToBudget() {
+        Iterator<Map.Entry<String, Hot>> it = hot.entrySet().iterator();
+        while (hotBytes > budgetBytes && hot.size() > 1) {
+            Map.Entry<String, Hot> eldest = it.next();
+            Hot entry = eldest.getValue();
+            if (entry.dirty || !cold.containsKey(eldest.getKey())) {
+                append(eldest.getKey(), entry.student);
+                writeBacks++;
+            }
+            it.remove();
+            hotBytes -= entry.bytes;
+            evictions++;
+        }
+        if (garbageBytes > liveBytes && garbageBytes > COMPACT_MIN_GARBAGE) {
+            compact();
+        }
+    }
+
+    private void append(String studentId, Student student) {
+        ByteBuffer record = encode(student);
+        int length = record.limit();
+        write(record, fileEnd);
+        replaceLocation(studentId, location(fileEnd, length));
+        fileEnd += length;
+    }
+
+    private void replaceLocation(String studentId, long location) {
+        Long previous = cold.put(studentId, location);
+        if (previous != null) {
+            liveBytes -= lengthOf(previous);
+            garbageBytes += lengthOf(previous);
+        }
+        liveBytes += lengthOf(location);
+    }
+
+    /**
+     * Copy live records to a new file and drop the stale ones
+     */
+    private void compact() {
+        Path target = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, Long> entry : cold.entrySet()) {
+                long location = entry.getValue();
+                int length = lengthOf(location);
+                channel.transferTo(positionOf(location), length, out);
+                entry.setValue(location(position, length));
+                position += length;
+            }
+            channel.close(); // deletes the old file
+            Files.move(target, file, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                       StandardOpenOption.DELETE_ON_CLOSE);
+            fileEnd = position;
+            liveBytes = position;
+            garbageBytes = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact " + file, e);
+        }
+    }
+
+    private void write(ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+    }
+
+    private Student read(long location) {
+        int length = lengthOf(location);
+        ByteBuffer buffer = scratch(length);
+        buffer.limit(length);
+        long position = positionOf(location);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+        buffer.flip();
+        return decode(buffer);
+    }
+
+    private ByteBuffer scratch(int capacity) {
+        if (scratch.capacity() < capacity) {
+            scratch = ByteBuffer.allocate(Math.max(capacity, scratch.capacity() * 2));
+        }
+        scratch.clear();
+        return scratch;
+    }
+
+    // Record: id, first name, last name, email, age, course count, courses (code, name, credits, grade)
+
+    private ByteBuffer encode(Student student) {
+        List<Course> courses = student.getCourseList();
+        byte[][] strings = new byte[4 + courses.size() * 2][];
+        strings[0] = utf8(student.getStudentId());
+        strings[1] = utf8(student.getFirstName());
+        strings[2] = utf8(student.getLastName());
+        strings[3] = utf8(student.getEmail());
+        int length = 4 + 4;
+        for (int i = 0; i < courses.size(); i++) {
+            strings[4 + i * 2] = utf8(courses.get(i).getCourseCode());
+            strings[5 + i * 2] = utf8(courses.get(i).getCourseName());
+            length += 4 + 8;
+        }
+        for (byte[] string : strings) {
+            length += 4 + string.length;
+        }
+        if (length >= MAX_RECORD) {
+            throw new IllegalArgumentException("Student record too large to page out: " + student.getStudentId());
+        }
+        ByteBuffer buffer = scratch(length);
+        for (int i = 0; i < 4; i++) {
+            putString(buffer, strings[i]);
+        }
+        buffer.putInt(student.getAge());
+        buffer.putInt(courses.size());
+        for (int i = 0; i < courses.size(); i++) {
+            putString(buffer, strings[4 + i * 2]);
+            putString(buffer, strings[5 + i * 2]);
+            buffer.putInt(courses.get(i).getCredits());
+            buffer.putDouble(courses.get(i).getGrade());
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private Student decode(ByteBuffer buffer) {
+        Student student = new Student(getString(buffer), getString(buffer), getString(buffer), getString(buffer),
+                                      buffer.getInt());
+        student.setGradingScale(gradingScale);
+        int courseCount = buffer.getInt();
+        for (int i = 0; i < courseCount; i++) {
+            student.addCourse(new Course(getString(buffer), getString(buffer), buffer.getInt(), buffer.getDouble()));
+        }
+        return student;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Rough heap footprint of a student: the object, its course list,
+     * the map entry and every string
+     */
+    static int estimateBytes(Student student) {
+        int bytes = 160 + stringBytes(student.getStudentId()) + stringBytes(student.getFirstName())
+                    + stringBytes(student.getLastName()) + stringBytes(student.getEmail());
+        for (Course course : student.getCourseList()) {
+            bytes += 64 + stringBytes(course.getCourseCode()) + stringBytes(course.getCourseName());
+        }
+        return bytes;
+    }
+
+    private static int stringBytes(String value) {
+        return value == null ? 0 : 48 + value.length();
+    }
+
+    private static long location(long position, int length) {
+        return position << 24 | length;
+    }
+
+    private static long positionOf(long location) {
+        return location >>> 24;
+    }
+
+    private static int lengthOf(long location) {
+        return (int) (location & (MAX_RECORD - 1));
+    }
+}
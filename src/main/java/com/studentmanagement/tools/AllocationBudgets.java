@@ -0,0 +1,151 @@
+package com.studentmanagement.tools;
+
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.StudentManager;
+import com.studentmanagement.util.ConsoleColors;
+import com.studentmanagement.util.SessionLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Allocation regression check: runs each hot StudentManager, logger and
+ * console operation many times and fails when its average allocation per
+ * call goes over the declared budget.
+ *
+ * Budgets are bytes per call on a 10,000 student roster, with some room
+ * above what the operations allocate today. Raise one only together with
+ * the change that needs it. Exits with status 1 when any budget is
+ * exceeded, so it can run as a build step:
+ *
+ *   java -cp out com.studentmanagement.tools.AllocationBudgets [calls=N] [students=N]
+ */
+public class AllocationBudgets {
+    private static final int SCAN_TERMS = 1024; // more than the query cache holds, so every scan misses
+
+    /**
+     * One operation under test and the bytes it may allocate per call
+     */
+    static final class Budget {
+        final String operation;
+        final long bytesPerCall;
+        final IntConsumer action;
+
+        Budget(String operation, long bytesPerCall, IntConsumer action) {
+            this.operation = operation;
+            this.bytesPerCall = bytesPerCall;
+            this.action = action;
+        }
+    }
+
+    private final StudentManager manager;
+    private final SessionLogger logger;
+    private final String[] ids;
+    private final String[] scanTerms = new String[SCAN_TERMS];
+    private final List<Budget> budgets = new ArrayList<>();
+    private String lastCreated;
+
+    AllocationBudgets(StudentManager manager, SessionLogger logger) {
+        this.manager = manager;
+        this.logger = logger;
+        List<Student> students = manager.getAllStudents();
+        this.ids = new String[students.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = students.get(i).getStudentId();
+        }
+        for (int i = 0; i < SCAN_TERMS; i++) {
+            scanTerms[i] = "qz" + i; // matches nobody, so the scan itself is measured
+        }
+        Student sample = manager.getStudent(ids[0]);
+        for (int c = sample.getCourseList().size(); c < 4; c++) {
+            manager.assignCourse(sample.getStudentId(), "ENG20" + c, "English " + c, 3, 80);
+        }
+
+        budgets.add(new Budget("getStudent", 0, i -> manager.getStudent(ids[i % ids.length])));
+        budgets.add(new Budget("createStudent", 4_096, i -> lastCreated = manager.createStudent(
+            "Budget", "Check", "budget" + i + "@example.com", 20)));
+        budgets.add(new Budget("deleteStudent", 1_536, i -> manager.deleteStudent(lastCreated)));
+        budgets.add(new Budget("assignCourse", 512, i -> manager.assignCourse(
+            ids[i % ids.length], "ART101", "Art", 2, 90)));
+        budgets.add(new Budget("removeCourse", 256, i -> manager.removeCourse(ids[i % ids.length], "ART101")));
+        // A cache hit still copies the ~500 matches into a list the caller owns
+        budgets.add(new Budget("searchStudents (cached)", 2_560, i -> manager.searchStudents("smi")));
+        budgets.add(new Budget("searchStudents (scan)", 1_024, i -> manager.searchStudents(scanTerms[i % SCAN_TERMS])));
+        budgets.add(new Budget("getStatistics", 128, i -> manager.getStatistics()));
+        budgets.add(new Budget("Student.getCourseList", 32, i -> sample.getCourseList().size()));
+        budgets.add(new Budget("SessionLogger.details", 384, i -> SessionLogger.details(
+            "id", ids[i % ids.length], "course", "CS101", "grade", 91.5)));
+        budgets.add(new Budget("SessionLogger.logAction", 128, i -> logger.logAction("UPDATE_GRADE", "id=STU1001")));
+        budgets.add(new Budget("ConsoleColors.colorize", 320, i -> ConsoleColors.colorize(
+            "✓ Student created", ConsoleColors.GREEN_BOLD)));
+    }
+
+    /**
+     * Run every operation the given number of times after a warm-up, in
+     * rounds so creates and deletes balance; returns the budgets exceeded
+     */
+    List<String> check(int calls, AllocationProfiler profiler) {
+        for (int i = 0; i < calls; i++) {
+            for (Budget budget : budgets) {
+                budget.action.accept(i); // warm-up, so JIT-compiled code is measured
+            }
+        }
+        for (int i = 0; i < calls; i++) {
+            for (Budget budget : budgets) {
+                int call = calls + i;
+                profiler.measure(budget.operation, () -> budget.action.accept(call));
+            }
+        }
+        List<String> exceeded = new ArrayList<>();
+        for (Budget budget : budgets) {
+            double mean = profiler.getStats(budget.operation).getMeanBytes();
+            if (mean > budget.bytesPerCall) {
+                exceeded.add(String.format("%s allocates %,.0f bytes per call, budget %,d",
+                                           budget.operation, mean, budget.bytesPerCall));
+            }
+        }
+        return exceeded;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int calls = 20_000;
+        int students = 10_000;
+        for (String arg : args) {
+            if (arg.startsWith("calls=")) {
+                calls = Integer.parseInt(arg.substring("calls=".length()));
+            } else if (arg.startsWith("students=")) {
+                students = Integer.parseInt(arg.substring("students=".length()));
+            } else {
+                System.out.println("Usage: AllocationBudgets [calls=N] [students=N]");
+                return;
+            }
+        }
+        if (System.getProperty("sms.color") == null) {
+            System.setProperty("sms.color", "always"); // measure colorize itself, not the pass-through
+        }
+        if (!AllocationProfiler.isSupported()) {
+            System.out.println("✗ This JVM cannot measure per-thread allocation; nothing checked");
+            return;
+        }
+        Path logDirectory = Files.createTempDirectory("sms-budgets-");
+        List<String> exceeded;
+        AllocationProfiler profiler = new AllocationProfiler();
+        try (SessionLogger logger = new SessionLogger("budgets", logDirectory)) {
+            StudentManager manager = LoadGenerator.syntheticRoster(students, 42);
+            exceeded = new AllocationBudgets(manager, logger).check(calls, profiler);
+        }
+        System.out.print(profiler);
+        if (exceeded.isEmpty()) {
+            System.out.println("✓ All operations within their allocation budgets");
+            return;
+        }
+        for (String failure : exceeded) {
+            System.out.println("✗ " + failure);
+        }
+        System.exit(1);
+    }
+}
@@ -0,0 +1,158 @@
+package com.studentmanagement.tools;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the bytes a block of code allocates on the calling thread,
+ * using the JVM's per-thread allocation counter (HotSpot and OpenJ9
+ * expose it through com.sun.management.ThreadMXBean).
+ *
+ * Results are kept per operation name, so a profiler wrapped around a
+ * workload reports the average and worst allocation of each operation.
+ * The counter is read before and after the operation; the few bytes the
+ * reading itself may cost are measured once and subtracted. The counter
+ * moves in TLAB-sized steps on some JVMs, so single small measurements
+ * are noisy and averages over many calls are what to compare.
+ */
+public class AllocationProfiler {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final long overhead;
+
+    public AllocationProfiler() {
+        if (THREADS == null) {
+            throw new IllegalStateException("This JVM cannot measure per-thread allocation");
+        }
+        this.overhead = calibrate();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threads;
+        } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /** Whether allocation can be measured on this JVM */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /** Bytes allocated so far by the calling thread, or -1 if not supported */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long calibrate() {
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long before = currentThreadAllocatedBytes();
+            long after = currentThreadAllocatedBytes();
+            lowest = Math.min(lowest, after - before);
+        }
+        return Math.max(0, lowest);
+    }
+
+    /** Run an operation and record what it allocated; returns the bytes */
+    public long measure(String operation, Runnable action) {
+        long before = currentThreadAllocatedBytes();
+        action.run();
+        long bytes = Math.max(0, currentThreadAllocatedBytes() - before - overhead);
+        record(operation, bytes);
+        return bytes;
+    }
+
+    /** Add a measurement taken elsewhere */
+    public synchronized void record(String operation, long bytes) {
+        stats.computeIfAbsent(operation, Stats::new).add(bytes);
+    }
+
+    /** Measurements of one operation, or null if it never ran */
+    public synchronized Stats getStats(String operation) {
+        Stats found = stats.get(operation);
+        return found == null ? null : found.copy();
+    }
+
+    /** Measurements of every operation, in the order they first ran */
+    public synchronized List<Stats> getAllStats() {
+        List<Stats> all = new ArrayList<>(stats.size());
+        for (Stats found : stats.values()) {
+            all.add(found.copy());
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    public synchronized void reset() {
+        stats.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  %-24s %10s %14s %12s %12s%n", "operation", "calls", "bytes/call", "min", "max"));
+        for (Stats found : stats.values()) {
+            sb.append(String.format("  %-24s %,10d %,14.0f %,12d %,12d%n", found.operation, found.count,
+                                    found.getMeanBytes(), found.minBytes, found.maxBytes));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Allocation of one operation across its calls
+     */
+    public static final class Stats {
+        private final String operation;
+        private long count;
+        private long totalBytes;
+        private long minBytes = Long.MAX_VALUE;
+        private long maxBytes;
+
+        private Stats(String operation) {
+            this.operation = operation;
+        }
+
+        private void add(long bytes) {
+            count++;
+            totalBytes += bytes;
+            minBytes = Math.min(minBytes, bytes);
+            maxBytes = Math.max(maxBytes, bytes);
+        }
+
+        private Stats copy() {
+            Stats copy = new Stats(operation);
+            copy.count = count;
+            copy.totalBytes = totalBytes;
+            copy.minBytes = minBytes;
+            copy.maxBytes = maxBytes;
+            return copy;
+        }
+
+        public String getOperation() { return operation; }
+        public long getCount() { return count; }
+        public long getTotalBytes() { return totalBytes; }
+        public long getMinBytes() { return count == 0 ? 0 : minBytes; }
+        public long getMaxBytes() { return maxBytes; }
+
+        public double getMeanBytes() {
+            return count == 0 ? 0.0 : (double) totalBytes / count;
+        }
+    }
+}
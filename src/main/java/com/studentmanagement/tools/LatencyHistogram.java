@@ -0,0 +1,132 @@
+package com.studentmanagement.tools;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of latencies in nanoseconds, accurate to about 3%.
+ *
+ * Values below 64 get a bucket each; above that every power of two is
+ * split into 32 buckets. Recording is single-writer: only the owning
+ * worker thread calls record(), while a reporter thread may read the
+ * counts at any time, so counters are published with lazySet instead of
+ * atomic increments.
+ */
+class LatencyHistogram {
+    private static final int LINEAR = 64;
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int FIRST_EXPONENT = 6; // 2^6 == LINEAR
+    static final int BUCKETS = LINEAR + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    // counts[0..BUCKETS) per bucket, then total count, total nanos, max
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+
+    private final AtomicLongArray cells = new AtomicLongArray(BUCKETS + 3);
+
+    /** Record one latency; owning thread only */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int index = indexOf(value);
+        cells.lazySet(index, cells.get(index) + 1);
+        cells.lazySet(COUNT, cells.get(COUNT) + 1);
+        cells.lazySet(SUM, cells.get(SUM) + value);
+        if (value > cells.get(MAX)) {
+            cells.lazySet(MAX, value);
+        }
+    }
+
+    /** Copy of the current counts, safe to read from any thread */
+    Snapshot snapshot() {
+        long[] copy = new long[cells.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = cells.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + mantissa;
+    }
+
+    /** Largest value that falls in a bucket */
+    static long highestValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + FIRST_EXPONENT;
+        int mantissa = (index - LINEAR) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Immutable counts that can be merged and subtracted, e.g. to get the
+     * latencies of one reporting interval or of all threads together
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new long[BUCKETS + 3]);
+
+        private final long[] cells;
+
+        private Snapshot(long[] cells) {
+            this.cells = cells;
+        }
+
+        Snapshot plus(Snapshot other) {
+            long[] sum = cells.clone();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] = i == MAX ? Math.max(sum[i], other.cells[i]) : sum[i] + other.cells[i];
+            }
+            return new Snapshot(sum);
+        }
+
+        /**
+         * Counts recorded since an earlier snapshot of the same histogram.
+         * The maximum cannot be subtracted and is only an upper bound.
+         */
+        Snapshot minus(Snapshot earlier) {
+            long[] difference = cells.clone();
+            for (int i = 0; i < difference.length; i++) {
+                if (i != MAX) {
+                    difference[i] -= earlier.cells[i];
+                }
+            }
+            return new Snapshot(difference);
+        }
+
+        long getCount() {
+            return cells[COUNT];
+        }
+
+        long getMaxNanos() {
+            return cells[MAX];
+        }
+
+        double getMeanNanos() {
+            return cells[COUNT] == 0 ? 0.0 : (double) cells[SUM] / cells[COUNT];
+        }
+
+        /** Latency at or below which the given percentage of values fall */
+        long percentileNanos(double percentile) {
+            long count = cells[COUNT];
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += cells[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), cells[MAX]);
+                }
+            }
+            return cells[MAX];
+        }
+    }
+}
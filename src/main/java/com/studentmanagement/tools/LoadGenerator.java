@@ -0,0 +1,820 @@
+package com.studentmanagement.tools;
+
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.BatchResult;
+import com.studentmanagement.service.StudentBatch;
+import com.studentmanagement.service.StudentManager;
+import com.studentmanagement.util.AutoSaveScheduler;
+import com.studentmanagement.util.DataStore;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drives a StudentManager with a configurable mix of operations from
+ * several threads, for throughput checks and long soak runs.
+ *
+ * Existing students are picked with Zipf-distributed popularity, so a
+ * few keys take most of the traffic as in a real roster. Creates and
+ * deletes balance each other: a thread only deletes students it created
+ * itself, so the roster stays about the same size however long the run
+ * is. Every reporting interval prints throughput, latency percentiles,
+ * allocation rate, GC activity and heap use after the last collection.
+ * The final report compares that post-GC heap early and late in the run,
+ * which is what shows a leak. With withAutoSave, changes are also written
+ * through DataStore by an AutoSaveScheduler, as in the console app. After
+ * the run the harness switches grading scale, a change no student record
+ * carries, closes the scheduler and reloads the file; the report flags
+ * any difference from the live roster as lost on exit.
+ */
+public class LoadGenerator {
+    public enum Operation { CREATE, GET, SEARCH, ASSIGN, REMOVE, DELETE, STATISTICS }
+
+    public static final String DEFAULT_MIX = "get=30,search=10,assign=20,remove=15,create=10,delete=10,statistics=5";
+    public static final double DEFAULT_ZIPF_EXPONENT = 0.99;
+
+    private static final String[] FIRST_NAMES = {"Ada", "Ben", "Chloe", "Dawit", "Elena", "Farah", "Goran", "Hana",
+                                                 "Ivan", "Jia", "Kofi", "Lena", "Mateo", "Nia", "Omar", "Priya"};
+    private static final String[] LAST_NAMES = {"Abebe", "Brown", "Chen", "Diaz", "Evans", "Fischer", "Garcia",
+                                                "Haile", "Ito", "Johnson", "Kim", "Lopez", "Mensah", "Novak",
+                                                "Okafor", "Patel", "Quinn", "Rossi", "Smith", "Tesfaye"};
+    private static final String[] COURSE_CODES = {"CS101", "CS201", "CS301", "MATH101", "MATH201", "PHYS101",
+                                                  "CHEM101", "BIO101", "ENG101", "HIST101", "ECON101", "ART101"};
+    private static final int SEARCH_TERMS = 10_000;
+
+    private final StudentManager manager;
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private long durationSeconds = 60;
+    private long reportSeconds = 10;
+    private double zipfExponent = DEFAULT_ZIPF_EXPONENT;
+    private int[] weights = parseMix(DEFAULT_MIX);
+    private long seed = System.nanoTime();
+    private Path autoSaveFile;
+    private boolean profileAllocations;
+    private PrintStream out = System.out;
+
+    public LoadGenerator(StudentManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Manager cannot be null");
+        }
+        this.manager = manager;
+    }
+
+    public LoadGenerator withThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    public LoadGenerator withDuration(long seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.durationSeconds = seconds;
+        return this;
+    }
+
+    /** Seconds between interval reports */
+    public LoadGenerator withReportEvery(long seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("Report interval must be positive");
+        }
+        this.reportSeconds = seconds;
+        return this;
+    }
+
+    /** Skew of key popularity; 0 is uniform */
+    public LoadGenerator withZipf(double exponent) {
+        if (exponent < 0 || Double.isNaN(exponent)) {
+            throw new IllegalArgumentException("Zipf exponent cannot be negative");
+        }
+        this.zipfExponent = exponent;
+        return this;
+    }
+
+    /**
+     * Relative weights of each operation, e.g. "get=50,assign=30,statistics=1";
+     * operations left out are not run
+     */
+    public LoadGenerator withMix(String mix) {
+        this.weights = parseMix(mix);
+        return this;
+    }
+
+    public LoadGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Save to this snapshot file first, then keep it up to date with an
+     * AutoSaveScheduler (sms.autosave.* properties) while the load runs
+     */
+    public LoadGenerator withAutoSave(Path file) {
+        this.autoSaveFile = file;
+        return this;
+    }
+
+    /**
+     * Also measure the bytes each operation allocates and report them per
+     * operation (costs two counter reads per operation)
+     */
+    public LoadGenerator withAllocationProfile(boolean enabled) {
+        if (enabled && !AllocationProfiler.isSupported()) {
+            throw new IllegalArgumentException("This JVM cannot measure per-thread allocation");
+        }
+        this.profileAllocations = enabled;
+        return this;
+    }
+
+    public LoadGenerator withOutput(PrintStream out) {
+        this.out = out;
+        return this;
+    }
+
+    static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like get=30: " + part.trim());
+            }
+            Operation operation;
+            int weight;
+            try {
+                operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+                weight = Integer.parseInt(pair[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part.trim());
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative: " + part.trim());
+            }
+            weights[operation.ordinal()] = weight;
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+
+    /**
+     * Run the workload for the configured duration, printing a line per
+     * interval, and return the totals
+     */
+    public Report run() throws IOException, InterruptedException {
+        Population population = capturePopulation();
+        AutoSaveScheduler autoSave = null;
+        if (autoSaveFile != null) {
+            long start = System.nanoTime();
+            DataStore.save(manager, autoSaveFile);
+            out.printf("Initial snapshot of %d student(s) written in %d ms%n",
+                       population.ids.length, (System.nanoTime() - start) / 1_000_000);
+            autoSave = AutoSaveScheduler.fromSystemProperties(manager, autoSaveFile);
+            autoSave.start();
+        }
+        out.printf("Running %s for %d s on %d thread(s), %d keys, zipf %.2f (top 1%% of keys get %.0f%% of picks)%n",
+                   describeMix(), durationSeconds, threads, population.ids.length, zipfExponent,
+                   population.zipf.topShare(Math.max(1, population.ids.length / 100)) * 100);
+
+        String nonce = Long.toString(System.currentTimeMillis(), 36);
+        SplittableRandom root = new SplittableRandom(seed);
+        Worker[] workers = new Worker[threads];
+        Thread[] workerThreads = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i, population, root.split(), nonce);
+            workerThreads[i] = new Thread(workers[i], "sms-load-" + i);
+            workerThreads[i].setDaemon(true);
+        }
+
+        JvmSample first = JvmSample.take(workerThreads);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + durationSeconds * 1_000_000_000L;
+        for (Thread thread : workerThreads) {
+            thread.start();
+        }
+        List<Long> postGcHeap = new ArrayList<>();
+        LatencyHistogram.Snapshot previous = LatencyHistogram.Snapshot.EMPTY;
+        JvmSample previousSample = first;
+        try {
+            long nextReport = startNanos + reportSeconds * 1_000_000_000L;
+            while (true) {
+                long now = System.nanoTime();
+                long wake = Math.min(nextReport, endNanos);
+                if (now < wake) {
+                    Thread.sleep(Math.max(1, (wake - now) / 1_000_000));
+                    continue;
+                }
+                LatencyHistogram.Snapshot total = combined(workers, null);
+                JvmSample sample = JvmSample.take(workerThreads);
+                out.println(intervalLine(now - startNanos, total.minus(previous), previousSample, sample));
+                if (sample.postGcHeapBytes >= 0) {
+                    postGcHeap.add(sample.postGcHeapBytes);
+                }
+                previous = total;
+                previousSample = sample;
+                if (now >= endNanos) {
+                    break;
+                }
+                nextReport += reportSeconds * 1_000_000_000L;
+            }
+        } finally {
+            for (Worker worker : workers) {
+                worker.stop = true;
+            }
+            for (Thread thread : workerThreads) {
+                thread.join();
+            }
+            if (autoSave != null) {
+                // With nothing else pending, only close()'s final save can persist this change
+                autoSave.snapshotNow();
+                manager.setGradingScale(otherScale(manager.getGradingScale()));
+                autoSave.close();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        JvmSample last = JvmSample.take(workerThreads);
+        List<String> lost = autoSaveFile == null ? Collections.emptyList() : checkAutoSave();
+        return new Report(workers, elapsedNanos, first, last, postGcHeap, profileAllocations, lost);
+    }
+
+    private static GradingScale otherScale(GradingScale current) {
+        List<GradingScale> scales = GradingScale.values();
+        return scales.get((scales.indexOf(current) + 1) % scales.size());
+    }
+
+    /**
+     * Reload the auto-saved file and compare it with the live roster;
+     * returns what did not survive the scheduler's close
+     */
+    private List<String> checkAutoSave() {
+        List<String> lost = new ArrayList<>();
+        StudentManager saved = DataStore.load(autoSaveFile);
+        if (saved.getTotalStudents() != manager.getTotalStudents()) {
+            lost.add("Auto-save lost changes on close: " + saved.getTotalStudents() + " student(s) saved, "
+                     + manager.getTotalStudents() + " live");
+        }
+        if (saved.getGradingScale() != manager.getGradingScale()) {
+            lost.add("Auto-save lost changes on close: grading scale saved as " + saved.getGradingScale().getName()
+                     + ", live " + manager.getGradingScale().getName());
+        }
+        return lost;
+    }
+
+    private String describeMix() {
+        StringBuilder mix = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            if (weights[operation.ordinal()] > 0) {
+                mix.append(mix.length() == 0 ? "" : ",").append(operation.name().toLowerCase(Locale.ROOT))
+                   .append('=').append(weights[operation.ordinal()]);
+            }
+        }
+        return mix.toString();
+    }
+
+    /** Latencies of one operation (or all, if null) across all workers */
+    private static LatencyHistogram.Snapshot combined(Worker[] workers, Operation operation) {
+        LatencyHistogram.Snapshot total = LatencyHistogram.Snapshot.EMPTY;
+        for (Worker worker : workers) {
+            for (Operation op : Operation.values()) {
+                if (operation == null || op == operation) {
+                    total = total.plus(worker.latencies[op.ordinal()].snapshot());
+                }
+            }
+        }
+        return total;
+    }
+
+    private String intervalLine(long elapsedNanos, LatencyHistogram.Snapshot interval, JvmSample from, JvmSample to) {
+        double seconds = (to.nanos - from.nanos) / 1e9;
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("[%5ds] %,9.0f ops/s  p50 %s  p99 %s  p99.9 %s", elapsedNanos / 1_000_000_000L,
+                                  interval.getCount() / seconds, formatNanos(interval.percentileNanos(50)),
+                                  formatNanos(interval.percentileNanos(99)), formatNanos(interval.percentileNanos(99.9))));
+        if (to.allocatedBytes >= 0) {
+            line.append(String.format("  alloc %,.0f MB/s", (to.allocatedBytes - from.allocatedBytes) / seconds / (1 << 20)));
+        }
+        line.append(String.format("  GC %d (%d ms)  heap %d MB", to.gcCount - from.gcCount, to.gcMillis - from.gcMillis,
+                                  to.heapUsedBytes >> 20));
+        if (to.postGcHeapBytes >= 0) {
+            line.append(String.format(", %d MB after GC", to.postGcHeapBytes >> 20));
+        }
+        return line.toString();
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+
+    /**
+     * Keys and search terms sampled from the roster at the start of a run
+     */
+    private static final class Population {
+        final String[] ids;
+        final String[] searchTerms;
+        final ZipfDistribution zipf;
+
+        Population(String[] ids, String[] searchTerms, double exponent) {
+            this.ids = ids;
+            this.searchTerms = searchTerms;
+            this.zipf = new ZipfDistribution(ids.length, exponent);
+        }
+    }
+
+    private Population capturePopulation() {
+        List<Student> students = manager.getAllStudents();
+        if (students.isEmpty()) {
+            throw new IllegalArgumentException("The roster is empty; load or generate students first");
+        }
+        // Shuffle so popularity does not follow the roster's storage order
+        Collections.shuffle(students, new java.util.Random(seed));
+        String[] ids = new String[students.size()];
+        String[] terms = new String[Math.min(students.size(), SEARCH_TERMS)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = students.get(i).getStudentId();
+            if (i < terms.length) {
+                String lastName = students.get(i).getLastName().toLowerCase(Locale.ROOT);
+                terms[i] = lastName.substring(0, Math.min(4, lastName.length()));
+            }
+        }
+        return new Population(ids, terms, zipfExponent);
+    }
+
+    /**
+     * One load thread with its own random source, latencies and counters
+     */
+    private final class Worker implements Runnable {
+        final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+        // Per operation: rejected (IllegalArgumentException or nothing to do), failed (anything else)
+        final AtomicLongArray rejected = new AtomicLongArray(Operation.values().length);
+        final AtomicLongArray failed = new AtomicLongArray(Operation.values().length);
+        final String[] firstFailure = new String[Operation.values().length];
+        final AtomicLongArray allocated = new AtomicLongArray(Operation.values().length); // if profiling
+        private final int index;
+        private final Population population;
+        private final SplittableRandom random;
+        private final String nonce;
+        private final int[] cumulativeWeights;
+        private final ArrayDeque<String> created = new ArrayDeque<>();
+        private long createdCount;
+        volatile boolean stop;
+        volatile long allocatedAtExit = -1; // the JVM stops reporting a thread's allocation once it ends
+
+        Worker(int index, Population population, SplittableRandom random, String nonce) {
+            this.index = index;
+            this.population = population;
+            this.random = random;
+            this.nonce = nonce;
+            this.cumulativeWeights = new int[weights.length];
+            int sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulativeWeights[i] = sum;
+            }
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            Operation[] operations = Operation.values();
+            int total = cumulativeWeights[cumulativeWeights.length - 1];
+            while (!stop) {
+                int pick = random.nextInt(total);
+                int op = 0;
+                while (cumulativeWeights[op] <= pick) {
+                    op++;
+                }
+                long allocatedBefore = profileAllocations ? AllocationProfiler.currentThreadAllocatedBytes() : 0;
+                long start = System.nanoTime();
+                try {
+                    if (execute(operations[op])) {
+                        latencies[op].record(System.nanoTime() - start);
+                        if (profileAllocations) {
+                            long bytes = AllocationProfiler.currentThreadAllocatedBytes() - allocatedBefore;
+                            allocated.lazySet(op, allocated.get(op) + bytes);
+                        }
+                    } else {
+                        rejected.lazySet(op, rejected.get(op) + 1);
+                    }
+                } catch (IllegalArgumentException e) {
+                    rejected.lazySet(op, rejected.get(op) + 1);
+                } catch (RuntimeException e) {
+                    if (firstFailure[op] == null) {
+                        firstFailure[op] = e.toString();
+                    }
+                    failed.lazySet(op, failed.get(op) + 1);
+                }
+            }
+            allocatedAtExit = JvmSample.allocatedBytes(new Thread[] {Thread.currentThread()});
+        }
+
+        /** Run one operation; false if there was nothing to do */
+        private boolean execute(Operation operation) {
+            switch (operation) {
+                case CREATE:
+                    String email = "load-" + nonce + "-" + index + "-" + createdCount++ + "@example.com";
+                    created.addLast(manager.createStudent(pick(FIRST_NAMES), pick(LAST_NAMES), email,
+                                                          18 + random.nextInt(40)));
+                    return true;
+                case GET:
+                    manager.getStudent(key());
+                    return true;
+                case SEARCH:
+                    manager.searchStudents(population.searchTerms[population.zipf.sample(random)
+                                                                   % population.searchTerms.length]);
+                    return true;
+                case ASSIGN:
+                    String code = pick(COURSE_CODES);
+                    manager.assignCourse(key(), code, "Course " + code, 1 + random.nextInt(4), random.nextInt(101));
+                    return true;
+                case REMOVE:
+                    manager.removeCourse(key(), pick(COURSE_CODES));
+                    return true;
+                case DELETE:
+                    String studentId = created.pollFirst();
+                    return studentId != null && manager.deleteStudent(studentId);
+                case STATISTICS:
+                    manager.getStatistics();
+                    return true;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+        }
+
+        private String key() {
+            return population.ids[population.zipf.sample(random)];
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+
+    /**
+     * JVM counters at one moment: allocation by the load threads, GC
+     * totals and heap use
+     */
+    private static final class JvmSample {
+        final long nanos;
+        final long allocatedBytes;   // -1 if the JVM cannot measure it
+        final long gcCount;
+        final long gcMillis;
+        final long heapUsedBytes;
+        final long postGcHeapBytes;  // heap in use right after the latest collection, -1 if none yet
+
+        private JvmSample(long nanos, long allocatedBytes, long gcCount, long gcMillis, long heapUsedBytes,
+                          long postGcHeapBytes) {
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.heapUsedBytes = heapUsedBytes;
+            this.postGcHeapBytes = postGcHeapBytes;
+        }
+
+        static JvmSample take(Thread[] threads) {
+            long gcCount = 0;
+            long gcMillis = 0;
+            long latestGcEnd = -1;
+            long postGc = -1;
+            Set<String> heapPools = new HashSet<>();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcMillis += Math.max(0, gc.getCollectionTime());
+                if (gc instanceof com.sun.management.GarbageCollectorMXBean) {
+                    com.sun.management.GcInfo info = ((com.sun.management.GarbageCollectorMXBean) gc).getLastGcInfo();
+                    if (info != null && info.getEndTime() > latestGcEnd) {
+                        latestGcEnd = info.getEndTime();
+                        postGc = 0;
+                        for (Map.Entry<String, MemoryUsage> pool : info.getMemoryUsageAfterGc().entrySet()) {
+                            if (heapPools.contains(pool.getKey())) {
+                                postGc += pool.getValue().getUsed();
+                            }
+                        }
+                    }
+                }
+            }
+            return new JvmSample(System.nanoTime(), allocatedBytes(threads), gcCount, gcMillis,
+                                 ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), postGc);
+        }
+
+        static long allocatedBytes(Thread[] threads) {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return -1;
+            }
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+                return -1;
+            }
+            long total = 0;
+            for (Thread thread : threads) {
+                // Threads not started yet or already finished report -1
+                total += Math.max(0, threadBean.getThreadAllocatedBytes(thread.getId()));
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Totals for a finished run
+     */
+    public static class Report {
+        private final Map<Operation, LatencyHistogram.Snapshot> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, long[]> problems = new EnumMap<>(Operation.class); // rejected, failed, allocated
+        private final List<String> failures = new ArrayList<>();
+        private final LatencyHistogram.Snapshot overall;
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+        private final long gcCount;
+        private final long gcMillis;
+        private final List<Long> postGcHeap;
+        private final boolean profiled;
+        private final List<String> autoSaveProblems;
+
+        Report(Worker[] workers, long elapsedNanos, JvmSample start, JvmSample end, List<Long> postGcHeap,
+               boolean profiled, List<String> autoSaveProblems) {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, combined(workers, operation));
+                long[] counts = new long[3];
+                for (Worker worker : workers) {
+                    counts[0] += worker.rejected.get(operation.ordinal());
+                    counts[1] += worker.failed.get(operation.ordinal());
+                    counts[2] += worker.allocated.get(operation.ordinal());
+                    if (worker.firstFailure[operation.ordinal()] != null && failures.size() < 10) {
+                        failures.add(operation + ": " + worker.firstFailure[operation.ordinal()]);
+                    }
+                }
+                problems.put(operation, counts);
+            }
+            this.overall = combined(workers, null);
+            this.elapsedNanos = elapsedNanos;
+            long allocated = start.allocatedBytes < 0 ? -1 : 0;
+            for (Worker worker : workers) {
+                if (allocated >= 0) {
+                    allocated = worker.allocatedAtExit < 0 ? -1 : allocated + worker.allocatedAtExit;
+                }
+            }
+            this.allocatedBytes = allocated;
+            this.gcCount = end.gcCount - start.gcCount;
+            this.gcMillis = end.gcMillis - start.gcMillis;
+            this.postGcHeap = new ArrayList<>(postGcHeap);
+            this.profiled = profiled;
+            this.autoSaveProblems = new ArrayList<>(autoSaveProblems);
+        }
+
+        /** Differences between the auto-saved file and the live roster after the run; empty if none */
+        public List<String> getAutoSaveProblems() {
+            return Collections.unmodifiableList(autoSaveProblems);
+        }
+
+        public long getOperations() {
+            return overall.getCount();
+        }
+
+        public double getOperationsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : overall.getCount() * 1e9 / elapsedNanos;
+        }
+
+        public long getOperations(Operation operation) {
+            return latencies.get(operation).getCount();
+        }
+
+        /** Latency percentile of one operation in nanoseconds */
+        public long getPercentileNanos(Operation operation, double percentile) {
+            return latencies.get(operation).percentileNanos(percentile);
+        }
+
+        public long getFailures(Operation operation) {
+            return problems.get(operation)[1];
+        }
+
+        /**
+         * Average bytes one completed operation allocated, or -1 unless the
+         * run profiled allocations
+         */
+        public double getAllocatedBytesPerCall(Operation operation) {
+            long count = latencies.get(operation).getCount();
+            return !profiled ? -1 : count == 0 ? 0.0 : (double) problems.get(operation)[2] / count;
+        }
+
+        /** Bytes allocated by the load threads per completed operation, or -1 if unknown */
+        public double getAllocatedBytesPerOperation() {
+            return allocatedBytes < 0 || overall.getCount() == 0 ? -1 : (double) allocatedBytes / overall.getCount();
+        }
+
+        /** Share of the run spent in garbage collection */
+        public double getGcFraction() {
+            return elapsedNanos == 0 ? 0.0 : gcMillis * 1e6 / elapsedNanos;
+        }
+
+        /**
+         * Growth of the heap left after GC between the first and last
+         * third of the run (lowest sample of each), in bytes; 0 if there
+         * were too few collections to tell
+         */
+        public long getPostGcHeapGrowth() {
+            int third = postGcHeap.size() / 3;
+            if (third == 0) {
+                return 0;
+            }
+            long early = Collections.min(postGcHeap.subList(0, third));
+            long late = Collections.min(postGcHeap.subList(postGcHeap.size() - third, postGcHeap.size()));
+            return late - early;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%,d operation(s) in %.1f s, %,.0f ops/s%n", overall.getCount(),
+                                        elapsedNanos / 1e9, getOperationsPerSecond()));
+            report.append(String.format("  %-11s %12s %10s %10s %10s %10s %10s %9s %7s", "operation", "count",
+                                        "mean", "p50", "p99", "p99.9", "max", "rejected", "failed"));
+            report.append(profiled ? String.format(" %12s%n", "bytes/op") : System.lineSeparator());
+            for (Operation operation : Operation.values()) {
+                LatencyHistogram.Snapshot snapshot = latencies.get(operation);
+                long[] counts = problems.get(operation);
+                if (snapshot.getCount() == 0 && counts[0] == 0 && counts[1] == 0) {
+                    continue;
+                }
+                report.append(String.format("  %-11s %,12d %10s %10s %10s %10s %10s %,9d %,7d",
+                                            operation.name().toLowerCase(Locale.ROOT), snapshot.getCount(),
+                                            formatNanos((long) snapshot.getMeanNanos()),
+                                            formatNanos(snapshot.percentileNanos(50)),
+                                            formatNanos(snapshot.percentileNanos(99)),
+                                            formatNanos(snapshot.percentileNanos(99.9)),
+                                            formatNanos(snapshot.getMaxNanos()), counts[0], counts[1]));
+                report.append(profiled ? String.format(" %,12.0f%n", getAllocatedBytesPerCall(operation))
+                                       : System.lineSeparator());
+            }
+            if (allocatedBytes >= 0) {
+                report.append(String.format("Allocation: %,.0f MB/s, %,.0f bytes per operation%n",
+                                            allocatedBytes * 1e9 / elapsedNanos / (1 << 20), getAllocatedBytesPerOperation()));
+            }
+            report.append(String.format("GC: %d collection(s), %d ms (%.2f%% of the run)%n", gcCount, gcMillis,
+                                        getGcFraction() * 100));
+            if (!postGcHeap.isEmpty()) {
+                report.append(String.format("Heap after GC: %d MB at first report, %d MB at last, growth %+d MB "
+                                            + "(lowest, first vs last third)%n", postGcHeap.get(0) >> 20,
+                                            postGcHeap.get(postGcHeap.size() - 1) >> 20, getPostGcHeapGrowth() >> 20));
+                if (getPostGcHeapGrowth() > Math.max(16L << 20, postGcHeap.get(0))) {
+                    report.append("  ✗ Live heap more than doubled during the run; look for a leak or run longer")
+                          .append(System.lineSeparator());
+                }
+            }
+            for (String failure : failures) {
+                report.append("  ✗ ").append(failure).append(System.lineSeparator());
+            }
+            for (String problem : autoSaveProblems) {
+                report.append("  ✗ ").append(problem).append(System.lineSeparator());
+            }
+            return report.toString();
+        }
+    }
+
+    /**
+     * Roster of synthetic students with a few courses each, for runs
+     * without a saved roster
+     */
+    public static StudentManager syntheticRoster(int students, long seed) {
+        if (students <= 0) {
+            throw new IllegalArgumentException("Student count must be positive");
+        }
+        StudentManager manager = new StudentManager();
+        SplittableRandom random = new SplittableRandom(seed);
+        int chunk = 10_000;
+        for (int from = 0; from < students; from += chunk) {
+            StudentBatch creates = StudentBatch.create();
+            for (int i = from; i < Math.min(students, from + chunk); i++) {
+                creates.createStudent(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                                      LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                                      "synthetic" + i + "@example.com", 18 + random.nextInt(40));
+            }
+            BatchResult result = manager.applyBatch(creates);
+            StudentBatch courses = StudentBatch.create();
+            for (String studentId : result.getCreatedIds()) {
+                int count = random.nextInt(5);
+                for (int c = 0; c < count; c++) {
+                    String code = COURSE_CODES[random.nextInt(COURSE_CODES.length)];
+                    courses.assignCourse(studentId, code, "Course " + code, 1 + random.nextInt(4), random.nextInt(101));
+                }
+            }
+            if (!courses.isEmpty()) {
+                manager.applyBatch(courses);
+            }
+        }
+        return manager;
+    }
+
+    /**
+     * Command line: name=value arguments, all optional.
+     *   roster=FILE       load this snapshot instead of generating students
+     *   students=N        synthetic roster size (default 10000)
+     *   threads=N seconds=N report=N mix=get=30,... zipf=X seed=N
+     *   autosave=FILE     also save to FILE through DataStore while running
+     *   hotMB=N           enable tiered storage with an N MB hot tier
+     *   profile=true      report the bytes each operation allocates
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new java.util.HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals <= 0) {
+                System.out.println("Usage: LoadGenerator [roster=FILE|students=N] [threads=N] [seconds=N] [report=N]"
+                                   + " [mix=get=30,...] [zipf=X] [seed=N] [autosave=FILE] [hotMB=N]"
+                                   + " [profile=true]");
+                return;
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        try {
+            long seed = Long.parseLong(options.getOrDefault("seed", Long.toString(System.nanoTime())));
+            StudentManager manager;
+            long start = System.nanoTime();
+            if (options.containsKey("roster")) {
+                Path roster = Paths.get(options.get("roster"));
+                if (!Files.exists(roster)) {
+                    throw new IllegalArgumentException("Roster file not found: " + roster);
+                }
+                manager = DataStore.load(roster);
+            } else {
+                manager = syntheticRoster(Integer.parseInt(options.getOrDefault("students", "10000")), seed);
+            }
+            System.out.printf("Roster of %d student(s) ready in %d ms%n", manager.getTotalStudents(),
+                              (System.nanoTime() - start) / 1_000_000);
+            if (options.containsKey("hotMB")) {
+                Path directory = Files.createTempDirectory("sms-load-");
+                manager.enableTieredStorage(directory, Long.parseLong(options.get("hotMB")) << 20);
+            }
+            LoadGenerator generator = new LoadGenerator(manager).withSeed(seed);
+            if (options.containsKey("threads")) {
+                generator.withThreads(Integer.parseInt(options.get("threads")));
+            }
+            if (options.containsKey("seconds")) {
+                generator.withDuration(Long.parseLong(options.get("seconds")));
+            }
+            if (options.containsKey("report")) {
+                generator.withReportEvery(Long.parseLong(options.get("report")));
+            }
+            if (options.containsKey("mix")) {
+                generator.withMix(options.get("mix"));
+            }
+            if (options.containsKey("zipf")) {
+                generator.withZipf(Double.parseDouble(options.get("zipf")));
+            }
+            if (options.containsKey("autosave")) {
+                generator.withAutoSave(Paths.get(options.get("autosave")));
+            }
+            generator.withAllocationProfile(Boolean.parseBoolean(options.get("profile")));
+            Report report = generator.run();
+            System.out.print("✓ " + report);
+            if (manager.getTieredStorage() != null) {
+                System.out.println("Tiered storage: " + manager.getTieredStorage().getStats());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("✗ " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.studentmanagement.tools;
+
+import com.studentmanagement.service.ShardedStudentManager;
+import com.studentmanagement.util.DataStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line for a sharded roster directory (data/shards by default),
+ * to be run while nothing else has the files open:
+ *
+ *   split N [from=FILE] [dir=DIR] [ranges=A,B,...]   split data/students.dat into N shards
+ *   load [dir=DIR] [ranges=A,B,...]                  load all shards concurrently and report
+ *   rebalance N [dir=DIR] [ranges=A,B,...]           redistribute over N shards
+ *   merge [dir=DIR] [to=FILE]                        combine the shards into one snapshot
+ *
+ * Students are placed by hashed ID unless ranges= gives the N-1 ID
+ * numbers where each shard after the first starts. Use the same ranges=
+ * for load as for the last split or rebalance.
+ */
+public class ShardTool {
+    private static final String USAGE = "Usage: ShardTool split N [from=FILE] | load | rebalance N | merge [to=FILE]"
+                                        + " ... [dir=DIR] [ranges=A,B,...]";
+
+    /** Default shard directory, data/shards next to the default snapshot */
+    public static Path defaultDirectory() {
+        return DataStore.defaultFile().toAbsolutePath().getParent().resolve("shards");
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println(USAGE);
+            return;
+        }
+        String command = args[0];
+        boolean counted = command.equals("split") || command.equals("rebalance");
+        int first = counted ? 2 : 1;
+        Map<String, String> options = new HashMap<>();
+        for (String arg : Arrays.copyOfRange(args, Math.min(first, args.length), args.length)) {
+            int equals = arg.indexOf('=');
+            if (equals <= 0) {
+                System.out.println(USAGE);
+                return;
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        try {
+            Path directory = options.containsKey("dir") ? Paths.get(options.get("dir")) : defaultDirectory();
+            ShardedStudentManager.Partitioner partitioner = partitioner(options.get("ranges"));
+            int shardCount = 0;
+            if (counted) {
+                if (args.length < 2) {
+                    throw new IllegalArgumentException("Give the number of shards: " + USAGE);
+                }
+                shardCount = Integer.parseInt(args[1]);
+            }
+            long start = System.nanoTime();
+            switch (command) {
+                case "split": {
+                    Path from = options.containsKey("from") ? Paths.get(options.get("from")) : DataStore.defaultFile();
+                    int students = ShardedStudentManager.split(from, directory, shardCount, partitioner);
+                    System.out.printf("✓ Split %d student(s) from %s into %d shard(s) in %s (%d ms)%n",
+                                      students, from, shardCount, directory, elapsedMillis(start));
+                    break;
+                }
+                case "load":
+                    load(directory, partitioner, start);
+                    break;
+                case "rebalance": {
+                    int students = ShardedStudentManager.rebalance(directory, shardCount, partitioner);
+                    System.out.printf("✓ Rebalanced %d student(s) over %d shard(s) in %s (%d ms)%n",
+                                      students, shardCount, directory, elapsedMillis(start));
+                    break;
+                }
+                case "merge": {
+                    Path to = options.containsKey("to") ? Paths.get(options.get("to")) : DataStore.defaultFile();
+                    int students = ShardedStudentManager.merge(directory, to);
+                    System.out.printf("✓ Merged %d student(s) from %s into %s (%d ms)%n",
+                                      students, directory, to, elapsedMillis(start));
+                    break;
+                }
+                default:
+                    System.out.println(USAGE);
+            }
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            // Shards load on the common pool, which rethrows their failures wrapped
+            Throwable cause = e.getCause() != null && e.getCause().getClass() == e.getClass() ? e.getCause() : e;
+            System.out.println("✗ " + cause.getMessage());
+        }
+    }
+
+    private static void load(Path directory, ShardedStudentManager.Partitioner partitioner, long start)
+            throws IOException {
+        int shardCount = ShardedStudentManager.countShards(directory);
+        if (shardCount == 0) {
+            throw new IllegalArgumentException("No shard files in " + directory + "; split a snapshot first");
+        }
+        ShardedStudentManager manager = ShardedStudentManager.load(directory, shardCount, partitioner);
+        ShardedStudentManager.Statistics statistics = manager.getStatistics();
+        System.out.printf("✓ Loaded %d shard(s) concurrently in %d ms%n", shardCount, elapsedMillis(start));
+        int[] sizes = statistics.getShardSizes();
+        for (int i = 0; i < sizes.length; i++) {
+            System.out.printf("  %-28s %,10d student(s)%n", manager.getShardFile(i).getFileName(), sizes[i]);
+        }
+        System.out.printf("Total: %,d student(s), %,d with courses, average GPA %.2f%n",
+                          statistics.getTotalStudents(), statistics.getStudentsWithCourses(),
+                          statistics.getAverageGpa());
+    }
+
+    private static ShardedStudentManager.Partitioner partitioner(String ranges) {
+        if (ranges == null) {
+            return ShardedStudentManager.Partitioner.hashed();
+        }
+        int[] points = Arrays.stream(ranges.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        return ShardedStudentManager.Partitioner.byIdRange(points);
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,57 @@
+package com.studentmanagement.tools;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over ranks 0..n-1: rank k is drawn with probability
+ * proportional to 1 / (k + 1)^exponent. An exponent of 0 is uniform; real
+ * access logs are usually close to 1, where a few keys take most of the
+ * traffic.
+ *
+ * Sampling is a binary search over the precomputed cumulative
+ * distribution, so it costs O(log n) and no allocation. Safe to share
+ * between threads; each brings its own random source.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+    private final double exponent;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one key");
+        }
+        if (exponent < 0 || Double.isNaN(exponent)) {
+            throw new IllegalArgumentException("Zipf exponent cannot be negative");
+        }
+        this.exponent = exponent;
+        this.cumulative = new double[n];
+        double sum = 0.0;
+        for (int k = 0; k < n; k++) {
+            sum += exponent == 0 ? 1.0 : Math.pow(k + 1, -exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        cumulative[n - 1] = 1.0;
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public double getExponent() {
+        return exponent;
+    }
+
+    /** Share of draws that land on the most popular count ranks */
+    public double topShare(int count) {
+        return count <= 0 ? 0.0 : cumulative[Math.min(count, cumulative.length) - 1];
+    }
+}
@@ -0,0 +1,204 @@
+package com.studentmanagement.util;
+
+import com.studentmanagement.service.ChangeSet;
+import com.studentmanagement.service.StudentManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background auto-save for a StudentManager.
+ * Writes only the students changed since the last save as a delta segment,
+ * either on a fixed interval or after a number of mutations, and merges the
+ * segments into a full snapshot every few segments. Mutations are counted
+ * by polling the manager's mutation counter, so callers do not have to
+ * report them and no change events are built for it.
+ *
+ * Configured with system properties:
+ *   sms.autosave.intervalSeconds  (default 30)
+ *   sms.autosave.mutations        (default 25)
+ *   sms.autosave.compactEvery     (default 20 segments)
+ */
+public class AutoSaveScheduler implements AutoCloseable {
+    private static final long DEFAULT_INTERVAL_SECONDS = 30;
+    private static final int DEFAULT_MUTATION_THRESHOLD = 25;
+    private static final int DEFAULT_COMPACT_EVERY = 20;
+    private static final long POLL_MILLIS = 100;
+
+    private final StudentManager manager;
+    private final Path file;
+    private final long intervalSeconds;
+    private final int mutationThreshold;
+    private final int compactEvery;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pendingMutations = new AtomicInteger();
+
+    // Only touched from the executor thread (or after it has shut down)
+    private long mutationsSeen;
+    private int segmentsSinceSnapshot;
+    private boolean snapshotRequired;
+
+    public AutoSaveScheduler(StudentManager manager, long intervalSeconds, int mutationThreshold, int compactEvery) {
+        this(manager, DataStore.defaultFile(), intervalSeconds, mutationThreshold, compactEvery);
+    }
+
+    /**
+     * Scheduler saving to a specific snapshot file, e.g. one shard of a
+     * ShardedStudentManager
+     */
+    public AutoSaveScheduler(StudentManager manager, Path file, long intervalSeconds, int mutationThreshold,
+                             int compactEvery) {
+        if (intervalSeconds <= 0 || mutationThreshold <= 0 || compactEvery <= 0) {
+            throw new IllegalArgumentException("Auto-save settings must be positive");
+        }
+        this.manager = manager;
+        this.file = file;
+        this.intervalSeconds = intervalSeconds;
+        this.mutationThreshold = mutationThreshold;
+        this.compactEvery = compactEvery;
+        this.segmentsSinceSnapshot = DataStore.countDeltaSegments(file);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sms-autosave");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Create a scheduler using the sms.autosave.* system properties */
+    public static AutoSaveScheduler fromSystemProperties(StudentManager manager) {
+        return fromSystemProperties(manager, DataStore.defaultFile());
+    }
+
+    /** Create a scheduler for the given snapshot file using the sms.autosave.* system properties */
+    public static AutoSaveScheduler fromSystemProperties(StudentManager manager, Path file) {
+        return new AutoSaveScheduler(manager, file,
+                Long.getLong("sms.autosave.intervalSeconds", DEFAULT_INTERVAL_SECONDS),
+                Integer.getInteger("sms.autosave.mutations", DEFAULT_MUTATION_THRESHOLD),
+                Integer.getInteger("sms.autosave.compactEvery", DEFAULT_COMPACT_EVERY));
+    }
+
+    /** Start the periodic save task and the mutation counter poll */
+    public void start() {
+        mutationsSeen = manager.getMutationCount();
+        executor.scheduleWithFixedDelay(this::pollMutations, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void pollMutations() {
+        long count = manager.getMutationCount();
+        long added = count - mutationsSeen;
+        mutationsSeen = count;
+        if (added > 0) {
+            countMutations((int) Math.min(Integer.MAX_VALUE, added));
+        }
+    }
+
+    /**
+     * Count a mutation the manager's counter does not include; triggers an
+     * early save once the mutation threshold is reached
+     */
+    public void notifyMutation() {
+        countMutations(1);
+    }
+
+    private void countMutations(int count) {
+        int before = pendingMutations.getAndAdd(count);
+        if (before < mutationThreshold && before + count >= mutationThreshold) {
+            try {
+                executor.execute(this::flushSafely);
+            } catch (Exception e) {
+                // Scheduler already closed; the final save on close covers it
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            snapshotRequired = true;
+            System.out.println("✗ Warning: Auto-save failed: " + e.getMessage());
+        }
+    }
+
+    /** Write pending changes as a delta segment, compacting when due */
+    private void flush() throws IOException {
+        pendingMutations.set(0);
+        if (snapshotRequired || segmentsSinceSnapshot >= compactEvery) {
+            compact();
+            return;
+        }
+        byte[] delta;
+        long sequence;
+        synchronized (manager) {
+            ChangeSet changes = manager.drainChanges();
+            if (changes.isEmpty()) {
+                return;
+            }
+            delta = DataStore.encodeDelta(changes);
+            sequence = changes.getSequence();
+        }
+        try {
+            DataStore.appendDelta(delta, sequence, file);
+            segmentsSinceSnapshot++;
+        } catch (IOException e) {
+            // The drained records are no longer tracked; a snapshot covers them
+            snapshotRequired = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Write a full snapshot now on the scheduler's thread and wait for it,
+     * e.g. before a planned shutdown or a backup
+     */
+    public void snapshotNow() throws IOException {
+        Future<?> done = executor.submit(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                snapshotRequired = true;
+                throw e;
+            }
+            return null;
+        });
+        try {
+            done.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the snapshot", e);
+        }
+    }
+
+    /** Merge everything into a full snapshot and drop the delta segments */
+    private void compact() throws IOException {
+        DataStore.save(manager, file);
+        segmentsSinceSnapshot = 0;
+        snapshotRequired = false;
+    }
+
+    /**
+     * Stop the background task and write a final full snapshot
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (snapshotRequired || segmentsSinceSnapshot > 0 || manager.hasPendingChanges()) {
+            compact();
+        }
+    }
+}
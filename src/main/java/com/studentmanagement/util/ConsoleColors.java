@@ -3,6 +3,8 @@ package com.studentmanagement.util;
 /**
  * ANSI color and style helpers for pretty console output.
  * Works on most Linux/macOS terminals and modern Windows terminals.
+ * Colors are turned off when output is not a terminal, when NO_COLOR is
+ * set or TERM is "dumb"; -Dsms.color=always|never overrides detection.
  */
 public final class ConsoleColors {
     private ConsoleColors() {}
@@ -41,13 +43,35 @@ public final class ConsoleColors {
     public static final String WHITE_BOLD = WHITE + BOLD;
     public static final String BRIGHT_WHITE_BOLD = BRIGHT_WHITE + BOLD;
 
+    private static final boolean ENABLED = detectColorSupport();
+
+    /**
+     * Whether ANSI styles are emitted at all
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    private static boolean detectColorSupport() {
+        String mode = System.getProperty("sms.color", "auto");
+        if (mode.equalsIgnoreCase("always")) return true;
+        if (mode.equalsIgnoreCase("never")) return false;
+        if (System.getenv("NO_COLOR") != null) return false;
+        if ("dumb".equals(System.getenv("TERM"))) return false;
+        return System.console() != null;
+    }
+
     /**
      * Apply one or more ANSI styles to a string and reset at the end.
      */
     public static String colorize(String text, String... styles) {
         if (text == null) return "";
-        if (styles == null || styles.length == 0) return text;
-        StringBuilder sb = new StringBuilder();
+        if (!ENABLED || styles == null || styles.length == 0) return text;
+        int length = text.length() + RESET.length();
+        for (String s : styles) {
+            if (s != null) length += s.length();
+        }
+        StringBuilder sb = new StringBuilder(length); // sized up front so it never grows
         for (String s : styles) {
             if (s != null) sb.append(s);
         }
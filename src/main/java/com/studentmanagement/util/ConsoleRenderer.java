@@ -0,0 +1,175 @@
+package com.studentmanagement.util;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Formatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Buffered console output. Text is encoded straight into one reusable
+ * byte buffer, ANSI styles are encoded once and copied in as bytes, and
+ * the whole screen is sent to the terminal in a single write on flush().
+ * When colors are disabled (see ConsoleColors.isEnabled) styles are
+ * dropped and only plain text is written.
+ *
+ * Callers must flush() before waiting for input.
+ */
+public final class ConsoleRenderer {
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final PrintStream out;
+    private final boolean color;
+    private final CharsetEncoder encoder;
+    private final byte[] newline;
+    private final byte[] reset;
+    private final Map<String, byte[]> encodedStyles = new HashMap<>();
+    private final StringBuilder scratch = new StringBuilder(256);
+    private final Formatter formatter = new Formatter(scratch);
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    public ConsoleRenderer(PrintStream out, boolean color, Charset charset) {
+        this.out = out;
+        this.color = color;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.newline = System.lineSeparator().getBytes(charset);
+        this.reset = color ? ConsoleColors.RESET.getBytes(charset) : NO_BYTES;
+    }
+
+    /**
+     * Renderer for System.out, using its encoding and color detection
+     */
+    public static ConsoleRenderer forStdout() {
+        return new ConsoleRenderer(System.out, ConsoleColors.isEnabled(), stdoutCharset());
+    }
+
+    private static Charset stdoutCharset() {
+        String name = System.getProperty("sun.stdout.encoding");
+        if (name != null) {
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException e) {
+                // fall through to the default
+            }
+        }
+        return Charset.defaultCharset();
+    }
+
+    public boolean isColorEnabled() {
+        return color;
+    }
+
+    /**
+     * Append text with optional styles, reset at the end as colorize does
+     */
+    public synchronized ConsoleRenderer text(String text, String... styles) {
+        if (text == null) {
+            return this;
+        }
+        boolean styled = false;
+        if (color && styles != null) {
+            for (String style : styles) {
+                if (style != null) {
+                    put(encodedStyles.computeIfAbsent(style, s -> s.getBytes(encoder.charset())));
+                    styled = true;
+                }
+            }
+        }
+        encode(CharBuffer.wrap(text));
+        if (styled) {
+            put(reset);
+        }
+        return this;
+    }
+
+    /**
+     * Append text with optional styles followed by a line separator
+     */
+    public synchronized ConsoleRenderer line(String text, String... styles) {
+        text(text, styles);
+        put(newline);
+        return this;
+    }
+
+    public synchronized ConsoleRenderer line() {
+        put(newline);
+        return this;
+    }
+
+    /**
+     * Append formatted text, reusing one Formatter and scratch builder
+     */
+    public synchronized ConsoleRenderer printf(String format, Object... args) {
+        scratch.setLength(0);
+        formatter.format(format, args);
+        encode(CharBuffer.wrap(scratch));
+        return this;
+    }
+
+    /**
+     * Append formatted text in one style. Use this rather than printf over
+     * a colorize()d format, which follows stdout's color setting instead
+     * of this renderer's.
+     */
+    public synchronized ConsoleRenderer styledPrintf(String style, String format, Object... args) {
+        boolean styled = color && style != null;
+        if (styled) {
+            put(encodedStyles.computeIfAbsent(style, s -> s.getBytes(encoder.charset())));
+        }
+        scratch.setLength(0);
+        formatter.format(format, args);
+        encode(CharBuffer.wrap(scratch));
+        if (styled) {
+            put(reset);
+        }
+        return this;
+    }
+
+    /** Bytes waiting to be written */
+    public synchronized int pending() {
+        return buffer.position();
+    }
+
+    /**
+     * Write everything buffered so far in one call and reset the buffer
+     */
+    public synchronized void flush() {
+        if (buffer.position() > 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        out.flush();
+    }
+
+    private void encode(CharBuffer chars) {
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            grow(chars.remaining() * 3);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            grow(16);
+        }
+    }
+
+    private void put(byte[] bytes) {
+        if (buffer.remaining() < bytes.length) {
+            grow(bytes.length);
+        }
+        buffer.put(bytes);
+    }
+
+    private void grow(int needed) {
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + needed + 16);
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+}
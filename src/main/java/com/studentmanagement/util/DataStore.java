@@ -1,61 +1,370 @@
 package com.studentmanagement.util;
 
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.ChangeSet;
 import com.studentmanagement.service.StudentManager;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Simple file-based persistence for StudentManager state.
- * Uses Java serialization to save/load the entire manager.
+ * Full snapshots use the checksummed block format from SnapshotCodec,
+ * plus small delta segments holding only the students changed between
+ * snapshots. Every file is written to a temp file, fsync'd and renamed
+ * into place so a crash never leaves a half-written file behind.
+ *
+ * Unless -Dsms.warmImage=false is set, each snapshot is followed by a
+ * warm index image (students.dat.warm) so loading can skip rebuilding
+ * the secondary indexes.
  */
 public class DataStore {
     private static final String DATA_DIR = "data";
     private static final String STUDENTS_FILE = DATA_DIR + "/students.dat";
+    private static final String DELTA_SUFFIX = ".delta.";
+    private static final String WARM_SUFFIX = ".warm";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
-    /** Ensure data directory exists */
-    private static void ensureDataDir() throws IOException {
-        Path dir = Paths.get(DATA_DIR);
+    /** Default snapshot file, data/students.dat */
+    public static Path defaultFile() {
+        return Paths.get(STUDENTS_FILE);
+    }
+
+    /** Ensure the directory holding a snapshot file exists */
+    private static void ensureDataDir(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
         if (!Files.exists(dir)) {
             Files.createDirectories(dir);
         }
     }
 
-    /** Save StudentManager to disk */
+    /** Save StudentManager to disk as a full snapshot */
     public static void save(StudentManager manager) throws IOException {
-        ensureDataDir();
-        try (FileOutputStream fos = new FileOutputStream(STUDENTS_FILE);
-             ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            oos.writeObject(manager);
-            oos.flush();
+        save(manager, defaultFile());
+    }
+
+    /** Save StudentManager as a full snapshot in the given file */
+    public static void save(StudentManager manager, Path file) throws IOException {
+        List<ByteBuffer> snapshot;
+        ByteBuffer image = null;
+        long sequence;
+        synchronized (manager) {
+            // Everything pending is part of the snapshot
+            manager.drainChanges();
+            List<Student> roster = manager.getAllStudents();
+            snapshot = SnapshotCodec.encode(manager, roster,
+                    Integer.getInteger("sms.snapshot.blockSize", SnapshotCodec.DEFAULT_BLOCK_SIZE));
+            if (warmImageEnabled()) {
+                image = SnapshotCodec.encodeIndexImage(manager, roster, snapshot);
+            }
+            sequence = manager.getJournalSequence();
+        }
+        writeSnapshot(file, snapshot, sequence);
+        // Written after the snapshot; an image left over from an older snapshot is ignored on load
+        if (image != null) {
+            writeAtomically(warmImageFile(file), List.of(image));
+        } else {
+            Files.deleteIfExists(warmImageFile(file));
+        }
+    }
+
+    private static boolean warmImageEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("sms.warmImage"));
+    }
+
+    /** Warm index image kept next to a snapshot file */
+    public static Path warmImageFile(Path file) {
+        return file.resolveSibling(file.getFileName() + WARM_SUFFIX);
+    }
+
+    /** Serialize a change set; caller must hold the owning manager's lock */
+    public static byte[] encodeDelta(ChangeSet changes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(changes);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write an encoded snapshot and drop the delta segments it covers
+     */
+    private static void writeSnapshot(Path file, List<ByteBuffer> snapshot, long coveredSequence) throws IOException {
+        ensureDataDir(file);
+        writeAtomically(file, snapshot);
+        for (Path segment : listDeltaSegments(file)) {
+            if (segmentSequence(file, segment) <= coveredSequence) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /**
+     * Write an encoded change set as the delta segment for the given sequence
+     */
+    public static void appendDelta(byte[] delta, long sequence) throws IOException {
+        appendDelta(delta, sequence, defaultFile());
+    }
+
+    /** Write a delta segment belonging to the given snapshot file */
+    public static void appendDelta(byte[] delta, long sequence, Path file) throws IOException {
+        ensureDataDir(file);
+        Path segment = file.resolveSibling(file.getFileName() + DELTA_SUFFIX + String.format("%012d", sequence));
+        writeAtomically(segment, List.of(ByteBuffer.wrap(delta)));
+    }
+
+    /**
+     * Delete a snapshot file together with all of its delta segments
+     */
+    public static void delete(Path file) throws IOException {
+        for (Path segment : listDeltaSegments(file)) {
+            Files.deleteIfExists(segment);
+        }
+        Files.deleteIfExists(warmImageFile(file));
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Write a small file the way snapshots are written: temp file, fsync,
+     * atomic rename and a sync of the directory
+     */
+    public static void writeAtomically(Path target, byte[] data) throws IOException {
+        writeAtomically(target, List.of(ByteBuffer.wrap(data)));
+    }
+
+    /**
+     * Write buffers to a temp file, fsync it and atomically rename it over the target
+     */
+    private static void writeAtomically(Path target, List<ByteBuffer> buffers) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] array = buffers.stream().map(ByteBuffer::duplicate).toArray(ByteBuffer[]::new);
+            long remaining = 0;
+            for (ByteBuffer buffer : array) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(array);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /** Make the rename durable; not supported on every platform */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Best effort only (e.g. Windows cannot open directories)
+        }
+    }
+
+    /** Number of delta segments currently on disk */
+    public static int countDeltaSegments() {
+        return countDeltaSegments(defaultFile());
+    }
+
+    /** Number of delta segments on disk for the given snapshot file */
+    public static int countDeltaSegments(Path file) {
+        try {
+            return listDeltaSegments(file).size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /** Delta segment files of a snapshot file, sorted by sequence */
+    private static List<Path> listDeltaSegments(Path file) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        Path dir = file.toAbsolutePath().getParent();
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, file.getFileName() + DELTA_SUFFIX + "*")) {
+            for (Path path : stream) {
+                if (segmentSequence(file, path) > 0) {
+                    segments.add(path);
+                }
+            }
         }
+        segments.sort((a, b) -> Long.compare(segmentSequence(file, a), segmentSequence(file, b)));
+        return segments;
     }
 
-    /** Load StudentManager from disk, or return new instance if not found */
+    private static long segmentSequence(Path file, Path segment) {
+        try {
+            int prefixLength = file.getFileName().toString().length() + DELTA_SUFFIX.length();
+            return Long.parseLong(segment.getFileName().toString().substring(prefixLength));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Load StudentManager from disk, or return new instance if not found.
+     * Damaged blocks are reported with their byte ranges and skipped; the
+     * damaged file is kept aside so the next save cannot destroy it.
+     * Delta segments that cannot be replayed are moved aside the same way.
+     */
     public static StudentManager load() {
+        return load(defaultFile());
+    }
+
+    /** Load a StudentManager from the given snapshot file and its delta segments */
+    public static StudentManager load(Path file) {
+        StudentManager manager = null;
+        boolean usableBase = true;
+        try {
+            if (Files.exists(file) && Files.size(file) > 0) {
+                manager = readSnapshot(file);
+            }
+        } catch (Exception e) {
+            System.out.println("✗ Warning: Failed to load data. Starting with empty data. Details: " + e.getMessage());
+            preserveCorruptFile(file);
+            usableBase = false;
+        }
+        if (manager == null) {
+            manager = new StudentManager();
+        }
+        applyDeltaSegments(file, manager, usableBase);
+        return manager;
+    }
+
+    private static StudentManager readSnapshot(Path file) throws IOException, ClassNotFoundException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!SnapshotCodec.isBlockSnapshot(data)) {
+                return readLegacySnapshot(data);
+            }
+            SnapshotCodec.DecodeResult result = SnapshotCodec.decode(data, mapWarmImage(file));
+            if (!result.isClean()) {
+                System.out.println("✗ Warning: " + result.getCorruptBlocks().size() + " damaged block(s) in " + file + ":");
+                for (String block : result.getCorruptBlocks()) {
+                    System.out.println("    " + block);
+                }
+                System.out.println("  Loaded " + result.getManager().getTotalStudents() + " students from intact blocks.");
+                preserveCorruptFile(file);
+            }
+            return result.getManager();
+        }
+    }
+
+    /** The warm image next to a snapshot, or null if absent, disabled or unreadable */
+    private static ByteBuffer mapWarmImage(Path file) {
+        Path image = warmImageFile(file);
+        if (!warmImageEnabled() || !Files.exists(image)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            return null; // indexes are rebuilt instead
+        }
+    }
+
+    /** Read a snapshot written by older versions (one serialized manager) */
+    private static StudentManager readLegacySnapshot(ByteBuffer data) throws IOException, ClassNotFoundException {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            Object obj = ois.readObject();
+            if (obj instanceof StudentManager) {
+                return (StudentManager) obj;
+            }
+            throw new IOException("Unexpected object in snapshot: " + obj.getClass().getName());
+        }
+    }
+
+    /** Copy a damaged snapshot aside before it gets overwritten */
+    private static void preserveCorruptFile(Path file) {
+        try {
+            if (Files.exists(file)) {
+                Path copy = file.resolveSibling(file.getFileName() + ".corrupt-" + LocalDateTime.now().format(STAMP));
+                Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("  Damaged file preserved as " + copy);
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Warning: Could not preserve damaged file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replay delta segments newer than the snapshot, in sequence order.
+     * Each segment builds on the one before, so replay stops at the first
+     * one that is missing or unreadable, and without a usable snapshot
+     * nothing is replayed. Segments not replayed are moved aside: the
+     * next deltas reuse their sequence numbers, and compaction would
+     * delete them.
+     */
+    private static void applyDeltaSegments(Path file, StudentManager manager, boolean usableBase) {
+        List<Path> segments;
         try {
-            File file = new File(STUDENTS_FILE);
-            if (!file.exists() || file.length() == 0) {
-                return new StudentManager();
+            segments = listDeltaSegments(file);
+        } catch (IOException e) {
+            System.out.println("✗ Warning: Failed to read delta segments: " + e.getMessage());
+            return;
+        }
+        String problem = usableBase ? null : "the snapshot they apply to could not be loaded";
+        int next = 0;
+        for (; next < segments.size() && problem == null; next++) {
+            Path segment = segments.get(next);
+            long sequence = segmentSequence(file, segment);
+            if (sequence <= manager.getJournalSequence()) {
+                continue; // already covered by the snapshot
+            }
+            if (sequence != manager.getJournalSequence() + 1) {
+                problem = "segment " + (manager.getJournalSequence() + 1) + " is missing";
+                break;
             }
-            try (FileInputStream fis = new FileInputStream(file);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
+            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(segment))) {
                 Object obj = ois.readObject();
-                if (obj instanceof StudentManager) {
-                    return (StudentManager) obj;
+                if (!(obj instanceof ChangeSet)) {
+                    throw new IOException("Unexpected object in delta segment: " + obj.getClass().getName());
                 }
+                manager.applyChanges((ChangeSet) obj);
+            } catch (Exception e) {
+                String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                problem = segment.getFileName() + " is unreadable (" + reason + ")";
+                break;
+            }
+        }
+        if (problem == null) {
+            return;
+        }
+        System.out.println("✗ Warning: Not replaying " + (segments.size() - next) + " delta segment(s): " + problem);
+        String stamp = LocalDateTime.now().format(STAMP);
+        for (; next < segments.size(); next++) {
+            Path segment = segments.get(next);
+            Path aside = segment.resolveSibling(segment.getFileName() + ".unapplied-" + stamp);
+            try {
+                Files.move(segment, aside, StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("  Moved " + segment.getFileName() + " aside as " + aside.getFileName());
+            } catch (IOException e) {
+                System.out.println("✗ Warning: Could not move " + segment.getFileName() + " aside: " + e.getMessage());
             }
-        } catch (Exception e) {
-            // If any error occurs, return a fresh manager to keep the app usable
-            System.out.println("✗ Warning: Failed to load data. Starting with empty data. Details: " + e.getMessage());
         }
-        return new StudentManager();
     }
 }
@@ -0,0 +1,236 @@
+package com.studentmanagement.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One parsed line of a session log:
+ * "yyyy-MM-dd HH:mm:ss | session | action | details".
+ *
+ * Lines are parsed straight from the (memory-mapped) bytes by scanning
+ * for the " | " separators; the details column is only split into
+ * key/value pairs when asked for.
+ */
+public class SessionLogEntry {
+    private static final int TIMESTAMP_LENGTH = 19;
+    private static final long UNPARSED = -2;
+
+    private final LocalDateTime timestamp;
+    private final String sessionId;
+    private final String action;
+    private final String details;
+    private final long offset;
+    private Map<String, String> parsedDetails;
+    private long sequence = UNPARSED;
+
+    SessionLogEntry(LocalDateTime timestamp, String sessionId, String action, String details, long offset) {
+        this.timestamp = timestamp;
+        this.sessionId = sessionId;
+        this.action = action;
+        this.details = details;
+        this.offset = offset;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    /** The details column exactly as written */
+    public String getDetails() {
+        return details;
+    }
+
+    /** Byte offset of the line in its file */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Mutation sequence written first in the details by
+     * SessionLogger.logChange, or -1 if the line has none
+     */
+    public long getSequence() {
+        if (sequence == UNPARSED) {
+            sequence = -1;
+            if (details.startsWith("seq=")) {
+                long value = 0;
+                int i = 4;
+                for (; i < details.length() && details.charAt(i) >= '0' && details.charAt(i) <= '9'; i++) {
+                    value = value * 10 + (details.charAt(i) - '0');
+                }
+                if (i > 4) {
+                    sequence = value;
+                }
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Value of one key in the details column, unescaped, or null
+     */
+    public String detail(String key) {
+        if (parsedDetails == null) {
+            parsedDetails = parseDetails(details);
+        }
+        return parsedDetails.get(key);
+    }
+
+    /**
+     * Parse the line in bytes [start, end) of a buffer; returns null if it
+     * is not a well-formed log line. previousSession is reused when the
+     * session column matches it, so a file's lines share one String.
+     */
+    static SessionLogEntry parse(ByteBuffer buffer, int start, int end, long offset, String previousSession) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        int sessionStart = start + TIMESTAMP_LENGTH + 3;
+        if (end < sessionStart || !isSeparator(buffer, start + TIMESTAMP_LENGTH)) {
+            return null;
+        }
+        LocalDateTime timestamp = parseTimestamp(buffer, start);
+        if (timestamp == null) {
+            return null;
+        }
+        int sessionEnd = indexOfSeparator(buffer, sessionStart, end);
+        if (sessionEnd < 0) {
+            return null;
+        }
+        int actionStart = sessionEnd + 3;
+        int actionEnd = indexOfSeparator(buffer, actionStart, end);
+        int detailsStart = actionEnd + 3;
+        if (actionEnd < 0) {
+            // A line with an empty details column has no trailing space after the last separator
+            if (end - actionStart >= 2 && buffer.get(end - 2) == ' ' && buffer.get(end - 1) == '|') {
+                actionEnd = end - 2;
+                detailsStart = end;
+            } else {
+                return null;
+            }
+        }
+        String sessionId = previousSession != null && matches(buffer, sessionStart, sessionEnd, previousSession)
+                           ? previousSession : decode(buffer, sessionStart, sessionEnd);
+        return new SessionLogEntry(timestamp, sessionId, decode(buffer, actionStart, actionEnd),
+                                   decode(buffer, detailsStart, end), offset);
+    }
+
+    private static boolean isSeparator(ByteBuffer buffer, int at) {
+        return buffer.get(at) == ' ' && buffer.get(at + 1) == '|' && buffer.get(at + 2) == ' ';
+    }
+
+    private static int indexOfSeparator(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i + 3 <= end; i++) {
+            if (buffer.get(i) == ' ' && isSeparator(buffer, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** yyyy-MM-dd HH:mm:ss from fixed positions */
+    private static LocalDateTime parseTimestamp(ByteBuffer buffer, int at) {
+        int year = digits(buffer, at, 4);
+        int month = digits(buffer, at + 5, 2);
+        int day = digits(buffer, at + 8, 2);
+        int hour = digits(buffer, at + 11, 2);
+        int minute = digits(buffer, at + 14, 2);
+        int second = digits(buffer, at + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(ByteBuffer buffer, int at, int count) {
+        int value = 0;
+        for (int i = at; i < at + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) != text.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Decode bytes, skipping the UTF-8 decoder for plain ASCII */
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        byte[] bytes = new byte[length];
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+            ascii &= bytes[i] >= 0;
+        }
+        return new String(bytes, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Split "key=value, key=value", honouring SessionLogger.details escapes
+     */
+    static Map<String, String> parseDetails(String details) {
+        Map<String, String> values = new LinkedHashMap<>();
+        StringBuilder value = new StringBuilder();
+        int i = 0;
+        int length = details.length();
+        while (i < length) {
+            int equals = details.indexOf('=', i);
+            if (equals < 0) {
+                break;
+            }
+            String key = details.substring(i, equals).trim();
+            value.setLength(0);
+            i = equals + 1;
+            while (i < length) {
+                char c = details.charAt(i);
+                if (c == '\\' && i + 1 < length) {
+                    char next = details.charAt(i + 1);
+                    value.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+                    i += 2;
+                } else if (c == ',' && i + 1 < length && details.charAt(i + 1) == ' ') {
+                    i += 2;
+                    break;
+                } else {
+                    value.append(c);
+                    i++;
+                }
+            }
+            values.put(key, value.toString());
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + " " + action + (details.isEmpty() ? "" : " " + details);
+    }
+}
@@ -0,0 +1,868 @@
+package com.studentmanagement.util;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.StudentBatch;
+import com.studentmanagement.service.StudentManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the session logs under data/sessions back, either to audit what
+ * operators did or to replay the recorded changes into a StudentManager.
+ *
+ * Files are taken in session order (their names start with the session's
+ * start time) and split into chunks that are memory-mapped and parsed in
+ * parallel. Sessions served by one JVM at the same time share a run ID and
+ * tag each change with the manager's mutation sequence; one thread merges
+ * the files of a run by that sequence and takes runs one after another, so
+ * a replay applies changes in the order they were made. Replay logs after
+ * the server has stopped: a change another session has not logged yet
+ * would be applied late. With a checkpoint file,
+ * progress (and for a replay, the rebuilt roster) is saved every few
+ * megabytes of log, and the next run resumes where the last one stopped.
+ *
+ * Only entries written with SessionLogger.details carry enough detail to
+ * replay; older CREATE_STUDENT, ASSIGN_COURSE and similar lines are
+ * counted as skipped.
+ */
+public class SessionLogReplayer {
+    public static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+    public static final long DEFAULT_CHECKPOINT_BYTES = 64L << 20;
+    private static final int MAX_LINE_BYTES = 1 << 20;
+    private static final int MAX_FAILURES_KEPT = 20;
+    private static final String AUDIT = "audit";
+    private static final String REPLAY = "replay";
+
+    /**
+     * Totals for everything read so far, including earlier runs resumed
+     * from a checkpoint
+     */
+    public static class Summary {
+        private int files;
+        private long bytes;
+        private long entries;
+        private long malformed;
+        private long sessions;
+        private LocalDateTime first;
+        private LocalDateTime last;
+        private final Map<String, Long> actions = new TreeMap<>();
+        private long applied;
+        private long skipped;
+        private long failed;
+        private final List<String> failures = new ArrayList<>();
+        private boolean resumed;
+        private long elapsedNanos;
+
+        /** Log files with at least one chunk read in this run */
+        public int getFiles() {
+            return files;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /** Well-formed lines read */
+        public long getEntries() {
+            return entries;
+        }
+
+        /** Lines that did not have the "timestamp | session | action | details" shape */
+        public long getMalformed() {
+            return malformed;
+        }
+
+        /** Number of SESSION_START lines */
+        public long getSessions() {
+            return sessions;
+        }
+
+        public LocalDateTime getFirstTimestamp() {
+            return first;
+        }
+
+        public LocalDateTime getLastTimestamp() {
+            return last;
+        }
+
+        /** Entry count per action, in action order */
+        public Map<String, Long> getActionCounts() {
+            return Collections.unmodifiableMap(actions);
+        }
+
+        /** Changes replayed successfully (replay only) */
+        public long getApplied() {
+            return applied;
+        }
+
+        /** Changes logged without enough detail to replay (replay only) */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /** Changes the manager rejected (replay only) */
+        public long getFailed() {
+            return failed;
+        }
+
+        /** The first few rejected changes, as "file@offset ACTION: reason" */
+        public List<String> getFailures() {
+            return Collections.unmodifiableList(failures);
+        }
+
+        /** Whether this run continued from a checkpoint */
+        public boolean isResumed() {
+            return resumed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        void add(SessionLogEntry entry) {
+            entries++;
+            actions.merge(entry.getAction(), 1L, Long::sum);
+            if ("SESSION_START".equals(entry.getAction())) {
+                sessions++;
+            }
+            if (first == null || entry.getTimestamp().isBefore(first)) {
+                first = entry.getTimestamp();
+            }
+            if (last == null || entry.getTimestamp().isAfter(last)) {
+                last = entry.getTimestamp();
+            }
+        }
+
+        void fail(String where, SessionLogEntry entry, String reason) {
+            failed++;
+            if (failures.size() < MAX_FAILURES_KEPT) {
+                failures.add(where + "@" + entry.getOffset() + " " + entry.getAction() + ": " + reason);
+            }
+        }
+
+        void store(Properties properties) {
+            properties.setProperty("entries", Long.toString(entries));
+            properties.setProperty("malformed", Long.toString(malformed));
+            properties.setProperty("bytes", Long.toString(bytes));
+            properties.setProperty("sessions", Long.toString(sessions));
+            properties.setProperty("applied", Long.toString(applied));
+            properties.setProperty("skipped", Long.toString(skipped));
+            properties.setProperty("failed", Long.toString(failed));
+            if (first != null) {
+                properties.setProperty("first", first.toString());
+                properties.setProperty("last", last.toString());
+            }
+            for (Map.Entry<String, Long> entry : actions.entrySet()) {
+                properties.setProperty("action." + entry.getKey(), entry.getValue().toString());
+            }
+        }
+
+        void load(Properties properties) {
+            entries = Long.parseLong(properties.getProperty("entries", "0"));
+            malformed = Long.parseLong(properties.getProperty("malformed", "0"));
+            bytes = Long.parseLong(properties.getProperty("bytes", "0"));
+            sessions = Long.parseLong(properties.getProperty("sessions", "0"));
+            applied = Long.parseLong(properties.getProperty("applied", "0"));
+            skipped = Long.parseLong(properties.getProperty("skipped", "0"));
+            failed = Long.parseLong(properties.getProperty("failed", "0"));
+            if (properties.getProperty("first") != null) {
+                first = LocalDateTime.parse(properties.getProperty("first"));
+                last = LocalDateTime.parse(properties.getProperty("last"));
+            }
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith("action.")) {
+                    actions.put(key.substring(7), Long.parseLong(properties.getProperty(key)));
+                }
+            }
+            resumed = true;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(entries).append(" entries (").append(malformed).append(" malformed) from ")
+              .append(files).append(" file(s), ").append((bytes + 1023) / 1024).append(" KB, ")
+              .append(sessions).append(" session(s)");
+            if (first != null) {
+                sb.append(", ").append(first).append(" to ").append(last);
+            }
+            if (applied + skipped + failed > 0) {
+                sb.append("; replayed ").append(applied).append(", skipped ").append(skipped)
+                  .append(" without details, ").append(failed).append(" failed");
+            }
+            sb.append(resumed ? "; resumed from checkpoint" : "").append(" in ").append(getElapsedMillis()).append(" ms");
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Roster rebuilt by a replay, with the summary of the run
+     */
+    public static class Replay {
+        private final StudentManager manager;
+        private final Summary summary;
+
+        Replay(StudentManager manager, Summary summary) {
+            this.manager = manager;
+            this.summary = summary;
+        }
+
+        public StudentManager getManager() {
+            return manager;
+        }
+
+        public Summary getSummary() {
+            return summary;
+        }
+    }
+
+    /** A byte range of one log file, parsed as one task */
+    private static class Chunk {
+        final Path file;
+        final long start;
+        final long end;
+        final long fileSize;
+
+        Chunk(Path file, long start, long end, long fileSize) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.fileSize = fileSize;
+        }
+    }
+
+    /**
+     * Lines starting inside a chunk; endOffset is where the next unread
+     * line starts, or -1 if the chunk held no line start at all
+     */
+    private static class Parsed {
+        final List<SessionLogEntry> entries = new ArrayList<>();
+        final List<Long> malformedOffsets = new ArrayList<>();
+        long endOffset = -1;
+    }
+
+    /** Receives parsed entries in log order */
+    private interface EntryConsumer {
+        void accept(String fileName, SessionLogEntry entry);
+    }
+
+    private final Path directory;
+    private Path checkpointFile;
+    private long checkpointEveryBytes = DEFAULT_CHECKPOINT_BYTES;
+    private int chunkBytes = DEFAULT_CHUNK_BYTES;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    public SessionLogReplayer(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Save progress to this file and resume from it if it already exists
+     */
+    public SessionLogReplayer withCheckpoint(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+        return this;
+    }
+
+    /** Checkpoint after roughly this many bytes of log */
+    public SessionLogReplayer withCheckpointEvery(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointEveryBytes = bytes;
+        return this;
+    }
+
+    /** Bytes of log parsed by a single task */
+    public SessionLogReplayer withChunkBytes(int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkBytes = chunkBytes;
+        return this;
+    }
+
+    public SessionLogReplayer withPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Count entries, sessions and actions across all logs
+     */
+    public Summary audit() throws IOException {
+        Summary summary = new Summary();
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        Properties checkpoint = readCheckpoint(AUDIT);
+        if (checkpoint != null) {
+            summary.load(checkpoint);
+            loadOffsets(checkpoint, offsets);
+        }
+        run(summary, offsets, (file, entry) -> { }, () -> writeCheckpoint(AUDIT, summary, offsets, null, null));
+        return summary;
+    }
+
+    /**
+     * Replay every logged change into a new roster, or into the roster
+     * saved with the checkpoint when resuming
+     */
+    public Replay replay() throws IOException {
+        Summary summary = new Summary();
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        StudentManager manager = new StudentManager();
+        Properties checkpoint = readCheckpoint(REPLAY);
+        long[] generation = {0};
+        if (checkpoint != null) {
+            summary.load(checkpoint);
+            loadOffsets(checkpoint, offsets);
+            generation[0] = Long.parseLong(checkpoint.getProperty("generation", "0"));
+            manager = DataStore.load(stateFile(generation[0]));
+        }
+        StudentManager target = manager;
+        run(summary, offsets, (file, entry) -> apply(target, file, entry, summary), () -> {
+            Path previous = stateFile(generation[0]);
+            generation[0]++;
+            writeCheckpoint(REPLAY, summary, offsets, target, generation[0]);
+            DataStore.delete(previous);
+        });
+        return new Replay(manager, summary);
+    }
+
+    /** Checkpoint writer, called with progress consistent up to the last consumed chunk */
+    private interface CheckpointAction {
+        void run() throws IOException;
+    }
+
+    private void run(Summary summary, Map<String, Long> offsets, EntryConsumer consumer,
+                     CheckpointAction checkpoint) throws IOException {
+        long start = System.nanoTime();
+        List<List<FileCursor>> runs = planRuns(summary, offsets);
+        int window = Math.max(2, pool.getParallelism() * 2);
+        long checkpointedBytes = summary.bytes;
+        try {
+            for (List<FileCursor> files : runs) {
+                int depth = Math.max(1, window / files.size());
+                PriorityQueue<FileCursor> heads = new PriorityQueue<>();
+                for (FileCursor cursor : files) {
+                    if (cursor.ready(depth)) {
+                        heads.add(cursor);
+                    }
+                }
+                while (!heads.isEmpty()) {
+                    FileCursor cursor = heads.poll();
+                    SessionLogEntry entry = cursor.take();
+                    summary.add(entry);
+                    consumer.accept(cursor.name, entry);
+                    if (cursor.ready(depth)) {
+                        heads.add(cursor);
+                    }
+                    if (checkpointFile != null && summary.bytes - checkpointedBytes >= checkpointEveryBytes) {
+                        checkpoint.run();
+                        checkpointedBytes = summary.bytes;
+                    }
+                }
+            }
+        } finally {
+            for (List<FileCursor> files : runs) {
+                files.forEach(FileCursor::cancel);
+            }
+        }
+        if (checkpointFile != null && (summary.bytes > checkpointedBytes || !Files.exists(checkpointFile))) {
+            checkpoint.run();
+        }
+        summary.elapsedNanos = System.nanoTime() - start;
+    }
+
+    private static Parsed await(Future<Parsed> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Log reading interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to read session log: " + cause, cause);
+        }
+    }
+
+    /**
+     * One log file being read: its chunks are parsed ahead on the pool and
+     * its entries handed out one at a time, so the files of one run can be
+     * merged. Ordered by the sequence of the next entry; lines without one
+     * (logins, reports, older logs) take the last sequence seen in their
+     * file, which keeps them after the change logged before them.
+     */
+    private final class FileCursor implements Comparable<FileCursor> {
+        final Path file;
+        final String name;
+        final int order;
+        final Summary summary;
+        final Map<String, Long> offsets;
+        final List<Chunk> chunks = new ArrayList<>();
+        final ArrayDeque<Future<Parsed>> inFlight = new ArrayDeque<>();
+        int submitted;
+        Parsed current;
+        int index;
+        int malformedCounted;
+        long sequence;
+        long headKey;
+
+        FileCursor(Path file, int order, Summary summary, Map<String, Long> offsets) {
+            this.file = file;
+            this.name = file.getFileName().toString();
+            this.order = order;
+            this.summary = summary;
+            this.offsets = offsets;
+        }
+
+        /** Load chunks until an entry is available; false once the file is used up */
+        boolean ready(int depth) throws IOException {
+            while (current == null || index >= current.entries.size()) {
+                if (current != null && current.endOffset >= 0) {
+                    consumedTo(current.endOffset);
+                }
+                while (submitted < chunks.size() && inFlight.size() < depth) {
+                    Chunk chunk = chunks.get(submitted++);
+                    inFlight.add(pool.submit(() -> parse(chunk)));
+                }
+                if (inFlight.isEmpty()) {
+                    current = null;
+                    return false;
+                }
+                if (current == null) {
+                    summary.files++;
+                }
+                current = await(inFlight.poll());
+                index = 0;
+                malformedCounted = 0;
+            }
+            long next = current.entries.get(index).getSequence();
+            headKey = next >= 0 ? next : sequence;
+            return true;
+        }
+
+        SessionLogEntry take() {
+            SessionLogEntry entry = current.entries.get(index++);
+            if (entry.getSequence() >= 0) {
+                sequence = entry.getSequence();
+            }
+            if (index < current.entries.size()) {
+                consumedTo(current.entries.get(index).getOffset());
+            } else if (current.endOffset >= 0) {
+                consumedTo(current.endOffset);
+            }
+            return entry;
+        }
+
+        /** Everything before offset has been handed out; record it for checkpoints */
+        private void consumedTo(long offset) {
+            long previous = offsets.getOrDefault(name, 0L);
+            if (offset > previous) {
+                summary.bytes += offset - previous;
+                offsets.put(name, offset);
+            }
+            while (malformedCounted < current.malformedOffsets.size()
+                    && current.malformedOffsets.get(malformedCounted) < offset) {
+                summary.malformed++;
+                malformedCounted++;
+            }
+        }
+
+        void cancel() {
+            inFlight.forEach(f -> f.cancel(true));
+        }
+
+        @Override
+        public int compareTo(FileCursor other) {
+            int bySequence = Long.compare(headKey, other.headKey);
+            return bySequence != 0 ? bySequence : Integer.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Group the log files by the run that wrote them, in order of each
+     * run's first session, and split every file from its checkpointed
+     * offset on into chunks. Files without a run ID (written before
+     * sessions logged one) form a run of their own.
+     */
+    private List<List<FileCursor>> planRuns(Summary summary, Map<String, Long> offsets) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.log")) {
+                for (Path file : stream) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparing(file -> file.getFileName().toString()));
+        Map<String, List<FileCursor>> runs = new LinkedHashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            FileCursor cursor = new FileCursor(file, i, summary, offsets);
+            long size = Files.size(file);
+            long from = offsets.getOrDefault(cursor.name, 0L);
+            if (from > size) {
+                throw new IOException("Checkpoint is past the end of " + cursor.name
+                                      + "; the file was truncated or replaced");
+            }
+            for (long start = from; start < size; start += chunkBytes) {
+                cursor.chunks.add(new Chunk(file, start, Math.min(size, start + chunkBytes), size));
+            }
+            if (!cursor.chunks.isEmpty()) {
+                String run = readRunId(file);
+                runs.computeIfAbsent(run != null ? run : cursor.name, key -> new ArrayList<>()).add(cursor);
+            }
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    /** Run ID from the SESSION_START line a file begins with, or null */
+    private static String readRunId(Path file) throws IOException {
+        byte[] head = new byte[1024];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = in.readNBytes(head, 0, head.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(head, 0, length);
+        for (int i = 0; i < length; i++) {
+            if (head[i] == '\n') {
+                SessionLogEntry entry = SessionLogEntry.parse(buffer, 0, i, 0, null);
+                return entry != null && "SESSION_START".equals(entry.getAction()) ? entry.detail("run") : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse the lines that start inside a chunk. The line running into the
+     * chunk belongs to the previous one; the last line may run past the
+     * chunk's end. An unterminated line at the end of the file is left for
+     * a later run, since the session may still be writing it.
+     */
+    private static Parsed parse(Chunk chunk) throws IOException {
+        Parsed parsed = new Parsed();
+        try (FileChannel channel = FileChannel.open(chunk.file, StandardOpenOption.READ)) {
+            long mapStart = chunk.start == 0 ? 0 : chunk.start - 1;
+            long mapEnd = Math.min(chunk.fileSize, chunk.end + MAX_LINE_BYTES);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int limit = buffer.limit();
+            int pos = 0;
+            if (chunk.start > 0) {
+                while (pos < limit && buffer.get(pos) != '\n') {
+                    pos++;
+                }
+                if (pos == limit) {
+                    return parsed; // inside an unterminated last line
+                }
+                pos++;
+            }
+            String session = null;
+            while (pos < limit && mapStart + pos < chunk.end) {
+                int newline = pos;
+                while (newline < limit && buffer.get(newline) != '\n') {
+                    newline++;
+                }
+                if (newline == limit) {
+                    if (mapEnd < chunk.fileSize) {
+                        throw new IOException("Line longer than " + MAX_LINE_BYTES + " bytes at offset "
+                                              + (mapStart + pos) + " of " + chunk.file.getFileName());
+                    }
+                    break;
+                }
+                if (newline > pos) {
+                    SessionLogEntry entry = SessionLogEntry.parse(buffer, pos, newline, mapStart + pos, session);
+                    if (entry == null) {
+                        parsed.malformedOffsets.add(mapStart + pos);
+                    } else {
+                        parsed.entries.add(entry);
+                        session = entry.getSessionId();
+                    }
+                }
+                pos = newline + 1;
+            }
+            parsed.endOffset = mapStart + pos;
+        }
+        return parsed;
+    }
+
+    /**
+     * Apply one entry to the roster, the way the console app made the change
+     */
+    private static void apply(StudentManager manager, String file, SessionLogEntry entry, Summary summary) {
+        try {
+            boolean applied;
+            switch (entry.getAction()) {
+                case "CREATE_STUDENT":
+                    applied = has(entry, "id", "firstName", "lastName", "email", "age");
+                    if (applied) {
+                        manager.createStudentWithId(entry.detail("id"), entry.detail("firstName"), entry.detail("lastName"),
+                                                    entry.detail("email"), Integer.parseInt(entry.detail("age")));
+                    }
+                    break;
+                case "UPDATE_STUDENT":
+                    applied = has(entry, "id", "field", "value");
+                    if (applied) {
+                        manager.updateStudent(entry.detail("id"), entry.detail("field"), entry.detail("value"));
+                    }
+                    break;
+                case "DELETE_STUDENT":
+                    applied = has(entry, "id");
+                    if (applied && !manager.deleteStudent(entry.detail("id"))) {
+                        throw new IllegalArgumentException("Student not found with ID: " + entry.detail("id"));
+                    }
+                    break;
+                case "ASSIGN_COURSE":
+                    applied = has(entry, "id", "course", "name", "credits", "grade");
+                    if (applied) {
+                        manager.assignCourse(entry.detail("id"), entry.detail("course"), entry.detail("name"),
+                                             Integer.parseInt(entry.detail("credits")), Double.parseDouble(entry.detail("grade")));
+                    }
+                    break;
+                case "REMOVE_COURSE":
+                    applied = has(entry, "id", "course");
+                    if (applied) {
+                        manager.removeCourse(entry.detail("id"), entry.detail("course"));
+                    }
+                    break;
+                case "UPDATE_GRADE":
+                    applied = has(entry, "id", "course", "grade");
+                    if (applied) {
+                        manager.updateGrade(entry.detail("id"), entry.detail("course"), Double.parseDouble(entry.detail("grade")));
+                    }
+                    break;
+                case "REGRADE_COURSE":
+                    applied = has(entry, "course", "points");
+                    if (applied) {
+                        double points = Double.parseDouble(entry.detail("points"));
+                        manager.regradeCourse(entry.detail("course"), grade -> Math.max(0, Math.min(100, grade + points)));
+                    }
+                    break;
+                case "BULK_ASSIGN_COURSE":
+                    applied = has(entry, "course", "name", "credits", "grades");
+                    if (applied) {
+                        StudentBatch batch = StudentBatch.create();
+                        int credits = Integer.parseInt(entry.detail("credits"));
+                        for (String pair : entry.detail("grades").split(",")) {
+                            int colon = pair.indexOf(':');
+                            if (colon < 0) {
+                                throw new IllegalArgumentException("Expected ID:grade but got '" + pair + "'");
+                            }
+                            batch.assignCourse(pair.substring(0, colon).trim().toUpperCase(), entry.detail("course"),
+                                               entry.detail("name"), credits, Double.parseDouble(pair.substring(colon + 1).trim()));
+                        }
+                        manager.applyBatch(batch);
+                    }
+                    break;
+                case "CHANGE_GRADING_SCALE":
+                    applied = has(entry, "to");
+                    if (applied) {
+                        manager.setGradingScale(GradingScale.forName(entry.detail("to")));
+                    }
+                    break;
+                default:
+                    return; // not a change to the roster
+            }
+            if (applied) {
+                summary.applied++;
+            } else {
+                summary.skipped++;
+            }
+        } catch (RuntimeException e) {
+            summary.fail(file, entry, e.getMessage());
+        }
+    }
+
+    private static boolean has(SessionLogEntry entry, String... keys) {
+        for (String key : keys) {
+            if (entry.detail(key) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Differences between two rosters, e.g. a replay and the saved data;
+     * at most limit lines
+     */
+    public static List<String> compare(StudentManager expected, StudentManager actual, int limit) {
+        Map<String, Student> theirs = new HashMap<>();
+        for (Student student : actual.getAllStudents()) {
+            theirs.put(student.getStudentId(), student);
+        }
+        List<Student> ours = expected.getAllStudents();
+        ours.sort(Comparator.comparing(Student::getStudentId));
+        List<String> differences = new ArrayList<>();
+        for (Student student : ours) {
+            Student other = theirs.remove(student.getStudentId());
+            String difference = other == null ? "missing" : describeDifference(student, other);
+            if (difference != null && differences.size() < limit) {
+                differences.add(student.getStudentId() + ": " + difference);
+            }
+        }
+        List<String> extra = new ArrayList<>(theirs.keySet());
+        Collections.sort(extra);
+        for (String studentId : extra) {
+            if (differences.size() < limit) {
+                differences.add(studentId + ": not in the log");
+            }
+        }
+        return differences;
+    }
+
+    private static String describeDifference(Student expected, Student actual) {
+        if (!expected.getFirstName().equals(actual.getFirstName()) || !expected.getLastName().equals(actual.getLastName())) {
+            return "name " + expected.getFirstName() + " " + expected.getLastName() + " vs "
+                   + actual.getFirstName() + " " + actual.getLastName();
+        }
+        if (!expected.getEmail().equals(actual.getEmail())) {
+            return "email " + expected.getEmail() + " vs " + actual.getEmail();
+        }
+        if (expected.getAge() != actual.getAge()) {
+            return "age " + expected.getAge() + " vs " + actual.getAge();
+        }
+        String ours = describeCourses(expected);
+        String theirs = describeCourses(actual);
+        return ours.equals(theirs) ? null : "courses [" + ours + "] vs [" + theirs + "]";
+    }
+
+    private static String describeCourses(Student student) {
+        List<Course> courses = new ArrayList<>(student.getCourseList());
+        courses.sort(Comparator.comparing(Course::getCourseCode));
+        StringBuilder sb = new StringBuilder();
+        for (Course course : courses) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(course.getCourseCode()).append(' ').append(course.getCourseName())
+              .append(' ').append(course.getCredits()).append(" cr ").append(course.getGrade());
+        }
+        return sb.toString();
+    }
+
+    private Properties readCheckpoint(String mode) throws IOException {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+        }
+        if (!mode.equals(properties.getProperty("mode"))) {
+            throw new IllegalArgumentException("Checkpoint " + checkpointFile + " was written by "
+                                               + properties.getProperty("mode") + ", not " + mode);
+        }
+        return properties;
+    }
+
+    private static void loadOffsets(Properties checkpoint, Map<String, Long> offsets) {
+        for (String key : checkpoint.stringPropertyNames()) {
+            if (key.startsWith("offset.")) {
+                offsets.put(key.substring(7), Long.parseLong(checkpoint.getProperty(key)));
+            }
+        }
+    }
+
+    /** Roster saved with a replay checkpoint; a new file per checkpoint so a crash never pairs mismatched files */
+    private Path stateFile(long generation) {
+        return checkpointFile.resolveSibling(checkpointFile.getFileName() + ".state-" + generation);
+    }
+
+    private void writeCheckpoint(String mode, Summary summary, Map<String, Long> offsets,
+                                 StudentManager manager, Long generation) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("mode", mode);
+        if (manager != null) {
+            DataStore.save(manager, stateFile(generation));
+            properties.setProperty("generation", generation.toString());
+        }
+        summary.store(properties);
+        for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+            properties.setProperty("offset." + entry.getKey(), entry.getValue().toString());
+        }
+        Path dir = checkpointFile.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Session log " + mode + " checkpoint");
+        }
+        try {
+            Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Command line: audit or replay [sessionsDir] [checkpointFile].
+     * A replay is compared against the saved roster in data/students.dat.
+     */
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : AUDIT;
+        Path directory = args.length > 1 ? Paths.get(args[1]) : SessionLogger.defaultDirectory();
+        SessionLogReplayer replayer = new SessionLogReplayer(directory);
+        if (args.length > 2) {
+            replayer.withCheckpoint(Paths.get(args[2]));
+        }
+        try {
+            Summary summary;
+            if (REPLAY.equals(mode)) {
+                Replay replay = replayer.replay();
+                summary = replay.getSummary();
+                List<String> differences = compare(replay.getManager(), DataStore.load(), 20);
+                System.out.println("Replayed roster: " + replay.getManager().getTotalStudents() + " student(s); "
+                                   + (differences.isEmpty() ? "matches " : "differs from ") + DataStore.defaultFile());
+                differences.forEach(difference -> System.out.println("  " + difference));
+            } else if (AUDIT.equals(mode)) {
+                summary = replayer.audit();
+            } else {
+                System.out.println("Usage: SessionLogReplayer audit|replay [sessionsDir] [checkpointFile]");
+                return;
+            }
+            System.out.println("✓ " + summary);
+            summary.getActionCounts().forEach((action, count) -> System.out.printf("  %-22s %d%n", action, count));
+            summary.getFailures().forEach(failure -> System.out.println("  ✗ " + failure));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("✗ " + e.getMessage());
+        }
+    }
+}
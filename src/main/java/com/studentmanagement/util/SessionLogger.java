@@ -13,40 +13,91 @@ import java.util.UUID;
 
 /**
  * Simple session logger that writes actions to a per-session file.
+ *
+ * Every session of one JVM shares a run ID, written on the SESSION_START
+ * line. Changes are logged with logChange, which puts the manager's
+ * mutation sequence first in the details ("seq=N, ..."), so the logs of
+ * sessions that ran at the same time can be merged back into the order
+ * the changes were made.
  */
 public class SessionLogger implements AutoCloseable {
     private static final String DATA_DIR = "data";
     private static final String SESSIONS_DIR = DATA_DIR + "/sessions";
     private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String RUN_ID = UUID.randomUUID().toString();
 
     private final String sessionId;
     private final String username;
     private final BufferedWriter writer;
 
+    // Timestamp text of the current second, formatted once and reused
+    private long timestampSecond = Long.MIN_VALUE;
+    private String timestamp;
+
     public SessionLogger(String username) throws IOException {
-        ensureSessionsDir();
+        this(username, defaultDirectory());
+    }
+
+    /** Log to a session file in the given directory instead of data/sessions */
+    public SessionLogger(String username, Path directory) throws IOException {
+        ensureDirectory(directory);
         this.username = username;
         this.sessionId = UUID.randomUUID().toString();
         String filename = String.format("session-%s-%s.log", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")), sessionId);
-        File file = new File(SESSIONS_DIR, filename);
+        File file = directory.resolve(filename).toFile();
         this.writer = new BufferedWriter(new FileWriter(file, true));
-        writeLine("SESSION_START", "username=" + username);
+        writeLine("SESSION_START", details("username", username, "run", RUN_ID));
     }
 
-    private static void ensureSessionsDir() throws IOException {
-        Path dir = Paths.get(SESSIONS_DIR);
+    /** Directory holding the session log files, data/sessions */
+    public static Path defaultDirectory() {
+        return Paths.get(SESSIONS_DIR);
+    }
+
+    private static void ensureDirectory(Path dir) throws IOException {
         if (!Files.exists(dir)) {
             Files.createDirectories(dir);
         }
     }
 
     private void writeLine(String action, String details) throws IOException {
-        String line = String.format("%s | %s | %s | %s", LocalDateTime.now().format(TS), sessionId, action, details == null ? "" : details);
-        writer.write(line);
+        writeLine(action, -1, details);
+    }
+
+    /**
+     * Write "timestamp | session | action | details" field by field, without
+     * building the line first; a sequence of 0 or more is written as seq=N
+     */
+    private synchronized void writeLine(String action, long sequence, String details) throws IOException {
+        writer.write(timestamp());
+        writer.write(" | ");
+        writer.write(sessionId);
+        writer.write(" | ");
+        writer.write(action);
+        writer.write(" | ");
+        if (sequence >= 0) {
+            writer.write("seq=");
+            writer.write(Long.toString(sequence));
+            if (details != null && !details.isEmpty()) {
+                writer.write(", ");
+            }
+        }
+        if (details != null) {
+            writer.write(details);
+        }
         writer.newLine();
         writer.flush();
     }
 
+    private String timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        if (second != timestampSecond) {
+            timestamp = LocalDateTime.now().format(TS);
+            timestampSecond = second;
+        }
+        return timestamp;
+    }
+
     public void logAction(String action, String details) {
         try {
             writeLine(action, details);
@@ -55,12 +106,62 @@ public class SessionLogger implements AutoCloseable {
         }
     }
 
+    /**
+     * Log a change to the roster with its position in the manager's change
+     * order, StudentManager.getLastMutationOfCurrentThread() right after it
+     */
+    public void logChange(String action, long sequence, String details) {
+        try {
+            writeLine(action, sequence, details);
+        } catch (IOException e) {
+            System.out.println("✗ Warning: Failed to write session log: " + e.getMessage());
+        }
+    }
+
     public String getSessionId() { return sessionId; }
 
+    /**
+     * Format key/value pairs as the details column ("key=value, key=value").
+     * Backslashes, commas, pipes and line breaks in values are escaped with
+     * a backslash, so SessionLogEntry can split the details back exactly.
+     */
+    public static String details(Object... keysAndValues) {
+        if (keysAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Details need a value for every key");
+        }
+        StringBuilder sb = new StringBuilder(keysAndValues.length * 12);
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(keysAndValues[i]).append('=');
+            String value = String.valueOf(keysAndValues[i + 1]);
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\':
+                    case ',':
+                    case '|':
+                        sb.append('\\').append(c);
+                        break;
+                    case '\n':
+                        sb.append("\\n");
+                        break;
+                    case '\r':
+                        sb.append("\\r");
+                        break;
+                    default:
+                        sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
     @Override
     public void close() {
         try {
-            writeLine("SESSION_END", "username=" + username);
+            writeLine("SESSION_END", details("username", username));
             writer.close();
         } catch (IOException e) {
             // swallow
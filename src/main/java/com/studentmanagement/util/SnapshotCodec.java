@@ -0,0 +1,664 @@
+package com.studentmanagement.util;
+
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.GradingScale;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.StudentManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Block-structured snapshot format for StudentManager.
+ *
+ * Layout:
+ *   magic "SMSSNAP2" | version | journalSequence | nextId | gradingScale (v3+)
+ *   | blockCount
+ *   | blockCount x (offset, length, crc32) | header crc32 | blocks...
+ *
+ * Every block is an independently encoded list of students with its own
+ * CRC32, so blocks can be verified and decoded in parallel and a damaged
+ * block only loses the students stored in it.
+ *
+ * Up to version 3 a block is a serialized List<Student>. From version 4
+ * it is: format byte | uncompressed length | payload. The payload is a
+ * compact record list in which every string is written once per block and
+ * later uses refer back to it, so repeated course names, course codes and
+ * first names cost a few bytes each and share one String once loaded.
+ * Blocks holding a student the record form cannot represent fall back to
+ * Java serialization. The payload is then deflated at the level set by
+ * sms.snapshot.compression: none, fast (the default), default, best or
+ * 0-9. A block that does not shrink is stored as is.
+ *
+ * A snapshot may be accompanied by a warm index image:
+ *   magic "SMSWARM1" | snapshot header crc32 | studentCount | payload crc32 | payload
+ * It is only used with the exact snapshot whose header CRC it carries.
+ */
+public final class SnapshotCodec {
+    private SnapshotCodec() {}
+
+    private static final byte[] MAGIC = {'S', 'M', 'S', 'S', 'N', 'A', 'P', '2'};
+    private static final int VERSION = 4;
+    private static final int FIXED_HEADER_SIZE = MAGIC.length + 4 + 8 + 4 + 4; // excludes the scale name
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+    private static final byte[] IMAGE_MAGIC = {'S', 'M', 'S', 'W', 'A', 'R', 'M', '1'};
+    private static final int IMAGE_HEADER_SIZE = IMAGE_MAGIC.length + 4 + 4 + 4;
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    // Format byte of a version 4 block
+    private static final int BLOCK_DEFLATED = 1;
+    private static final int BLOCK_SERIALIZED = 2;
+    private static final int BLOCK_HEADER_SIZE = 1 + 4;
+
+    // String references in a record block: 0 is null, 1 introduces a new
+    // string and appends it to the block's table, n >= 2 repeats table[n - 2]
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+
+    /**
+     * Result of decoding a snapshot: the recovered manager and a
+     * description of every block that failed verification
+     */
+    public static class DecodeResult {
+        private final StudentManager manager;
+        private final List<String> corruptBlocks;
+
+        DecodeResult(StudentManager manager, List<String> corruptBlocks) {
+            this.manager = manager;
+            this.corruptBlocks = corruptBlocks;
+        }
+
+        public StudentManager getManager() {
+            return manager;
+        }
+
+        public List<String> getCorruptBlocks() {
+            return Collections.unmodifiableList(corruptBlocks);
+        }
+
+        public boolean isClean() {
+            return corruptBlocks.isEmpty();
+        }
+    }
+
+    /** Check whether the buffer starts with the block snapshot magic */
+    public static boolean isBlockSnapshot(ByteBuffer data) {
+        if (data.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data.get(data.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deflate level for new snapshots from -Dsms.snapshot.compression:
+     * none (0), fast (1, the default), default (6), best (9) or a digit
+     */
+    public static int compressionLevelFromSystemProperties() {
+        String level = System.getProperty("sms.snapshot.compression", "fast").trim().toLowerCase(Locale.ROOT);
+        switch (level) {
+            case "none":
+                return Deflater.NO_COMPRESSION;
+            case "fast":
+                return Deflater.BEST_SPEED;
+            case "default":
+                return 6;
+            case "best":
+                return Deflater.BEST_COMPRESSION;
+            default:
+                if (level.length() == 1 && Character.isDigit(level.charAt(0))) {
+                    return level.charAt(0) - '0';
+                }
+                throw new IllegalArgumentException("Invalid sms.snapshot.compression: " + level
+                                                   + " (use none, fast, default, best or 0-9)");
+        }
+    }
+
+    /**
+     * Encode the manager as header + blocks, encoding blocks in parallel.
+     * Caller must hold the manager's lock.
+     */
+    public static List<ByteBuffer> encode(StudentManager manager, int blockSize) {
+        return encode(manager, manager.getAllStudents(), blockSize);
+    }
+
+    /**
+     * Encode the given roster of the manager's students in that order,
+     * compressed as set by sms.snapshot.compression. Caller must hold the
+     * manager's lock.
+     */
+    public static List<ByteBuffer> encode(StudentManager manager, List<Student> students, int blockSize) {
+        return encode(manager, students, blockSize, compressionLevelFromSystemProperties());
+    }
+
+    /**
+     * Encode the given roster with blocks deflated at the given level
+     * (0 stores them uncompressed). Caller must hold the manager's lock.
+     */
+    public static List<ByteBuffer> encode(StudentManager manager, List<Student> students, int blockSize,
+                                          int compressionLevel) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9");
+        }
+        int blockCount = (students.size() + blockSize - 1) / blockSize;
+
+        List<byte[]> blocks = IntStream.range(0, blockCount).parallel()
+            .mapToObj(i -> encodeBlock(
+                students.subList(i * blockSize, Math.min(students.size(), (i + 1) * blockSize)), compressionLevel))
+            .collect(Collectors.toList());
+
+        byte[] scaleName = manager.getGradingScale().getName().getBytes(StandardCharsets.UTF_8);
+        int headerSize = FIXED_HEADER_SIZE + 2 + scaleName.length + blockCount * INDEX_ENTRY_SIZE + 4;
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(manager.getJournalSequence());
+        header.putInt(manager.getNextId());
+        header.putShort((short) scaleName.length);
+        header.put(scaleName);
+        header.putInt(blockCount);
+        long offset = headerSize;
+        for (byte[] block : blocks) {
+            header.putLong(offset);
+            header.putInt(block.length);
+            header.putInt(crc(ByteBuffer.wrap(block)));
+            offset += block.length;
+        }
+        header.putInt(crc(ByteBuffer.wrap(header.array(), 0, headerSize - 4)));
+        header.flip();
+
+        List<ByteBuffer> buffers = new ArrayList<>(blockCount + 1);
+        buffers.add(header);
+        for (byte[] block : blocks) {
+            buffers.add(ByteBuffer.wrap(block));
+        }
+        return buffers;
+    }
+
+    /**
+     * Encode the manager's indexes as a warm image belonging to a snapshot
+     * produced by encode with the same roster. Caller must hold the lock.
+     */
+    public static ByteBuffer encodeIndexImage(StudentManager manager, List<Student> students,
+                                              List<ByteBuffer> snapshot) throws IOException {
+        ByteBuffer header = snapshot.get(0);
+        int snapshotCrc = header.getInt(header.limit() - 4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(IMAGE_HEADER_SIZE + students.size() * 64);
+        bytes.write(new byte[IMAGE_HEADER_SIZE]); // filled in below
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes, 64 * 1024))) {
+            manager.writeIndexImage(students, out);
+        }
+        ByteBuffer image = ByteBuffer.wrap(bytes.toByteArray());
+        int payloadCrc = crc(ByteBuffer.wrap(image.array(), IMAGE_HEADER_SIZE, image.limit() - IMAGE_HEADER_SIZE));
+        image.put(IMAGE_MAGIC).putInt(snapshotCrc).putInt(students.size()).putInt(payloadCrc);
+        image.rewind();
+        return image;
+    }
+
+    /**
+     * Verify and decode all blocks in parallel. Corrupt blocks are skipped
+     * and reported by index and byte offset; a corrupt header is fatal.
+     */
+    public static DecodeResult decode(ByteBuffer data) throws IOException {
+        return decode(data, null);
+    }
+
+    /**
+     * Decode a snapshot, loading the indexes from a warm image if one is
+     * given and it belongs to this snapshot. Otherwise, or if any block is
+     * damaged, the indexes are rebuilt from the students.
+     */
+    public static DecodeResult decode(ByteBuffer data, ByteBuffer indexImage) throws IOException {
+        ByteBuffer in = data.duplicate();
+        if (!isBlockSnapshot(in)) {
+            throw new IOException("Not a block snapshot (bad magic)");
+        }
+        if (in.remaining() < FIXED_HEADER_SIZE) {
+            throw new IOException("Snapshot header truncated at byte " + in.remaining());
+        }
+        in.position(MAGIC.length);
+        int version = in.getInt();
+        if (version < 2 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        long journalSequence = in.getLong();
+        int nextId = in.getInt();
+        String gradingScale = null;
+        int scaleBytes = 0;
+        if (version >= 3) {
+            scaleBytes = 2 + (in.getShort() & 0xFFFF);
+            if (scaleBytes - 2 > in.remaining()) {
+                throw new IOException("Snapshot header truncated at byte " + in.position());
+            }
+            byte[] name = new byte[scaleBytes - 2];
+            in.get(name);
+            gradingScale = new String(name, StandardCharsets.UTF_8);
+        }
+        if (in.remaining() < 4) {
+            throw new IOException("Snapshot header truncated at byte " + in.position());
+        }
+        int blockCount = in.getInt();
+        long headerSize = FIXED_HEADER_SIZE + scaleBytes + (long) blockCount * INDEX_ENTRY_SIZE + 4;
+        if (blockCount < 0 || headerSize > in.limit()) {
+            throw new IOException("Snapshot header corrupt: block count " + blockCount + " exceeds file size " + in.limit());
+        }
+        long[] offsets = new long[blockCount];
+        int[] lengths = new int[blockCount];
+        int[] crcs = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            offsets[i] = in.getLong();
+            lengths[i] = in.getInt();
+            crcs[i] = in.getInt();
+        }
+        int storedHeaderCrc = in.getInt();
+        ByteBuffer headerBytes = data.duplicate();
+        headerBytes.position(0).limit((int) headerSize - 4);
+        if (crc(headerBytes) != storedHeaderCrc) {
+            throw new IOException("Snapshot header checksum mismatch (bytes 0-" + (headerSize - 1) + ")");
+        }
+        if (gradingScale != null) {
+            try {
+                GradingScale.forName(gradingScale);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Snapshot uses unknown grading scale " + gradingScale);
+            }
+        }
+
+        List<String> corrupt = Collections.synchronizedList(new ArrayList<>());
+        List<List<Student>> decoded = IntStream.range(0, blockCount).parallel()
+            .mapToObj(i -> {
+                String location = "block " + i + " at bytes " + offsets[i] + "-" + (offsets[i] + lengths[i] - 1);
+                if (offsets[i] < headerSize || lengths[i] < 0 || offsets[i] + lengths[i] > data.limit()) {
+                    corrupt.add(location + ": extends past end of file (" + data.limit() + " bytes)");
+                    return Collections.<Student>emptyList();
+                }
+                ByteBuffer block = data.duplicate();
+                block.position((int) offsets[i]).limit((int) (offsets[i] + lengths[i]));
+                if (crc(block.duplicate()) != crcs[i]) {
+                    corrupt.add(location + ": checksum mismatch");
+                    return Collections.<Student>emptyList();
+                }
+                try {
+                    return version >= 4 ? decodeBlock(block) : deserializeBlock(block);
+                } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                    corrupt.add(location + ": " + e.getMessage());
+                    return Collections.<Student>emptyList();
+                }
+            })
+            .collect(Collectors.toList());
+
+        List<Student> students = new ArrayList<>();
+        for (List<Student> block : decoded) {
+            students.addAll(block);
+        }
+        Collections.sort(corrupt);
+        ByteBuffer payload = corrupt.isEmpty() ? imagePayload(indexImage, storedHeaderCrc, students.size()) : null;
+        return new DecodeResult(StudentManager.fromSnapshot(students, nextId, journalSequence, gradingScale, payload),
+                                corrupt);
+    }
+
+    /**
+     * Payload of a warm image, or null if there is none or it belongs to
+     * another snapshot or fails its checksum
+     */
+    private static ByteBuffer imagePayload(ByteBuffer image, int snapshotCrc, int studentCount) {
+        if (image == null || image.remaining() < IMAGE_HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer in = image.duplicate();
+        for (byte b : IMAGE_MAGIC) {
+            if (in.get() != b) {
+                return null;
+            }
+        }
+        if (in.getInt() != snapshotCrc || in.getInt() != studentCount) {
+            return null;
+        }
+        int payloadCrc = in.getInt();
+        ByteBuffer payload = in.slice();
+        return crc(payload.duplicate()) == payloadCrc ? payload : null;
+    }
+
+    /**
+     * One version 4 block: records if every student fits the record form,
+     * otherwise serialized, then deflated unless that does not shrink it
+     */
+    private static byte[] encodeBlock(List<Student> students, int compressionLevel) {
+        int format = 0;
+        byte[] raw;
+        int rawLength;
+        if (recordable(students)) {
+            RecordWriter records = new RecordWriter(students.size() * 96);
+            records.writeStudents(students);
+            raw = records.bytes;
+            rawLength = records.length;
+        } else {
+            raw = serializeBlock(new ArrayList<>(students));
+            rawLength = raw.length;
+            format |= BLOCK_SERIALIZED;
+        }
+        byte[] payload = raw;
+        int payloadLength = rawLength;
+        if (compressionLevel > Deflater.NO_COMPRESSION) {
+            byte[] compressed = new byte[rawLength];
+            int compressedLength = deflate(raw, rawLength, compressed, compressionLevel);
+            if (compressedLength >= 0) {
+                payload = compressed;
+                payloadLength = compressedLength;
+                format |= BLOCK_DEFLATED;
+            }
+        }
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + payloadLength);
+        block.put((byte) format).putInt(rawLength).put(payload, 0, payloadLength);
+        return block.array();
+    }
+
+    /** Deflate into out; -1 if the result would not be smaller than the input */
+    private static int deflate(byte[] raw, int length, byte[] out, int level) {
+        Deflater deflater = new Deflater(level, true); // raw deflate; blocks carry their own CRC
+        try {
+            deflater.setInput(raw, 0, length);
+            deflater.finish();
+            int written = 0;
+            while (!deflater.finished()) {
+                if (written == out.length) {
+                    return -1;
+                }
+                written += deflater.deflate(out, written, out.length - written);
+            }
+            return written;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Whether every student survives the record form unchanged: records
+     * are rebuilt through the Student and Course constructors, so values
+     * those reject (possible only in very old snapshots) keep the
+     * serialized form
+     */
+    private static boolean recordable(List<Student> students) {
+        for (Student student : students) {
+            if (blank(student.getStudentId()) || blank(student.getFirstName()) || blank(student.getLastName())
+                || blank(student.getEmail()) || student.getAge() <= 0 || student.getAge() >= 150) {
+                return false;
+            }
+            List<Course> courses = student.getCourseList();
+            for (int i = 0; i < courses.size(); i++) {
+                Course course = courses.get(i);
+                if (course == null || course.getCourseCode() == null
+                    || !(course.getGrade() >= 0 && course.getGrade() <= 100)) {
+                    return false;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (course.equals(courses.get(j))) {
+                        return false; // addCourse would drop the duplicate
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean blank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static List<Student> decodeBlock(ByteBuffer block) throws IOException, ClassNotFoundException {
+        if (block.remaining() < BLOCK_HEADER_SIZE) {
+            throw new IOException("block header truncated");
+        }
+        int format = block.get() & 0xFF;
+        int rawLength = block.getInt();
+        if ((format & ~(BLOCK_DEFLATED | BLOCK_SERIALIZED)) != 0 || rawLength < 0) {
+            throw new IOException("unknown block format " + format);
+        }
+        byte[] raw = new byte[rawLength];
+        if ((format & BLOCK_DEFLATED) != 0) {
+            inflate(block, raw);
+        } else if (block.remaining() != rawLength) {
+            throw new IOException("block length " + block.remaining() + " does not match " + rawLength);
+        } else {
+            block.get(raw);
+        }
+        if ((format & BLOCK_SERIALIZED) != 0) {
+            return deserializeBlock(ByteBuffer.wrap(raw));
+        }
+        try {
+            return new RecordReader(raw).readStudents();
+        } catch (RuntimeException e) {
+            throw new IOException("bad record: " + e.getMessage());
+        }
+    }
+
+    private static void inflate(ByteBuffer compressed, byte[] raw) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length || !inflater.finished()) {
+                throw new IOException("compressed data does not expand to " + raw.length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("compressed data corrupt: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Writes students as records: count, then per student id, first name,
+     * last name, email, age, course count and per course code, name,
+     * credits and grade. Strings are written once per block and referred
+     * back to after that; integers are varints.
+     */
+    private static final class RecordWriter {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] bytes;
+        private int length;
+
+        RecordWriter(int capacity) {
+            this.bytes = new byte[Math.max(64, capacity)];
+        }
+
+        void writeStudents(List<Student> students) {
+            writeVarint(students.size());
+            for (Student student : students) {
+                writeString(student.getStudentId());
+                writeString(student.getFirstName());
+                writeString(student.getLastName());
+                writeString(student.getEmail());
+                writeVarint(student.getAge());
+                List<Course> courses = student.getCourseList();
+                writeVarint(courses.size());
+                for (Course course : courses) {
+                    writeString(course.getCourseCode());
+                    writeString(course.getCourseName());
+                    writeVarint(zigzag(course.getCredits()));
+                    writeLong(Double.doubleToLongBits(course.getGrade()));
+                }
+            }
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarint(NULL_STRING);
+                return;
+            }
+            Integer index = strings.putIfAbsent(value, strings.size());
+            if (index != null) {
+                writeVarint(index + 2);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(NEW_STRING);
+            writeVarint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        private void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void ensure(int needed) {
+            if (length + needed > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + needed));
+            }
+        }
+
+        private static int zigzag(int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+    }
+
+    /**
+     * Reads the records written by RecordWriter. Throws a runtime
+     * exception on malformed input; the caller reports the block as damaged.
+     */
+    private static final class RecordReader {
+        private final List<String> strings = new ArrayList<>();
+        private final byte[] bytes;
+        private int position;
+
+        RecordReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        List<Student> readStudents() {
+            int count = readVarint();
+            List<Student> students = new ArrayList<>(Math.min(count, bytes.length));
+            for (int i = 0; i < count; i++) {
+                Student student = new Student(readString(), readString(), readString(), readString(), readVarint());
+                int courses = readVarint();
+                for (int c = 0; c < courses; c++) {
+                    String code = readString();
+                    String name = readString();
+                    int credits = unzigzag(readVarint());
+                    student.addCourse(new Course(code, name, credits, Double.longBitsToDouble(readLong())));
+                }
+                students.add(student);
+            }
+            if (position != bytes.length) {
+                throw new IllegalStateException((bytes.length - position) + " unexpected trailing byte(s)");
+            }
+            return students;
+        }
+
+        private String readString() {
+            int reference = readVarint();
+            if (reference == NULL_STRING) {
+                return null;
+            }
+            if (reference != NEW_STRING) {
+                return strings.get(reference - 2);
+            }
+            int length = readVarint();
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalStateException("string length " + length + " past end of block");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+            return value;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("varint too long");
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = value << 8 | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private static int unzigzag(int value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    private static byte[] serializeBlock(List<Student> students) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(students);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Student> deserializeBlock(ByteBuffer block) throws IOException, ClassNotFoundException {
+        byte[] bytes = new byte[block.remaining()];
+        block.get(bytes);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (List<Student>) ois.readObject();
+        }
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+}